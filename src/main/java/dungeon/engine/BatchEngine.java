@@ -0,0 +1,347 @@
+package dungeon.engine;
+
+import dungeon.engine.items.Gold;
+import dungeon.engine.items.HealthPotion;
+import dungeon.engine.items.MeleeMutant;
+import dungeon.engine.items.RangedMutant;
+import dungeon.engine.items.Trap;
+
+import java.util.Arrays;
+
+/**
+ * Steps many independent games in lockstep, keeping all game state in flat primitive arrays
+ * (struct-of-arrays) instead of one GameEngine object graph per game.
+ *
+ * The rules are the same as GameEngine.processMove, checkGameEndConditions and advanceLevel.
+ * Scores are not written to the top score list. Each game has its own RNG stream, so a batch
+ * created with the same seed replays identically.
+ */
+public class BatchEngine {
+    // Per-game state codes (kept as bytes so the state array stays compact)
+    public static final byte IN_PROGRESS = 0;
+    public static final byte WIN_GAME = 1;
+    public static final byte LOSE_HP = 2;
+    public static final byte LOSE_STEPS = 3;
+
+    public static final byte NO_MOVE = -1;
+
+    private static final int[] DX = new int[Direction.values().length];
+    private static final int[] DY = new int[Direction.values().length];
+    static {
+        for (Direction d : Direction.values()) {
+            DX[d.ordinal()] = d.getDx();
+            DY[d.ordinal()] = d.getDy();
+        }
+    }
+
+    private final int size;
+    private final int width;
+    private final int height;
+    private final int area;
+
+    private final int[] hp;
+    private final int[] score;
+    private final int[] steps;
+    private final int[] playerX;
+    private final int[] playerY;
+    private final int[] level;
+    private final int[] difficulty;
+    private final byte[] state;
+    private final byte[] tiles; // size * area, game g's tile (x,y) is at g * area + y * width + x
+    private final long[] rng;
+
+    // Scratch buffers reused by every step, so stepping allocates nothing
+    private final int[] target;
+    private final int[] shuffle;
+
+    public BatchEngine(int size, int width, int height, long seed) {
+        if (size <= 0) throw new IllegalArgumentException("Batch size must be positive: " + size);
+        if (width <= 0 || height <= 0 || width * height < 2) {
+            throw new IllegalArgumentException("Map must have at least two cells: " + width + "x" + height);
+        }
+        this.size = size;
+        this.width = width;
+        this.height = height;
+        this.area = width * height;
+        this.hp = new int[size];
+        this.score = new int[size];
+        this.steps = new int[size];
+        this.playerX = new int[size];
+        this.playerY = new int[size];
+        this.level = new int[size];
+        this.difficulty = new int[size];
+        this.state = new byte[size];
+        this.tiles = new byte[size * area];
+        this.rng = new long[size];
+        this.target = new int[size];
+        this.shuffle = new int[area];
+        for (int g = 0; g < size; g++) {
+            rng[g] = mix(seed + g);
+        }
+    }
+
+    public BatchEngine(int size, long seed) {
+        this(size, GameEngine.MAP_WIDTH, GameEngine.MAP_HEIGHT, seed);
+    }
+
+    // Same as GameEngine.startGame for a single game of the batch
+    public void reset(int game, int initialDifficulty) {
+        difficulty[game] = Math.max(0, Math.min(10, initialDifficulty));
+        level[game] = 1;
+        hp[game] = Player.MAX_HP;
+        score[game] = 0;
+        playerX[game] = 0;
+        playerY[game] = height - 1;
+        generateLevel(game);
+        state[game] = IN_PROGRESS;
+    }
+
+    public void resetAll(int initialDifficulty) {
+        for (int g = 0; g < size; g++) reset(g, initialDifficulty);
+    }
+
+    // Copies the current state of a single-game engine into slot 'game'
+    public void loadFrom(int game, GameEngine engine) {
+        GameMap map = engine.getMap();
+        if (map.getWidth() != width || map.getHeight() != height) {
+            throw new IllegalArgumentException("Map size " + map.getWidth() + "x" + map.getHeight()
+                    + " does not match batch size " + width + "x" + height);
+        }
+        Player player = engine.getPlayer();
+        int base = game * area;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                tiles[base + y * width + x] = TileType.of(map.getCell(x, y).getItem());
+            }
+        }
+        hp[game] = player.getHp();
+        score[game] = player.getScore();
+        steps[game] = player.getStepsTaken();
+        playerX[game] = player.getX();
+        playerY[game] = player.getY();
+        level[game] = engine.getCurrentLevel();
+        difficulty[game] = engine.getDifficultySetting();
+        state[game] = toCode(engine.getGameState());
+    }
+
+    public void step(Direction[] moves) {
+        if (moves.length != size) throw new IllegalArgumentException("Expected " + size + " moves, got " + moves.length);
+        for (int g = 0; g < size; g++) {
+            target[g] = moves[g] == null ? NO_MOVE : moves[g].ordinal();
+        }
+        stepTargets();
+    }
+
+    // Moves given as Direction ordinals, NO_MOVE to skip a game this step
+    public void step(byte[] moves) {
+        if (moves.length != size) throw new IllegalArgumentException("Expected " + size + " moves, got " + moves.length);
+        for (int g = 0; g < size; g++) {
+            target[g] = moves[g];
+        }
+        stepTargets();
+    }
+
+    private void stepTargets() {
+        // Pass 1: turn each direction into a destination tile index, or -1 if the game does not move.
+        // Branch-light arithmetic over flat arrays, so the JIT can keep it tight.
+        for (int g = 0; g < size; g++) {
+            int d = target[g];
+            if (d < 0 || state[g] != IN_PROGRESS) { target[g] = -1; continue; }
+            int nx = playerX[g] + DX[d];
+            int ny = playerY[g] + DY[d];
+            boolean inside = nx >= 0 && nx < width && ny >= 0 && ny < height;
+            target[g] = inside ? ny * width + nx : -1;
+        }
+
+        // Pass 2: walls block the move without costing a step
+        for (int g = 0; g < size; g++) {
+            int t = target[g];
+            if (t >= 0 && !TileType.isPassable(tiles[g * area + t])) target[g] = -1;
+        }
+
+        // Pass 3: move, count the step and interact with the tile
+        for (int g = 0; g < size; g++) {
+            int t = target[g];
+            if (t < 0) continue;
+            playerX[g] = t % width;
+            playerY[g] = t / width;
+            steps[g]++;
+            interact(g, g * area + t);
+        }
+
+        // Pass 4: ranged mutant attacks, then end-of-game checks
+        for (int g = 0; g < size; g++) {
+            if (target[g] < 0) continue;
+            if (state[g] == IN_PROGRESS) rangedAttacks(g);
+            checkGameEnd(g);
+        }
+    }
+
+    private void interact(int g, int tile) {
+        switch (tiles[tile]) {
+            case TileType.GOLD:
+                score[g] += Gold.VALUE;
+                tiles[tile] = TileType.EMPTY;
+                break;
+            case TileType.HEALTH_POTION:
+                hp[g] = Math.min(Player.MAX_HP, hp[g] + HealthPotion.HEAL_AMOUNT);
+                tiles[tile] = TileType.EMPTY;
+                break;
+            case TileType.TRAP:
+                hp[g] = Math.max(0, hp[g] - Trap.DAMAGE);
+                break;
+            case TileType.MELEE_MUTANT:
+                hp[g] = Math.max(0, hp[g] - MeleeMutant.DAMAGE);
+                score[g] += MeleeMutant.SCORE_VALUE;
+                tiles[tile] = TileType.EMPTY;
+                break;
+            case TileType.RANGED_MUTANT:
+                score[g] += RangedMutant.SCORE_VALUE;
+                tiles[tile] = TileType.EMPTY;
+                break;
+            case TileType.LADDER:
+                advanceLevel(g);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void advanceLevel(int g) {
+        if (level[g] < GameEngine.MAX_LEVELS) {
+            level[g]++;
+            difficulty[g] += 2;
+            generateLevel(g);
+        } else {
+            state[g] = WIN_GAME;
+        }
+    }
+
+    // Only the tiles in line with the player and within range can attack, so just those are checked.
+    // They are visited in row-major order, the same order as GameEngine's scan.
+    private void rangedAttacks(int g) {
+        int base = g * area;
+        int px = playerX[g];
+        int py = playerY[g];
+        int range = RangedMutant.RANGED_ATTACK_RANGE;
+        for (int y = Math.max(0, py - range); y <= Math.min(height - 1, py + range); y++) {
+            if (y == py) {
+                for (int x = Math.max(0, px - range); x <= Math.min(width - 1, px + range); x++) {
+                    if (x != px) rangedAttack(g, base + y * width + x);
+                }
+            } else {
+                rangedAttack(g, base + y * width + px);
+            }
+        }
+    }
+
+    private void rangedAttack(int g, int tile) {
+        if (tiles[tile] != TileType.RANGED_MUTANT) return;
+        if (nextDouble(g) < RangedMutant.RANGED_ATTACK_HIT_CHANCE) {
+            hp[g] = Math.max(0, hp[g] - RangedMutant.RANGED_ATTACK_DAMAGE);
+        }
+    }
+
+    private void checkGameEnd(int g) {
+        if (state[g] == WIN_GAME) return;
+        if (hp[g] <= 0) {
+            state[g] = LOSE_HP;
+            score[g] = -1;
+        } else if (steps[g] >= GameEngine.MAX_STEPS_PER_LEVEL) {
+            state[g] = LOSE_STEPS;
+            score[g] = -1;
+        }
+    }
+
+    // Same layout rules as GameMap.placeItemsRandomly: entry at the player's position
+    // (bottom-left on level 1), then ladder, gold, traps, potions and mutants on shuffled free cells.
+    private void generateLevel(int g) {
+        int base = g * area;
+        Arrays.fill(tiles, base, base + area, TileType.EMPTY);
+        int entry = playerY[g] * width + playerX[g];
+        tiles[base + entry] = TileType.ENTRY;
+
+        for (int i = 0; i < area; i++) shuffle[i] = i;
+        for (int i = area - 1; i > 0; i--) {
+            int j = nextInt(g, i + 1);
+            int tmp = shuffle[i]; shuffle[i] = shuffle[j]; shuffle[j] = tmp;
+        }
+
+        int next = 0;
+        next = place(base, entry, next, TileType.LADDER, 1);
+        next = place(base, entry, next, TileType.GOLD, GameMap.GOLD_COUNT);
+        next = place(base, entry, next, TileType.TRAP, GameMap.TRAP_COUNT);
+        next = place(base, entry, next, TileType.HEALTH_POTION, GameMap.HEALTH_POTION_COUNT);
+        next = place(base, entry, next, TileType.MELEE_MUTANT, GameMap.MELEE_MUTANT_COUNT);
+        place(base, entry, next, TileType.RANGED_MUTANT, Math.max(0, Math.min(GameMap.MAX_RANGED_MUTANTS, difficulty[g])));
+
+        steps[g] = 0;
+    }
+
+    private int place(int base, int entry, int next, byte type, int count) {
+        for (int placed = 0; placed < count && next < area; next++) {
+            if (shuffle[next] == entry) continue;
+            tiles[base + shuffle[next]] = type;
+            placed++;
+        }
+        return next;
+    }
+
+    // xorshift64* per game; cheap and good enough for game rolls
+    private long nextLong(int g) {
+        long x = rng[g];
+        x ^= x >>> 12;
+        x ^= x << 25;
+        x ^= x >>> 27;
+        rng[g] = x;
+        return x * 0x2545F4914F6CDD1DL;
+    }
+
+    private double nextDouble(int g) { return (nextLong(g) >>> 11) * 0x1.0p-53; }
+
+    private int nextInt(int g, int bound) { return (int) ((nextLong(g) >>> 33) % bound); }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z ^= z >>> 31;
+        return z == 0 ? 0x9E3779B97F4A7C15L : z;
+    }
+
+    private static byte toCode(GameState gameState) {
+        if (gameState == GameState.WIN_GAME) return WIN_GAME;
+        if (gameState == GameState.LOSE_HP) return LOSE_HP;
+        if (gameState == GameState.LOSE_STEPS) return LOSE_STEPS;
+        return IN_PROGRESS;
+    }
+
+    public int countInProgress() {
+        int n = 0;
+        for (int g = 0; g < size; g++) {
+            if (state[g] == IN_PROGRESS) n++;
+        }
+        return n;
+    }
+
+    public int size() { return size; }
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+    public int getHp(int game) { return hp[game]; }
+    public int getScore(int game) { return score[game]; }
+    public int getStepsTaken(int game) { return steps[game]; }
+    public int getPlayerX(int game) { return playerX[game]; }
+    public int getPlayerY(int game) { return playerY[game]; }
+    public int getLevel(int game) { return level[game]; }
+    public int getDifficulty(int game) { return difficulty[game]; }
+    public byte getStateCode(int game) { return state[game]; }
+    public byte getTile(int game, int x, int y) { return tiles[game * area + y * width + x]; }
+
+    public GameState getGameState(int game) {
+        switch (state[game]) {
+            case WIN_GAME: return GameState.WIN_GAME;
+            case LOSE_HP: return GameState.LOSE_HP;
+            case LOSE_STEPS: return GameState.LOSE_STEPS;
+            default: return GameState.IN_PROGRESS;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package dungeon.engine;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+/**
+ * Line protocol for driving the engine from external programs. One command per line,
+ * one response line per command:
+ *
+ *   n [difficulty]  start a new game, answers with full state
+ *   uurrdd          apply a batch of moves (u/d/l/r), stops early if the game ends
+ *   s               full state
+ *   full / delta    answer moves with full state (default) or with deltas
+ *   q               quit
+ *
+ * Full state:  S level hp score steps x y state width height tiles   (tiles row-major, map symbols)
+ * Delta:       D level hp score steps x y state moved changedCount index:symbol ...
+ * Errors:      E message
+ *
+ * Output is buffered and only flushed when no more input is waiting, so pipelined commands
+ * cost one flush per burst instead of one per move.
+ */
+public class BotProtocol {
+    private final BufferedReader in;
+    private final Writer out;
+    private final StringBuilder line = new StringBuilder(256);
+
+    private GameEngine engine;
+    private boolean deltaMode;
+    private byte[] lastTiles; // Tiles as of the last response, for deltas
+    private int[] changedTiles;
+    private int lastLevel;
+
+    public BotProtocol(InputStream input, OutputStream output) {
+        this(input, output, null);
+    }
+
+    // Starts out driving an existing engine, e.g. one with a hand-built map
+    BotProtocol(InputStream input, OutputStream output, GameEngine engine) {
+        this.in = new BufferedReader(new InputStreamReader(input), 1 << 16);
+        this.out = new BufferedWriter(new OutputStreamWriter(output), 1 << 16);
+        this.engine = engine;
+    }
+
+    public void run() throws IOException {
+        String command;
+        while ((command = in.readLine()) != null) {
+            boolean keepGoing = handle(command.trim());
+            out.append(line).append('\n');
+            if (!keepGoing) break;
+            if (!in.ready()) out.flush();
+        }
+        out.flush();
+    }
+
+    // Serves one client at a time on a loopback port until the process is stopped
+    public static void serve(int port) throws IOException {
+        try (ServerSocket server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+            System.err.println("Bot protocol listening on " + server.getLocalSocketAddress());
+            while (true) {
+                try (Socket client = server.accept()) {
+                    client.setTcpNoDelay(true);
+                    new BotProtocol(client.getInputStream(), client.getOutputStream()).run();
+                } catch (IOException e) {
+                    System.err.println("Bot client disconnected: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    // Handles one command and leaves the response (without newline) in 'line'. Returns false on quit.
+    boolean handle(String command) {
+        line.setLength(0);
+        if (command.isEmpty()) {
+            line.append("E empty command");
+            return true;
+        }
+        char first = command.charAt(0);
+        if (first == 'q' && command.length() == 1) {
+            line.append("OK bye");
+            return false;
+        }
+        if (first == 'n' && (command.length() == 1 || command.charAt(1) == ' ')) {
+            startGame(command.substring(1).trim());
+        } else if (command.equals("s")) {
+            if (requireGame()) appendFullState();
+        } else if (command.equals("full") || command.equals("delta")) {
+            deltaMode = command.equals("delta");
+            line.append("OK ").append(deltaMode ? "delta" : "full");
+        } else {
+            applyMoves(command);
+        }
+        return true;
+    }
+
+    private void startGame(String difficultyArg) {
+        int difficulty = 3;
+        if (!difficultyArg.isEmpty()) {
+            try {
+                difficulty = Integer.parseInt(difficultyArg);
+            } catch (NumberFormatException e) {
+                line.append("E bad difficulty: ").append(difficultyArg);
+                return;
+            }
+        }
+        if (engine == null) engine = new GameEngine();
+        engine.startGame(difficulty);
+        appendFullState();
+    }
+
+    private void applyMoves(String moves) {
+        for (int i = 0; i < moves.length(); i++) {
+            if (Direction.fromChar(moves.charAt(i)) == null) {
+                line.append("E unknown command: ").append(moves);
+                return;
+            }
+        }
+        if (!requireGame()) return;
+
+        int moved = 0;
+        for (int i = 0; i < moves.length() && !engine.isGameOver(); i++) {
+            if (engine.processMoveQuietly(Direction.fromChar(moves.charAt(i)))) moved++;
+        }
+        if (deltaMode && lastTiles != null && engine.getCurrentLevel() == lastLevel) {
+            appendDelta(moved);
+        } else {
+            appendFullState();
+        }
+    }
+
+    private boolean requireGame() {
+        if (engine != null && engine.getMap() != null) return true;
+        line.append("E no game, send n first");
+        return false;
+    }
+
+    private void appendFullState() {
+        GameMap map = engine.getMap();
+        appendHeader('S');
+        line.append(' ').append(map.getWidth()).append(' ').append(map.getHeight()).append(' ');
+        snapshotTiles(map);
+        for (byte tile : lastTiles) line.append(TileType.symbol(tile));
+    }
+
+    private void appendDelta(int moved) {
+        GameMap map = engine.getMap();
+        if (changedTiles == null || changedTiles.length != lastTiles.length) changedTiles = new int[lastTiles.length];
+        int changed = 0;
+        int i = 0;
+        for (int y = 0; y < map.getHeight(); y++) {
+            for (int x = 0; x < map.getWidth(); x++, i++) {
+                byte tile = TileType.of(map.getCell(x, y).getItem());
+                if (tile != lastTiles[i]) {
+                    lastTiles[i] = tile;
+                    changedTiles[changed++] = i;
+                }
+            }
+        }
+        appendHeader('D');
+        line.append(' ').append(moved).append(' ').append(changed);
+        for (int c = 0; c < changed; c++) {
+            int index = changedTiles[c];
+            line.append(' ').append(index).append(':').append(TileType.symbol(lastTiles[index]));
+        }
+    }
+
+    private void appendHeader(char kind) {
+        Player player = engine.getPlayer();
+        line.append(kind)
+                .append(' ').append(engine.getCurrentLevel())
+                .append(' ').append(player.getHp())
+                .append(' ').append(player.getScore())
+                .append(' ').append(player.getStepsTaken())
+                .append(' ').append(player.getX())
+                .append(' ').append(player.getY())
+                .append(' ').append(engine.getGameState());
+    }
+
+    private void snapshotTiles(GameMap map) {
+        int area = map.getWidth() * map.getHeight();
+        if (lastTiles == null || lastTiles.length != area) lastTiles = new byte[area];
+        int i = 0;
+        for (int y = 0; y < map.getHeight(); y++) {
+            for (int x = 0; x < map.getWidth(); x++, i++) {
+                lastTiles[i] = TileType.of(map.getCell(x, y).getItem());
+            }
+        }
+        lastLevel = engine.getCurrentLevel();
+    }
+}
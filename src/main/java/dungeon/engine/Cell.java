@@ -1,18 +1,49 @@
 package dungeon.engine;
 
-import dungeon.engine.items.Empty; // Make sure Empty.java is created in dungeon.engine.items
 import java.io.Serializable;
 
+/**
+ * One tile of a GameMap. It holds the id of the entity standing on it in the map's EntityStore
+ * (EntityStore.NONE for bare floor), or is a wall, which is terrain rather than an entity.
+ * getItem returns the shared Item for that type; per-entity state is in the store.
+ */
 public class Cell implements Serializable {
     private static final long serialVersionUID = 3L;
-    private Item item;
     private final Position position; // Mostly for context if a Cell object is passed around
-    public Cell(int x, int y) {
+    private GameMap map; // Null only in a cell just read from a save made before the entity store
+    private int entityId = EntityStore.NONE;
+    private boolean wall;
+    private Item item; // Only in saves from before the entity store; GameMap moves it into the store on load
+
+    Cell(GameMap map, int x, int y) {
+        this.map = map;
         this.position = new Position(x, y);
-        this.item = new Empty(); // Default to an empty cell
     }
-    public Item getItem() { return item; }
-    public void setItem(Item item) { this.item = item; }
+
+    public byte getType() {
+        if (wall) return TileType.WALL;
+        return entityId == EntityStore.NONE ? TileType.EMPTY : map.getEntities().getType(entityId);
+    }
+
+    public Item getItem() { return TileType.toItem(getType()); }
+    public void setItem(Item item) { map.setItemAt(position, item); }
     public Position getPosition() { return position; }
-    public char getSymbol() { return item.getSymbol(); }
-}
\ No newline at end of file
+    public char getSymbol() { return getItem().getSymbol(); }
+
+    int getEntityId() { return entityId; }
+    void setEntityId(int entityId) { this.entityId = entityId; }
+    boolean isWall() { return wall; }
+    void setWall(boolean wall) { this.wall = wall; }
+
+    // For GameMap when loading an old save: attaches the cell and hands over the Item it was saved with
+    Item attach(GameMap map) {
+        Item legacy = item;
+        this.map = map;
+        this.item = null;
+        this.entityId = EntityStore.NONE;
+        this.wall = false;
+        return legacy;
+    }
+
+    boolean isAttached() { return map != null; }
+}
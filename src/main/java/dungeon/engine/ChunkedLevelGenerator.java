@@ -0,0 +1,260 @@
+package dungeon.engine;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Generates large levels with rooms, corridors and walls by splitting the map into
+ * CHUNK_SIZE x CHUNK_SIZE chunks and building them in parallel on a ForkJoinPool.
+ *
+ * Each chunk gets its own RNG seeded from the level seed and the chunk's index, and writes only
+ * its own tiles, so the result is the same for a given seed however many threads run it. A chunk
+ * carves one room and a corridor from it to a door on each side that has a neighbour; the door's
+ * place on a seam is derived from the seam, so the chunks on both sides carve to the same spot.
+ * A short sequential pass then stitches the seams (opens both sides of every door), places the
+ * entry and ladder, and checks that the ladder can be reached, carving a path if not.
+ *
+ * Item counts scale with floor area and difficulty: per 100 floor tiles they match GameMap's fixed
+ * counts for a 10x10 level.
+ */
+public class ChunkedLevelGenerator {
+    public static final int CHUNK_SIZE = 32;
+    private static final int MIN_ROOM_CHUNK = 4; // Smaller edge chunks are left open floor
+
+    private static final double BASE_AREA = GameEngine.MAP_WIDTH * GameEngine.MAP_HEIGHT;
+    private static final byte[] SCATTERED = {TileType.GOLD, TileType.TRAP, TileType.HEALTH_POTION, TileType.MELEE_MUTANT, TileType.RANGED_MUTANT};
+
+    private final ForkJoinPool pool;
+
+    public ChunkedLevelGenerator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    public ChunkedLevelGenerator() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    // Items per floor tile for each SCATTERED type
+    static double[] densities(int difficulty) {
+        int ranged = Math.max(0, Math.min(GameMap.MAX_RANGED_MUTANTS, difficulty));
+        return new double[] {
+                GameMap.GOLD_COUNT / BASE_AREA,
+                GameMap.TRAP_COUNT / BASE_AREA,
+                GameMap.HEALTH_POTION_COUNT / BASE_AREA,
+                GameMap.MELEE_MUTANT_COUNT / BASE_AREA,
+                ranged / BASE_AREA
+        };
+    }
+
+    public GameMap generate(int width, int height, int difficulty, long seed, Position entry) {
+        if (width < 2 || height < 2) throw new IllegalArgumentException("Map must be at least 2x2: " + width + "x" + height);
+        Level level = new Level(width, height, difficulty, seed);
+        pool.invoke(new RangeTask(0, level.chunkCount, level::buildChunk));
+        level.stitch(entry);
+
+        GameMap map = new GameMap(width, height);
+        pool.invoke(new RangeTask(0, height, y -> map.loadRows(level.tiles, y, y + 1)));
+        map.finishLoad(level.tiles, entry, new Position(level.ladder % width, level.ladder / width));
+        return map;
+    }
+
+    // Runs body for every index in [from, to), splitting down to single indexes
+    private static final class RangeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int from;
+        private final int to;
+        private final IntConsumer body;
+
+        RangeTask(int from, int to, IntConsumer body) {
+            this.from = from;
+            this.to = to;
+            this.body = body;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                body.accept(from);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RangeTask(from, mid, body), new RangeTask(mid, to, body));
+        }
+    }
+
+    // One generation run; tiles are TileType codes, y * width + x
+    private static final class Level {
+        final int width;
+        final int height;
+        final int columns;
+        final int rows;
+        final int chunkCount;
+        final long seed;
+        final double[] densities;
+        final byte[] tiles;
+        final int[] roomCentre; // Per chunk, the tile corridors start from
+        int ladder;
+
+        Level(int width, int height, int difficulty, long seed) {
+            this.width = width;
+            this.height = height;
+            this.columns = (width + CHUNK_SIZE - 1) / CHUNK_SIZE;
+            this.rows = (height + CHUNK_SIZE - 1) / CHUNK_SIZE;
+            this.chunkCount = columns * rows;
+            this.seed = seed;
+            this.densities = densities(difficulty);
+            this.tiles = new byte[width * height];
+            this.roomCentre = new int[chunkCount];
+        }
+
+        int x0(int chunk) { return (chunk % columns) * CHUNK_SIZE; }
+        int y0(int chunk) { return (chunk / columns) * CHUNK_SIZE; }
+        int x1(int chunk) { return Math.min(width, x0(chunk) + CHUNK_SIZE); }
+        int y1(int chunk) { return Math.min(height, y0(chunk) + CHUNK_SIZE); }
+
+        // Row where the seam between chunk and its east neighbour is crossed
+        int eastDoor(int chunk) { return doorOn(y0(chunk), y1(chunk), chunk * 2L); }
+        // Column where the seam between chunk and its south neighbour is crossed
+        int southDoor(int chunk) { return doorOn(x0(chunk), x1(chunk), chunk * 2L + 1); }
+
+        private int doorOn(int from, int to, long seam) {
+            if (to - from < 3) return from;
+            return from + 1 + new SplittableRandom(mix(seed ^ mix(seam + 0x5EA3L))).nextInt(to - from - 2);
+        }
+
+        void buildChunk(int chunk) {
+            SplittableRandom random = new SplittableRandom(mix(seed + mix(chunk)));
+            int x0 = x0(chunk), y0 = y0(chunk), x1 = x1(chunk), y1 = y1(chunk);
+            int cx = chunk % columns, cy = chunk / columns;
+
+            if (x1 - x0 < MIN_ROOM_CHUNK || y1 - y0 < MIN_ROOM_CHUNK) {
+                fill(x0, y0, x1, y1, TileType.EMPTY);
+                roomCentre[chunk] = ((y0 + y1) / 2) * width + (x0 + x1) / 2;
+            } else {
+                fill(x0, y0, x1, y1, TileType.WALL);
+                int roomWidth = 2 + random.nextInt(x1 - x0 - 3);
+                int roomHeight = 2 + random.nextInt(y1 - y0 - 3);
+                int roomX = x0 + 1 + random.nextInt(x1 - x0 - 1 - roomWidth);
+                int roomY = y0 + 1 + random.nextInt(y1 - y0 - 1 - roomHeight);
+                fill(roomX, roomY, roomX + roomWidth, roomY + roomHeight, TileType.EMPTY);
+                int centre = (roomY + roomHeight / 2) * width + roomX + roomWidth / 2;
+                roomCentre[chunk] = centre;
+
+                // A corridor to each side that has a neighbour, ending on this chunk's edge tile of the door
+                if (cx + 1 < columns) carve(centre, eastDoor(chunk) * width + x1 - 1);
+                if (cx > 0) carve(centre, eastDoor(chunk - 1) * width + x0);
+                if (cy + 1 < rows) carve(centre, (y1 - 1) * width + southDoor(chunk));
+                if (cy > 0) carve(centre, y0 * width + southDoor(chunk - columns));
+            }
+            scatter(random, x0, y0, x1, y1);
+        }
+
+        // Expected count is density * floor tiles; the fraction is settled by a roll so totals scale smoothly
+        private void scatter(SplittableRandom random, int x0, int y0, int x1, int y1) {
+            int[] floor = new int[(x1 - x0) * (y1 - y0)];
+            int free = 0;
+            for (int y = y0; y < y1; y++) {
+                for (int x = x0; x < x1; x++) {
+                    if (tiles[y * width + x] == TileType.EMPTY) floor[free++] = y * width + x;
+                }
+            }
+            int floorTiles = free;
+            for (int type = 0; type < SCATTERED.length; type++) {
+                double expected = densities[type] * floorTiles;
+                int whole = (int) (expected + 1e-9); // 0.05 * 100 must give 5, not 5 plus a roll
+                int count = whole + (random.nextDouble() < expected - whole - 1e-9 ? 1 : 0);
+                for (int i = 0; i < count && free > 0; i++) {
+                    int pick = random.nextInt(free);
+                    tiles[floor[pick]] = SCATTERED[type];
+                    floor[pick] = floor[--free];
+                }
+            }
+        }
+
+        void stitch(Position entry) {
+            for (int chunk = 0; chunk < chunkCount; chunk++) {
+                if (chunk % columns + 1 < columns) {
+                    int door = eastDoor(chunk) * width + x1(chunk) - 1;
+                    open(door);
+                    open(door + 1);
+                }
+                if (chunk / columns + 1 < rows) {
+                    int door = (y1(chunk) - 1) * width + southDoor(chunk);
+                    open(door);
+                    open(door + width);
+                }
+            }
+
+            int entryTile = entry.y() * width + entry.x();
+            int entryChunk = (entry.y() / CHUNK_SIZE) * columns + entry.x() / CHUNK_SIZE;
+            carve(entryTile, roomCentre[entryChunk]);
+            tiles[entryTile] = TileType.ENTRY;
+
+            // The ladder goes in the room centre of another chunk, or anywhere else if there is only one
+            SplittableRandom random = new SplittableRandom(mix(seed ^ 0x1ADDE5L));
+            int ladderChunk = chunkCount > 1 ? (entryChunk + 1 + random.nextInt(chunkCount - 1)) % chunkCount : entryChunk;
+            ladder = roomCentre[ladderChunk];
+            while (ladder == entryTile) ladder = random.nextInt(tiles.length);
+            tiles[ladder] = TileType.LADDER;
+            if (!reachable(entryTile, ladder)) carve(entryTile, ladder);
+        }
+
+        private void fill(int x0, int y0, int x1, int y1, byte type) {
+            for (int y = y0; y < y1; y++) {
+                for (int x = x0; x < x1; x++) tiles[y * width + x] = type;
+            }
+        }
+
+        private void open(int tile) {
+            if (tiles[tile] == TileType.WALL) tiles[tile] = TileType.EMPTY;
+        }
+
+        // L-shaped corridor, across then up or down; only walls are cleared, items stay
+        private void carve(int from, int to) {
+            int x = from % width, y = from / width;
+            int toX = to % width, toY = to / width;
+            while (x != toX) {
+                open(y * width + x);
+                x += Integer.signum(toX - x);
+            }
+            while (y != toY) {
+                open(y * width + x);
+                y += Integer.signum(toY - y);
+            }
+            open(to);
+        }
+
+        boolean reachable(int from, int to) {
+            boolean[] visited = new boolean[tiles.length];
+            int[] queue = new int[tiles.length];
+            int head = 0, tail = 0;
+            queue[tail++] = from;
+            visited[from] = true;
+            while (head < tail) {
+                int current = queue[head++];
+                if (current == to) return true;
+                int cx = current % width, cy = current / width;
+                for (Direction d : Direction.values()) {
+                    int nx = cx + d.getDx(), ny = cy + d.getDy();
+                    if (nx < 0 || nx >= width || ny < 0 || ny >= height) continue;
+                    int next = ny * width + nx;
+                    if (!visited[next] && TileType.isPassable(tiles[next])) {
+                        visited[next] = true;
+                        queue[tail++] = next;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+
+    // SplitMix64 finaliser, so neighbouring chunk indexes get unrelated seeds
+    private static long mix(long z) {
+        z += 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
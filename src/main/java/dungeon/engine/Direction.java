@@ -7,4 +7,17 @@ public enum Direction {
     Direction(int dx, int dy) { this.dx = dx; this.dy = dy; }
     public int getDx() { return dx; }
     public int getDy() { return dy; }
+    // Change in tile index (y * width + x) for one step; callers check the map edge themselves
+    public int offset(int width) { return dy * width + dx; }
+
+    // u/d/l/r as used by the text UI and bot protocol; null for anything else
+    public static Direction fromChar(char c) {
+        switch (Character.toLowerCase(c)) {
+            case 'u': return UP;
+            case 'd': return DOWN;
+            case 'l': return LEFT;
+            case 'r': return RIGHT;
+            default: return null;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,131 @@
+package dungeon.engine;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Owns a GameEngine on a thread of its own. Commands run there one at a time, in the order they
+ * were submitted, and after each one a new RenderSnapshot is published through an AtomicReference.
+ * A renderer on another thread only reads the latest snapshot, so it never touches the engine and
+ * never waits for slow engine work such as level generation or saving.
+ *
+ * Status messages go through their own queue, so none are lost when the renderer skips snapshots.
+ */
+public class EngineLoop implements Closeable {
+    private final ExecutorService thread = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "game-engine");
+        t.setDaemon(true);
+        return t;
+    });
+    private final AtomicReference<RenderSnapshot> latest = new AtomicReference<>();
+    private final ConcurrentLinkedQueue<String> messages = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queuedMoves = new AtomicInteger();
+    private GameEngine engine; // Only touched on the engine thread
+    private long version;
+
+    // The engine is created on the engine thread, so a slow factory does not hold up the caller
+    public EngineLoop(Supplier<GameEngine> factory) {
+        thread.execute(() -> {
+            engine = factory.get();
+            publish();
+        });
+    }
+
+    // Runs the command on the engine thread, then publishes a snapshot
+    public void submit(Consumer<GameEngine> command) {
+        call(e -> {
+            command.accept(e);
+            return null;
+        });
+    }
+
+    // Like submit, with the command's result handed back through the future
+    public <T> CompletableFuture<T> call(Function<GameEngine, T> command) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        thread.execute(() -> {
+            // The snapshot goes out before the future completes, so whoever waits on it sees the command's effect
+            T value;
+            try {
+                value = command.apply(engine);
+            } catch (RuntimeException e) {
+                post("Engine error: " + e.getMessage());
+                publish();
+                result.completeExceptionally(e);
+                return;
+            }
+            publish();
+            result.complete(value);
+        });
+        return result;
+    }
+
+    // Makes moves in order and publishes one snapshot for the whole batch; moves after the game ends are dropped
+    public void move(List<Direction> directions) {
+        List<Direction> batch = new ArrayList<>(directions);
+        queuedMoves.addAndGet(batch.size());
+        thread.execute(() -> {
+            try {
+                for (Direction direction : batch) {
+                    if (engine.getPlayer() == null || engine.isGameOver()) break;
+                    post(engine.processMove(direction));
+                }
+            } catch (RuntimeException e) {
+                post("Engine error: " + e.getMessage());
+            } finally {
+                queuedMoves.addAndGet(-batch.size());
+                publish();
+            }
+        });
+    }
+
+    /**
+     * Swaps in the engine returned by the loader, which runs on the engine thread and gets the
+     * current engine. A null result keeps the current engine. The future holds the new engine or null.
+     */
+    public CompletableFuture<GameEngine> replace(Function<GameEngine, GameEngine> loader) {
+        return call(e -> {
+            GameEngine loaded = loader.apply(e);
+            if (loaded != null) engine = loaded;
+            return loaded;
+        });
+    }
+
+    // Moves handed to move() that the engine thread has not finished yet
+    public int getQueuedMoves() { return queuedMoves.get(); }
+
+    // The most recently published snapshot, or null before the engine exists
+    public RenderSnapshot getLatest() { return latest.get(); }
+
+    // Any thread may post; the renderer polls them in order
+    public void post(String message) {
+        if (message != null && !message.isEmpty()) messages.add(message);
+    }
+
+    public String pollMessage() { return messages.poll(); }
+
+    private void publish() {
+        if (engine != null) latest.set(RenderSnapshot.of(engine, ++version));
+    }
+
+    // Lets queued commands finish, then stops the engine thread
+    @Override
+    public void close() {
+        thread.shutdown();
+        try {
+            thread.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package dungeon.engine;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Monsters and items as rows in primitive arrays: type (a TileType code), tile (y * width + x),
+ * HP, cooldown and flags. Ids are row numbers. Destroyed rows go on a free list threaded
+ * through nextFree, so create and destroy are O(1) and ids are reused instead of the arrays
+ * growing. Each GameMap owns one store and its cells hold the ids; the Item objects only carry
+ * the rules for a type and are shared, so all per-entity state lives here.
+ *
+ * The cooldown is the turn (the player's step count) from which the entity may act again.
+ */
+public class EntityStore implements Serializable {
+    private static final long serialVersionUID = 12L;
+    public static final int NONE = -1;
+
+    public static final int FLAG_MONSTER = 1;
+    public static final int FLAG_PICKUP = 1 << 1; // Removed from the map when the player steps on it
+    public static final int FLAG_HAZARD = 1 << 2; // Hurts the player on contact
+    static final int FLAG_TRACKED = 1 << 3; // Known to the map's MutantScheduler
+    static final int FLAG_ACTIVE = 1 << 4; // In the MutantScheduler's active list
+    static final int SCHEDULER_FLAGS = FLAG_TRACKED | FLAG_ACTIVE; // Only mean something to the scheduler that set them
+
+    private byte[] type; // TileType.EMPTY marks a free row
+    private int[] tile;
+    private int[] hp;
+    private int[] cooldown;
+    private int[] flags;
+    private int[] nextFree;
+    private int freeHead = NONE;
+    private int highWater; // Rows [0, highWater) have been used at least once
+    private int count;
+
+    public EntityStore() { this(32); }
+
+    public EntityStore(int capacity) {
+        capacity = Math.max(1, capacity);
+        type = new byte[capacity];
+        tile = new int[capacity];
+        hp = new int[capacity];
+        cooldown = new int[capacity];
+        flags = new int[capacity];
+        nextFree = new int[capacity];
+    }
+
+    public int create(byte entityType, int tileIndex) {
+        int id;
+        if (freeHead != NONE) {
+            id = freeHead;
+            freeHead = nextFree[id];
+        } else {
+            if (highWater == type.length) grow();
+            id = highWater++;
+        }
+        type[id] = entityType;
+        tile[id] = tileIndex;
+        hp[id] = defaultHp(entityType);
+        cooldown[id] = 0;
+        flags[id] = defaultFlags(entityType);
+        count++;
+        return id;
+    }
+
+    public void destroy(int id) {
+        if (!isAlive(id)) return;
+        type[id] = TileType.EMPTY;
+        nextFree[id] = freeHead;
+        freeHead = id;
+        count--;
+    }
+
+    public boolean isAlive(int id) { return id >= 0 && id < highWater && type[id] != TileType.EMPTY; }
+    public int size() { return count; }
+
+    // For MemoryFootprint: the six columns at their current capacity
+    long estimateBytes() {
+        return MemoryFootprint.object(6 * MemoryFootprint.REFERENCE + 3 * 4) + MemoryFootprint.array(1, type.length)
+                + 5 * MemoryFootprint.array(4, type.length);
+    }
+    public int capacity() { return type.length; }
+
+    public byte getType(int id) { return type[id]; }
+    public int getTile(int id) { return tile[id]; }
+    public void setTile(int id, int tileIndex) { tile[id] = tileIndex; }
+    public int getHp(int id) { return hp[id]; }
+    public void setHp(int id, int value) { hp[id] = value; }
+    public int getCooldown(int id) { return cooldown[id]; }
+    public void setCooldown(int id, int value) { cooldown[id] = value; }
+    public int getFlags(int id) { return flags[id]; }
+    void setFlags(int id, int value) { flags[id] = value; }
+    public boolean hasFlag(int id, int flag) { return (flags[id] & flag) != 0; }
+    public void setFlag(int id, int flag, boolean on) { flags[id] = on ? flags[id] | flag : flags[id] & ~flag; }
+
+    // Clears the given flags on every row, e.g. the scheduler flags when a new scheduler takes over
+    void clearFlags(int mask) {
+        for (int id = 0; id < highWater; id++) flags[id] &= ~mask;
+    }
+
+    static int defaultHp(byte entityType) {
+        return (entityType == TileType.MELEE_MUTANT || entityType == TileType.RANGED_MUTANT) ? 1 : 0;
+    }
+
+    static int defaultFlags(byte entityType) {
+        switch (entityType) {
+            case TileType.MELEE_MUTANT: return FLAG_MONSTER | FLAG_HAZARD;
+            case TileType.RANGED_MUTANT: return FLAG_MONSTER;
+            case TileType.GOLD:
+            case TileType.HEALTH_POTION: return FLAG_PICKUP;
+            case TileType.TRAP: return FLAG_HAZARD;
+            default: return 0;
+        }
+    }
+
+    private void grow() {
+        int capacity = type.length * 2;
+        type = Arrays.copyOf(type, capacity);
+        tile = Arrays.copyOf(tile, capacity);
+        hp = Arrays.copyOf(hp, capacity);
+        cooldown = Arrays.copyOf(cooldown, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        nextFree = Arrays.copyOf(nextFree, capacity);
+    }
+}
@@ -0,0 +1,141 @@
+package dungeon.engine;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Summarises an EventRecorder file: where games were lost, how often each item is stepped on
+ * per game and how many steps levels take. The file is read one block at a time, and only the
+ * columns the summary needs are decoded, so memory use does not grow with the number of games.
+ *
+ * Usage: java dungeon.engine.EventQuery [events file]
+ */
+public final class EventQuery {
+    private static final String DEFAULT_FILE = "minidungeon_events.dat";
+
+    /** Totals over a whole file. */
+    public static final class Report {
+        private final int width;
+        private final long[] hpDeathsByTile;
+        private final long[] stepDeathsByTile;
+        private final long[] itemSteps = new long[TileType.COUNT];
+        private long games;
+        private long moves;
+        private long wins;
+        private long levelsCompleted;
+        private long levelSteps;
+
+        Report(int width, int height) {
+            this.width = width;
+            this.hpDeathsByTile = new long[width * height];
+            this.stepDeathsByTile = new long[width * height];
+        }
+
+        public long getGames() { return games; }
+        public long getMoves() { return moves; }
+        public long getWins() { return wins; }
+        // Games lost to HP at that tile
+        public long getHpDeaths(int x, int y) { return hpDeathsByTile[y * width + x]; }
+        // Games that ran out of steps at that tile
+        public long getStepDeaths(int x, int y) { return stepDeathsByTile[y * width + x]; }
+        public long getItemSteps(byte type) { return itemSteps[type]; }
+        // Average number of times per game a player stepped onto the item type
+        public double getPickupRate(byte type) { return games == 0 ? 0.0 : (double) itemSteps[type] / games; }
+        public double getAverageStepsPerLevel() { return levelsCompleted == 0 ? 0.0 : (double) levelSteps / levelsCompleted; }
+    }
+
+    private EventQuery() { }
+
+    public static Report scan(Path file) throws IOException {
+        return scan(file, GameEngine.MAP_WIDTH, GameEngine.MAP_HEIGHT);
+    }
+
+    static Report scan(Path file, int width, int height) throws IOException {
+        Report report = new Report(width, height);
+        byte[] kind = new byte[0];
+        byte[] tiles = new byte[0];
+        byte[] items = new byte[0];
+        byte[] steps = new byte[0];
+        byte[] states = new byte[0];
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            while (true) {
+                int count;
+                try {
+                    if (in.readInt() != EventRecorder.MAGIC) throw new IOException("Not an events file, or corrupt: " + file);
+                    count = in.readInt();
+                    if (kind.length < count) {
+                        kind = new byte[count];
+                        tiles = new byte[count * 2];
+                        items = new byte[count];
+                        steps = new byte[count * 2];
+                        states = new byte[count];
+                    }
+                    in.readFully(kind, 0, count);
+                    in.skipNBytes(count * 4L + count * 2L); // game, level
+                    in.readFully(tiles, 0, count * 2);
+                    in.readFully(items, 0, count);
+                    in.skipNBytes(count); // hp
+                    in.readFully(steps, 0, count * 2);
+                    in.readFully(states, 0, count);
+                } catch (EOFException e) {
+                    break; // End of file, or a block cut short by a crash
+                }
+                add(report, count, kind, ByteBuffer.wrap(tiles), items, ByteBuffer.wrap(steps), states);
+            }
+        }
+        return report;
+    }
+
+    private static void add(Report report, int count, byte[] kind, ByteBuffer tiles, byte[] items, ByteBuffer steps, byte[] states) {
+        int area = report.hpDeathsByTile.length;
+        for (int i = 0; i < count; i++) {
+            int tile = tiles.getShort(i * 2);
+            switch (kind[i]) {
+                case EventRecorder.GAME_START:
+                    report.games++;
+                    break;
+                case EventRecorder.MOVE:
+                    report.moves++;
+                    if (items[i] >= 0 && items[i] < TileType.COUNT) report.itemSteps[items[i]]++;
+                    break;
+                case EventRecorder.LEVEL_COMPLETE:
+                    report.levelsCompleted++;
+                    report.levelSteps += steps.getShort(i * 2);
+                    break;
+                case EventRecorder.GAME_END:
+                    if (states[i] == GameState.WIN_GAME.ordinal()) report.wins++;
+                    else if (tile >= 0 && tile < area && states[i] == GameState.LOSE_HP.ordinal()) report.hpDeathsByTile[tile]++;
+                    else if (tile >= 0 && tile < area && states[i] == GameState.LOSE_STEPS.ordinal()) report.stepDeathsByTile[tile]++;
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path file = Paths.get(args.length > 0 ? args[0] : DEFAULT_FILE);
+        Report report = scan(file);
+        System.out.println("Games: " + report.getGames() + ", wins: " + report.getWins() + ", moves: " + report.getMoves());
+        System.out.printf("Average steps per completed level: %.1f%n", report.getAverageStepsPerLevel());
+
+        System.out.println("Deaths (HP reached 0) by tile:");
+        for (int y = 0; y < GameEngine.MAP_HEIGHT; y++) {
+            StringBuilder row = new StringBuilder();
+            for (int x = 0; x < GameEngine.MAP_WIDTH; x++) row.append(String.format("%6d", report.getHpDeaths(x, y)));
+            System.out.println(row);
+        }
+
+        System.out.println("Items stepped on per game:");
+        byte[] items = {TileType.GOLD, TileType.HEALTH_POTION, TileType.TRAP, TileType.MELEE_MUTANT, TileType.RANGED_MUTANT};
+        for (byte type : items) {
+            System.out.printf("  %s %s: %.2f%n", TileType.symbol(type), TileType.toItem(type).getDescription(), report.getPickupRate(type));
+        }
+    }
+}
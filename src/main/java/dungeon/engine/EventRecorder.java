@@ -0,0 +1,149 @@
+package dungeon.engine;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Records game events for analysis. Engines hand events to a lock-free ring (see EventRing) and
+ * carry on; a background thread drains it and appends the events to a file in blocks of up to
+ * BATCH_SIZE. Events that arrive while the ring is full are dropped and counted.
+ *
+ * File layout, repeated per block (big-endian): int MAGIC, int count, then one column after the
+ * other: kind byte[count], game int[count], level short[count], tile short[count] (y * width + x),
+ * item byte[count] (TileType), hp byte[count], steps short[count], state byte[count] (GameState
+ * ordinal, -1 if none). A reader can skip the columns it does not need. EventQuery reads it.
+ *
+ * Game ids are unique within one recorder; a file appended to by several runs can repeat them.
+ */
+public class EventRecorder implements Closeable {
+    public static final byte GAME_START = 0;
+    public static final byte MOVE = 1;           // item is what was on the tile stepped onto
+    public static final byte LEVEL_COMPLETE = 2; // steps is what the level took
+    public static final byte GAME_END = 3;       // tile is where the game ended, state how
+    public static final int MAGIC = 0x4D444556; // "MDEV"
+    public static final int BATCH_SIZE = 4096;
+    static final int RING_CAPACITY = 1 << 16;
+    private static final long IDLE_PARK_NANOS = 20_000_000L;
+
+    private final EventRing ring = new EventRing(RING_CAPACITY);
+    private final AtomicInteger nextGameId = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+    private final DataOutputStream out;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    // Writer thread only: one block, column by column
+    private final byte[] kind = new byte[BATCH_SIZE];
+    private final int[] game = new int[BATCH_SIZE];
+    private final short[] level = new short[BATCH_SIZE];
+    private final short[] tile = new short[BATCH_SIZE];
+    private final byte[] item = new byte[BATCH_SIZE];
+    private final byte[] hp = new byte[BATCH_SIZE];
+    private final short[] steps = new short[BATCH_SIZE];
+    private final byte[] state = new byte[BATCH_SIZE];
+    private boolean failed;
+
+    public EventRecorder(Path file) throws IOException {
+        out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND), 1 << 16));
+        writer = new Thread(this::runWriter, "event-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public int newGameId() { return nextGameId.getAndIncrement(); }
+
+    // Never blocks; safe to call from any number of threads
+    public void record(byte kind, int game, int level, int tile, byte item, int hp, int steps, GameState state) {
+        byte stateCode = (byte) (state == null ? -1 : state.ordinal());
+        if (!ring.offer(kind, game, level, tile, item, hp, steps, stateCode)) dropped.incrementAndGet();
+    }
+
+    public long getDroppedCount() { return dropped.get(); }
+
+    private void runWriter() {
+        boolean unflushed = false;
+        while (true) {
+            boolean stopping = !running; // Read before draining, so nothing recorded before close() is missed
+            int count = drain();
+            if (count > 0) {
+                writeBlock(count);
+                unflushed = true;
+            } else if (stopping) {
+                break;
+            } else {
+                if (unflushed) flush(); // Idle: let readers see what has been written so far
+                unflushed = false;
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+        flush();
+    }
+
+    private int drain() {
+        int count = 0;
+        for (int i = ring.peek(); i >= 0 && count < BATCH_SIZE; i = ring.peek()) {
+            kind[count] = ring.kind[i];
+            game[count] = ring.game[i];
+            level[count] = ring.level[i];
+            tile[count] = ring.tile[i];
+            item[count] = ring.item[i];
+            hp[count] = ring.hp[i];
+            steps[count] = ring.steps[i];
+            state[count] = ring.state[i];
+            ring.release();
+            count++;
+        }
+        return count;
+    }
+
+    private void writeBlock(int count) {
+        if (failed) return;
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(count);
+            out.write(kind, 0, count);
+            for (int i = 0; i < count; i++) out.writeInt(game[i]);
+            for (int i = 0; i < count; i++) out.writeShort(level[i]);
+            for (int i = 0; i < count; i++) out.writeShort(tile[i]);
+            out.write(item, 0, count);
+            out.write(hp, 0, count);
+            for (int i = 0; i < count; i++) out.writeShort(steps[i]);
+            out.write(state, 0, count);
+        } catch (IOException e) {
+            failed = true; // Keep draining so the ring never fills, but stop writing
+            System.err.println("Error writing analytics events: " + e.getMessage());
+        }
+    }
+
+    private void flush() {
+        if (failed) return;
+        try {
+            out.flush();
+        } catch (IOException e) {
+            failed = true;
+            System.err.println("Error writing analytics events: " + e.getMessage());
+        }
+    }
+
+    // Writes everything recorded so far, then stops the writer thread
+    @Override
+    public void close() throws IOException {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        out.close();
+    }
+}
@@ -0,0 +1,75 @@
+package dungeon.engine;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free queue of game events for many producers and one consumer. Events are kept
+ * column by column in primitive arrays, so recording one allocates nothing. Each slot has a
+ * sequence number that says whether it is free for the producer at that position or holds an
+ * event ready for the consumer; producers claim positions with compareAndSet. When the ring is
+ * full, offer fails instead of waiting, so a slow disk never holds up a game.
+ */
+final class EventRing {
+    private final int mask;
+    private final AtomicLongArray sequence;
+    private final AtomicLong head = new AtomicLong(); // Next position to claim
+    private long tail; // Next position to read; consumer only
+
+    final byte[] kind;
+    final int[] game;
+    final short[] level;
+    final short[] tile;
+    final byte[] item;
+    final byte[] hp;
+    final short[] steps;
+    final byte[] state;
+
+    EventRing(int capacity) {
+        if (Integer.bitCount(capacity) != 1) throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        mask = capacity - 1;
+        sequence = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) sequence.set(i, i);
+        kind = new byte[capacity];
+        game = new int[capacity];
+        level = new short[capacity];
+        tile = new short[capacity];
+        item = new byte[capacity];
+        hp = new byte[capacity];
+        steps = new short[capacity];
+        state = new byte[capacity];
+    }
+
+    boolean offer(byte kind, int game, int level, int tile, byte item, int hp, int steps, byte state) {
+        long position;
+        while (true) {
+            position = head.get();
+            long slotSequence = sequence.get((int) position & mask);
+            if (slotSequence < position) return false; // Still holds an unread event from one lap ago: full
+            if (slotSequence == position && head.compareAndSet(position, position + 1)) break;
+        }
+        int i = (int) position & mask;
+        this.kind[i] = kind;
+        this.game[i] = game;
+        this.level[i] = (short) level;
+        this.tile[i] = (short) tile;
+        this.item[i] = item;
+        this.hp[i] = (byte) hp;
+        this.steps[i] = (short) steps;
+        this.state[i] = state;
+        sequence.set(i, position + 1); // Publishes the writes above to the consumer
+        return true;
+    }
+
+    // Index of the next ready event, or -1 if there is none. Call release() once it has been copied.
+    int peek() {
+        int i = (int) tail & mask;
+        return sequence.get(i) == tail + 1 ? i : -1;
+    }
+
+    void release() {
+        int i = (int) tail & mask;
+        sequence.set(i, tail + mask + 1); // Free for the producer one lap later
+        tail++;
+    }
+}
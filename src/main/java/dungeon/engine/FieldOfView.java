@@ -0,0 +1,100 @@
+package dungeon.engine;
+
+import java.util.BitSet;
+
+/**
+ * Line of sight from the player using recursive shadowcasting: each of the 8 octants is scanned
+ * row by row outwards, and walls cut the visible slope range for the rows behind them, so only
+ * tiles inside the radius are ever touched.
+ *
+ * The result is cached for the last origin. It is recomputed only when the player moves, or when
+ * a wall appears or disappears within the radius of the cached origin.
+ */
+public class FieldOfView {
+    public static final int DEFAULT_RADIUS = 6;
+
+    // Octant transforms: (xx, xy, yx, yy) per octant
+    private static final int[][] OCTANTS = {
+            {1, 0, 0, -1}, {0, 1, -1, 0}, {0, -1, -1, 0}, {-1, 0, 0, -1},
+            {-1, 0, 0, 1}, {0, -1, 1, 0}, {0, 1, 1, 0}, {1, 0, 0, 1}
+    };
+
+    private final GameMap map;
+    private final int width;
+    private final int radius;
+    private final BitSet visible;
+
+    private int originX = -1;
+    private int originY = -1;
+    private boolean valid;
+
+    public FieldOfView(GameMap map, int radius) {
+        this.map = map;
+        this.width = map.getWidth();
+        this.radius = radius;
+        this.visible = new BitSet(map.getWidth() * map.getHeight());
+    }
+
+    // Returns true if visibility had to be recomputed, false if the cached result was still good
+    public boolean update(int x, int y) {
+        if (valid && x == originX && y == originY) return false;
+        originX = x;
+        originY = y;
+        visible.clear();
+        visible.set(y * width + x);
+        for (int[] o : OCTANTS) {
+            castLight(1, 1.0, 0.0, o[0], o[1], o[2], o[3]);
+        }
+        valid = true;
+        return true;
+    }
+
+    // Called by GameMap when a tile starts or stops blocking sight
+    void onOpacityChanged(int x, int y) {
+        if (valid && Math.abs(x - originX) <= radius && Math.abs(y - originY) <= radius) {
+            valid = false;
+        }
+    }
+
+    public boolean isVisible(int x, int y) { return visible.get(y * width + x); }
+    public BitSet getVisibleTiles() { return visible; }
+    public int getRadius() { return radius; }
+
+    private void castLight(int row, double start, double end, int xx, int xy, int yx, int yy) {
+        if (start < end) return;
+        int radiusSquared = radius * radius;
+        double newStart = 0.0;
+        for (int j = row; j <= radius; j++) {
+            int dy = -j;
+            boolean blocked = false;
+            for (int dx = -j; dx <= 0; dx++) {
+                double leftSlope = (dx - 0.5) / (dy + 0.5);
+                double rightSlope = (dx + 0.5) / (dy - 0.5);
+                if (start < rightSlope) continue;
+                if (end > leftSlope) break;
+
+                int mapX = originX + dx * xx + dy * xy;
+                int mapY = originY + dx * yx + dy * yy;
+                boolean inside = map.isValidPosition(mapX, mapY);
+                if (inside && dx * dx + dy * dy <= radiusSquared) {
+                    visible.set(mapY * width + mapX);
+                }
+
+                boolean opaque = !inside || map.blocksSight(mapX, mapY);
+                if (blocked) {
+                    if (opaque) {
+                        newStart = rightSlope;
+                    } else {
+                        blocked = false;
+                        start = newStart;
+                    }
+                } else if (opaque && j < radius) {
+                    blocked = true;
+                    castLight(j + 1, start, leftSlope, xx, xy, yx, yy);
+                    newStart = rightSlope;
+                }
+            }
+            if (blocked) break;
+        }
+    }
+}
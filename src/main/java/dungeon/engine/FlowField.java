@@ -0,0 +1,111 @@
+package dungeon.engine;
+
+import dungeon.engine.items.Empty;
+
+import java.util.Arrays;
+
+/**
+ * Distance-to-player map shared by every chasing mutant. One breadth-first search from the
+ * player fills it, then each mutant picks its next step by looking at its four neighbours,
+ * so the cost per mutant is O(1) no matter how many are hunting.
+ *
+ * The search stops at MAX_DISTANCE steps, so a recompute only touches the tiles around the
+ * player rather than the whole map. Arrays are reused between searches: a tile's distance only
+ * counts if its stamp matches the current search, so nothing has to be cleared.
+ */
+public class FlowField {
+    public static final int MAX_DISTANCE = 3 * MutantScheduler.ACTIVE_RADIUS;
+    public static final int UNREACHED = Integer.MAX_VALUE;
+
+    private static final int[] DX = {1, -1, 0, 0};
+    private static final int[] DY = {0, 0, 1, -1};
+
+    private final GameMap map;
+    private final int width;
+    private final int[] distance;
+    private final int[] stamp;
+    private final int[] queue;
+    private int generation;
+
+    private int originX = -1;
+    private int originY = -1;
+    private boolean valid;
+
+    public FlowField(GameMap map) {
+        this.map = map;
+        this.width = map.getWidth();
+        int area = map.getWidth() * map.getHeight();
+        this.distance = new int[area];
+        this.stamp = new int[area];
+        this.queue = new int[area];
+    }
+
+    // Mutants walk over empty tiles and through each other; anything else is in their way
+    static boolean isWalkable(Item item) {
+        return item instanceof Empty || MutantScheduler.isMutant(item);
+    }
+
+    // Returns true if the field had to be recomputed, false if the cached one was still good
+    public boolean update(int playerX, int playerY) {
+        if (valid && playerX == originX && playerY == originY) return false;
+        originX = playerX;
+        originY = playerY;
+        if (++generation == 0) {
+            Arrays.fill(stamp, 0); // Stamp counter wrapped around
+            generation = 1;
+        }
+
+        int head = 0, tail = 0;
+        int start = playerY * width + playerX;
+        stamp[start] = generation;
+        distance[start] = 0;
+        queue[tail++] = start;
+        while (head < tail) {
+            int tile = queue[head++];
+            int d = distance[tile];
+            if (d == MAX_DISTANCE) continue;
+            int x = tile % width, y = tile / width;
+            for (int k = 0; k < 4; k++) {
+                int nx = x + DX[k], ny = y + DY[k];
+                if (!map.isValidPosition(nx, ny)) continue;
+                int next = ny * width + nx;
+                if (stamp[next] == generation || !isWalkable(map.getCell(nx, ny).getItem())) continue;
+                stamp[next] = generation;
+                distance[next] = d + 1;
+                queue[tail++] = next;
+            }
+        }
+        valid = true;
+        return true;
+    }
+
+    // Called by GameMap when a tile starts or stops being walkable for mutants
+    void onWalkableChanged(int x, int y) {
+        if (valid && Math.abs(x - originX) + Math.abs(y - originY) <= MAX_DISTANCE + 1) {
+            valid = false;
+        }
+    }
+
+    public int getDistance(int x, int y) {
+        int tile = y * width + x;
+        return stamp[tile] == generation ? distance[tile] : UNREACHED;
+    }
+
+    // Neighbouring empty tile that is closest to the player, or the tile itself if none gets closer
+    public int nextStep(int tile) {
+        int x = tile % width, y = tile / width;
+        int best = tile;
+        int bestDistance = getDistance(x, y);
+        for (int k = 0; k < 4; k++) {
+            int nx = x + DX[k], ny = y + DY[k];
+            if (!map.isValidPosition(nx, ny) || !(map.getCell(nx, ny).getItem() instanceof Empty)) continue;
+            if (nx == originX && ny == originY) continue; // Never onto the player
+            int d = getDistance(nx, ny);
+            if (d < bestDistance) {
+                best = ny * width + nx;
+                bestDistance = d;
+            }
+        }
+        return best;
+    }
+}
@@ -4,9 +4,10 @@ import dungeon.engine.items.Empty; // For removeItemFromMap
 import dungeon.engine.items.RangedMutant; // For RangedMutant specific logic
 
 import java.io.*;
+import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 import java.util.Scanner; // For text UI
@@ -17,27 +18,52 @@ public class GameEngine implements Serializable {
     private GameMap map;
     private Player player;
     private int currentLevel;
-    private final int maxLevels = 2;
+    public static final int MAX_LEVELS = 2;
+    public static final int MAX_STEPS_PER_LEVEL = 100;
+    private final int maxLevels = MAX_LEVELS;
     private int difficulty; // User input (0-10), default 3. This is the initial difficulty.
+    private int startingDifficulty; // Difficulty chosen at the start, recorded with the score
     // It will be incremented by 2 when advancing a level.
-    private final int maxStepsPerLevel = 100;
+    private final int maxStepsPerLevel = MAX_STEPS_PER_LEVEL;
     private GameState gameState;
+    private boolean endless; // Endless mode: no final level, difficulty keeps rising
+    private boolean fogOfWar;
+    private boolean mobileMutants; // Mutants near the player move after each player move
 
-    private List<ScoreEntry> topScores;
+    private transient TopScores topScores; // Shared by every engine in this JVM; older saves' own copy of the list is ignored
+    private int lastScoreRank; // Place in the top list reached by the last finished game, 0 if it did not make it
     private static final String SAVE_FILE_GAME = "minidungeon.sav";
     private static final String SAVE_FILE_SCORES = "minidungeon_scores.dat";
+    private static final String SAVE_FILE_HISTORY = "minidungeon_history.dat";
+    private static final String SAVE_FILE_EVENTS = "minidungeon_events.dat";
 
-    private static final int MAP_WIDTH = 10;
-    private static final int MAP_HEIGHT = 10;
+    static final int MAP_WIDTH = 10;
+    static final int MAP_HEIGHT = 10;
     private transient Random randomGenerator; // For RangedMutant attacks, etc. Reinitialize on load.
+    private transient LevelPrefetcher levelPrefetcher; // Endless mode only, builds the next level in the background
+    private transient MoveJournal journal; // Autosave, null when off
+    private transient int rollCount; // Ranged attack rolls made during the current move
+    private transient int rollHits; // Bit i set if roll i hit
+    private transient int replayHits = -1; // Hit bits to reuse while a journal record is replayed, -1 otherwise
+    private transient List<MoveListener> moveListeners; // Null until one is added
+    private transient EventRecorder analytics; // Null unless analytics are on
+    private transient int analyticsGameId;
+    private static final String AUTOSAVE_CHECKPOINT = "minidungeon_autosave.sav";
+    private static final String AUTOSAVE_JOURNAL = "minidungeon_autosave.jnl";
+
+    private static final byte COMPACT_VERSION = 1;
 
     public GameEngine() {
 
-        this.topScores = new ArrayList<>();
         loadTopScoresFromFile();
         this.randomGenerator = new Random();
     }
 
+    // Scores and history are left to load on first use
+    private GameEngine(Random random) {
+        this.randomGenerator = random;
+    }
+
     // Getter for GameMap to use to display level number (via player context)
     // Also for GUI to display current level
     public int getCurrentLevel() { return currentLevel; }
@@ -51,82 +77,237 @@ public class GameEngine implements Serializable {
     }
 
     public void startGame(int initialDifficulty) {
+        startGame(initialDifficulty, false);
+    }
+
+    public void startGame(int initialDifficulty, boolean endlessMode) {
+        this.endless = endlessMode;
         this.difficulty = Math.max(0, Math.min(10, initialDifficulty)); // Clamp difficulty 0-10
+        this.startingDifficulty = this.difficulty;
+        this.lastScoreRank = 0;
         this.currentLevel = 1;
         Position startPosLvl1 = new Position(0, MAP_HEIGHT - 1); // Level 1: bottom left
         this.player = new Player(startPosLvl1);
         this.player.setGameEngineContext(this); // Give player a reference to this engine instance
 
+        if (levelPrefetcher != null) levelPrefetcher.cancel();
         setupLevel(); // Setup map for currentLevel (1) using this.difficulty
         this.gameState = GameState.IN_PROGRESS;
+        if (analytics != null) analyticsGameId = analytics.newGameId();
+        recordEvent(EventRecorder.GAME_START, TileType.EMPTY);
+        checkpointAutosave();
         System.out.println("Game started. Initial Difficulty: " + initialDifficulty + " (Current effective difficulty for Level " + this.currentLevel + ": " + this.difficulty + ")");
     }
 
     private void setupLevel() {
         // Note: this.difficulty is used here. It's the initial difficulty for level 1,
         // or the incremented difficulty for subsequent levels.
-        this.map = new GameMap(MAP_WIDTH, MAP_HEIGHT);
-        // player.getPosition() is correct here: for L1 it's startPosLvl1, for L2+ it's the prev ladder pos.
-        this.map.placeItemsRandomly(this.difficulty, this.currentLevel, this.player);
+        GameMap nextMap = null;
+        if (endless && currentLevel > 1) {
+            // The next level was normally generated in the background while this one was played
+            nextMap = getLevelPrefetcher().take(currentLevel, player.getPosition());
+            if (nextMap == null) nextMap = LevelPrefetcher.generate(currentLevel, difficulty, player.getPosition());
+        }
+        if (nextMap != null) {
+            this.map = nextMap;
+        } else {
+            this.map = new GameMap(MAP_WIDTH, MAP_HEIGHT);
+            // player.getPosition() is correct here: for L1 it's startPosLvl1, for L2+ it's the prev ladder pos.
+            this.map.placeItemsRandomly(this.difficulty, this.currentLevel, this.player);
+        }
         // After map generation, ensure player object is at the map's official entry point and stats are reset.
         player.resetForNewLevel(map.getEntryPosition());
+        map.setFogOfWar(fogOfWar);
+        updateVisibility();
         System.out.println("Welcome to Level " + currentLevel + "! (Difficulty for this level: " + this.difficulty + ")");
+        prefetchNextLevel();
+    }
+
+    private void updateVisibility() {
+        map.updateVisibility(player.getX(), player.getY());
+    }
+
+    // Sends game events to the recorder from now on; null turns analytics off.
+    // A game already in progress (started or loaded before this call) is recorded as starting now.
+    public void setAnalytics(EventRecorder recorder) {
+        this.analytics = recorder;
+        if (recorder == null) return;
+        analyticsGameId = recorder.newGameId();
+        if (gameState == GameState.IN_PROGRESS) recordEvent(EventRecorder.GAME_START, TileType.EMPTY);
+    }
+
+    // Replayed journal moves were already recorded when they were first played
+    private void recordEvent(byte kind, byte item) {
+        if (analytics == null || player == null || map == null || isReplaying()) return;
+        analytics.record(kind, analyticsGameId, currentLevel, map.tileOf(player.getX(), player.getY()), item,
+                player.getHp(), player.getStepsTaken(), gameState);
+    }
+
+    public boolean isFogOfWar() { return fogOfWar; }
+
+    public void setFogOfWar(boolean fogOfWar) {
+        this.fogOfWar = fogOfWar;
+        if (map != null && player != null) {
+            map.setFogOfWar(fogOfWar);
+            updateVisibility();
+            checkpointAutosave();
+        }
+    }
+
+    public boolean isMobileMutants() { return mobileMutants; }
+    public void setMobileMutants(boolean mobileMutants) {
+        this.mobileMutants = mobileMutants;
+        checkpointAutosave();
+    }
+
+    private LevelPrefetcher getLevelPrefetcher() {
+        if (levelPrefetcher == null) {
+            levelPrefetcher = new LevelPrefetcher();
+        }
+        return levelPrefetcher;
+    }
+
+    // Endless levels that were handed over by the background generator
+    int getPrefetchedLevelCount() { return levelPrefetcher == null ? 0 : levelPrefetcher.getHandOffs(); }
+
+    boolean isPrefetching() { return levelPrefetcher != null && levelPrefetcher.isPending(); }
+
+    // The next endless level once the background generator has built it, for MemoryFootprint
+    GameMap getPrefetchedMap() { return levelPrefetcher == null ? null : levelPrefetcher.peek(); }
+
+    private void prefetchNextLevel() {
+        if (endless && map != null && map.getLadderPosition() != null) {
+            getLevelPrefetcher().prefetch(currentLevel + 1, difficulty + 2, map.getLadderPosition());
+        }
     }
 
     public String processMove(Direction direction) {
+        StringBuilder messageBuilder = new StringBuilder();
+        applyMove(direction, messageBuilder);
+        return messageBuilder.toString().trim();
+    }
+
+    // Same rules as processMove, but builds no message text. Used by bots and simulations.
+    public boolean processMoveQuietly(Direction direction) {
+        return applyMove(direction, null);
+    }
+
+    // Returns true if the player actually moved. Messages are only built when messageBuilder is not null.
+    private boolean applyMove(Direction direction, StringBuilder messageBuilder) {
+        if (levelPrefetcher == null && gameState == GameState.IN_PROGRESS) prefetchNextLevel(); // Not started yet after fromCompactBytes
+        rollCount = 0;
+        rollHits = 0;
+        int levelBefore = currentLevel;
+        boolean moved = resolveMove(direction, messageBuilder);
+        if (moved && journal != null && !isReplaying()) {
+            try {
+                // A new level or a finished game is not replayable from the journal, so checkpoint it
+                journal.onMove(this, direction, rollCount, rollHits, currentLevel != levelBefore || isGameOver());
+            } catch (IOException e) {
+                System.err.println("Error writing autosave: " + e.getMessage());
+            }
+        }
+        if (moved && moveListeners != null && !isReplaying()) {
+            for (MoveListener listener : moveListeners) listener.onMove(this, direction);
+        }
+        return moved;
+    }
+
+    public void addMoveListener(MoveListener listener) {
+        if (moveListeners == null) moveListeners = new ArrayList<>();
+        moveListeners.add(listener);
+    }
+
+    public void removeMoveListener(MoveListener listener) {
+        if (moveListeners != null) moveListeners.remove(listener);
+    }
+
+    private boolean isReplaying() { return replayHits >= 0; }
+
+    // Applies a move from the autosave journal, reusing its recorded ranged attack outcomes
+    void replayMove(Direction direction, int hitBits) {
+        replayHits = hitBits;
+        try {
+            applyMove(direction, null);
+        } finally {
+            replayHits = -1;
+        }
+    }
+
+    private boolean rollRangedHit() {
+        boolean hit = isReplaying()
+                ? ((replayHits >> rollCount) & 1) != 0
+                : getRandom().nextDouble() < RangedMutant.RANGED_ATTACK_HIT_CHANCE;
+        if (hit && rollCount < 31) rollHits |= 1 << rollCount;
+        rollCount++;
+        return hit;
+    }
+
+    private boolean resolveMove(Direction direction, StringBuilder messageBuilder) {
         if (gameState != GameState.IN_PROGRESS) {
-            return "Game is over or level is transitioning. Cannot move.";
+            if (messageBuilder != null) messageBuilder.append("Game is over or level is transitioning. Cannot move.");
+            return false;
         }
 
-        StringBuilder messageBuilder = new StringBuilder();
-        Position currentPos = player.getPosition();
-        Position newPos = new Position(currentPos.x() + direction.getDx(), currentPos.y() + direction.getDy());
+        int newTile = map.step(map.tileOf(player.getX(), player.getY()), direction);
 
-        if (!map.isValidPosition(newPos)) {
-            messageBuilder.append("You tried to move ").append(direction.toString().toLowerCase()).append(" but it's a boundary wall.");
-            return messageBuilder.toString();
+        if (newTile < 0) {
+            if (messageBuilder != null) {
+                messageBuilder.append("You tried to move ").append(direction.toString().toLowerCase()).append(" but it's a boundary wall.");
+            }
+            return false;
         }
 
-        Item targetItem = map.getCell(newPos).getItem();
+        Item targetItem = map.getCellAt(newTile).getItem();
         if (!targetItem.isPassable()) {
-            messageBuilder.append("You tried to move ").append(direction.toString().toLowerCase()).append(" but it's a ").append(targetItem.getDescription()).append(".");
-            return messageBuilder.toString();
+            if (messageBuilder != null) {
+                messageBuilder.append("You tried to move ").append(direction.toString().toLowerCase()).append(" but it's a ").append(targetItem.getDescription()).append(".");
+            }
+            return false;
         }
 
         // Player actually moves
-        player.moveTo(newPos);
+        player.moveTo(map.tileX(newTile), map.tileY(newTile));
         player.incrementSteps();
-        messageBuilder.append("You moved ").append(direction.toString().toLowerCase()).append(". ");
+        updateVisibility();
+        if (messageBuilder != null) messageBuilder.append("You moved ").append(direction.toString().toLowerCase()).append(". ");
 
         // Interact with the item on the new cell
-        Item itemAtNewPos = map.getCell(newPos).getItem();
-        messageBuilder.append(itemAtNewPos.interact(player, this)).append(" ");
+        Item itemAtNewPos = map.getCellAt(newTile).getItem();
+        recordEvent(EventRecorder.MOVE, TileType.of(itemAtNewPos));
+        String interaction = itemAtNewPos.interact(player, this);
+        if (messageBuilder != null) messageBuilder.append(interaction).append(" ");
 
 
+        // Nearby mutants take their turn before the ranged attacks are resolved
+        if (gameState == GameState.IN_PROGRESS && mobileMutants) {
+            map.getMutantScheduler().tick(player.getX(), player.getY());
+        }
+
         // After player's move and interaction, check for Ranged Mutant attacks
         // Only if game still in progress (e.g., didn't just win by hitting ladder)
         if (gameState == GameState.IN_PROGRESS) {
-            for (int y = 0; y < map.getHeight(); y++) {
-                for (int x = 0; x < map.getWidth(); x++) {
-                    Item itemOnMap = map.getCell(x, y).getItem();
-                    if (itemOnMap instanceof RangedMutant) {
-                        // Ensure mutant wasn't just defeated by stepping on it
-                        if (player.getPosition().equals(new Position(x,y))) continue;
-
-                        Position mutantPos = new Position(x,y);
-                        int dx = Math.abs(player.getPosition().x() - mutantPos.x());
-                        int dy = Math.abs(player.getPosition().y() - mutantPos.y());
-
-                        if ((dx == 0 && dy > 0 && dy <= RangedMutant.RANGED_ATTACK_RANGE) ||
-                                (dy == 0 && dx > 0 && dx <= RangedMutant.RANGED_ATTACK_RANGE)) {
-                            if (getRandom().nextDouble() < RangedMutant.RANGED_ATTACK_HIT_CHANCE) {
-                                player.takeDamage(RangedMutant.RANGED_ATTACK_DAMAGE);
+            // Only tiles in line with the player and within range can shoot, so scan that cross instead
+            // of the whole map. Row-major order keeps the attack order (and messages) the same as before.
+            int px = player.getX();
+            int py = player.getY();
+            int range = RangedMutant.RANGED_ATTACK_RANGE;
+            for (int y = Math.max(0, py - range); y <= Math.min(map.getHeight() - 1, py + range); y++) {
+                int fromX = (y == py) ? Math.max(0, px - range) : px;
+                int toX = (y == py) ? Math.min(map.getWidth() - 1, px + range) : px;
+                for (int x = fromX; x <= toX; x++) {
+                    if (x == px && y == py) continue; // A mutant just defeated by stepping on it
+                    if (map.getCell(x, y).getItem() instanceof RangedMutant
+                            && RangedMutant.readyToFire(map, x, y, player.getStepsTaken())) {
+                        if (rollRangedHit()) {
+                            player.takeDamage(RangedMutant.RANGED_ATTACK_DAMAGE);
+                            if (messageBuilder != null) {
                                 messageBuilder.append("A ranged mutant at (").append(x).append(",").append(y)
                                         .append(") attacked and hit you! (-").append(RangedMutant.RANGED_ATTACK_DAMAGE).append(" HP). ");
-                            } else {
-                                messageBuilder.append("A ranged mutant at (").append(x).append(",").append(y)
-                                        .append(") attacked, but missed. ");
                             }
+                        } else if (messageBuilder != null) {
+                            messageBuilder.append("A ranged mutant at (").append(x).append(",").append(y)
+                                    .append(") attacked, but missed. ");
                         }
                     }
                 }
@@ -135,8 +316,7 @@ public class GameEngine implements Serializable {
 
         // Check game over conditions (HP, Steps) or if game was won via Ladder interaction
         checkGameEndConditions(messageBuilder);
-
-        return messageBuilder.toString().trim();
+        return true;
     }
 
     private void checkGameEndConditions(StringBuilder msgBuilder) {
@@ -144,20 +324,24 @@ public class GameEngine implements Serializable {
             if (msgBuilder != null && !msgBuilder.toString().contains("escaped the dungeon")) {
                 msgBuilder.append("You escaped the dungeon! YOU WIN! ");
             }
-            addScoreToTopList(player.getScore());
+            recordEvent(EventRecorder.GAME_END, TileType.LADDER);
+            if (!isReplaying()) addScoreToTopList(player.getScore());
             return;
         }
 
+        // An endless run always ends in a loss, so it keeps the score it reached instead of -1
         if (player.getHp() <= 0) {
             gameState = GameState.LOSE_HP;
-            player.setScore(-1);
+            if (!endless) player.setScore(-1);
             if (msgBuilder != null) msgBuilder.append("Your HP reached 0. Game Over. ");
-            addScoreToTopList(player.getScore());
+            recordEvent(EventRecorder.GAME_END, TileType.of(map.getCell(player.getX(), player.getY()).getItem()));
+            if (!isReplaying()) addScoreToTopList(player.getScore());
         } else if (player.getStepsTaken() >= maxStepsPerLevel) {
             gameState = GameState.LOSE_STEPS;
-            player.setScore(-1);
+            if (!endless) player.setScore(-1);
             if (msgBuilder != null) msgBuilder.append("You ran out of steps. Game Over. ");
-            addScoreToTopList(player.getScore());
+            recordEvent(EventRecorder.GAME_END, TileType.of(map.getCell(player.getX(), player.getY()).getItem()));
+            if (!isReplaying()) addScoreToTopList(player.getScore());
         }
     }
 
@@ -166,8 +350,13 @@ public class GameEngine implements Serializable {
         map.setItemAt(pos, new Empty());
     }
 
+    public void removeItemFromMap(int x, int y) {
+        map.setItemAt(x, y, new Empty());
+    }
+
     public void advanceLevel() {
-        if (currentLevel < maxLevels) {
+        recordEvent(EventRecorder.LEVEL_COMPLETE, TileType.LADDER);
+        if (endless || currentLevel < maxLevels) {
             currentLevel++;
             this.difficulty += 2; // Increase effective difficulty for the next level
             setupLevel();
@@ -195,11 +384,7 @@ public class GameEngine implements Serializable {
     public static GameEngine loadGame() {
         try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(SAVE_FILE_GAME))) {
             GameEngine loadedEngine = (GameEngine) ois.readObject();
-            loadedEngine.randomGenerator = new Random();
-            if (loadedEngine.player != null) {
-                loadedEngine.player.setGameEngineContext(loadedEngine);
-            }
-            loadedEngine.loadTopScoresFromFile();
+            loadedEngine.restoreAfterLoad();
             System.out.println("Game loaded successfully from " + SAVE_FILE_GAME);
             return loadedEngine;
         } catch (IOException | ClassNotFoundException e) {
@@ -208,82 +393,217 @@ public class GameEngine implements Serializable {
         }
     }
 
-    @SuppressWarnings("unchecked")
-    private void loadTopScoresFromFile() {
-        File scoresFile = new File(SAVE_FILE_SCORES);
-        if (scoresFile.exists()) {
-            try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(scoresFile))) {
-                this.topScores = (List<ScoreEntry>) ois.readObject();
-                if (this.topScores == null) this.topScores = new ArrayList<>();
-            } catch (IOException | ClassNotFoundException e) {
-                System.err.println("Error loading top scores from file: " + e.getMessage());
-                this.topScores = new ArrayList<>();
-            }
-        } else {
-            this.topScores = new ArrayList<>();
+    // Serialized form used by the save slot store
+    byte[] toBytes() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(8192);
+        try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+            oos.writeObject(this);
+        }
+        return bytes.toByteArray();
+    }
+
+    static GameEngine fromStream(InputStream in) throws IOException {
+        try (ObjectInputStream ois = new ObjectInputStream(in)) {
+            GameEngine engine = (GameEngine) ois.readObject();
+            engine.restoreAfterLoad();
+            return engine;
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Unreadable save: " + e.getMessage(), e);
         }
     }
 
-    private void saveTopScoresToFile() {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(SAVE_FILE_SCORES))) {
-            oos.writeObject(this.topScores);
+    // Compact form for hibernated sessions: about one byte per tile instead of the object graph.
+    // Autosave, listeners and analytics are not kept; scores and history load again when needed.
+    byte[] toCompactBytes() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + map.getWidth() * map.getHeight());
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(COMPACT_VERSION);
+            out.writeInt(currentLevel);
+            out.writeInt(difficulty);
+            out.writeInt(startingDifficulty);
+            out.writeInt(lastScoreRank);
+            out.writeByte(gameState == null ? -1 : gameState.ordinal());
+            out.writeBoolean(endless);
+            out.writeBoolean(fogOfWar);
+            out.writeBoolean(mobileMutants);
+            out.writeShort(player.getX());
+            out.writeShort(player.getY());
+            out.writeInt(player.getHp());
+            out.writeInt(player.getScore());
+            out.writeInt(player.getStepsTaken());
+            map.writeCompact(out);
+        }
+        return bytes.toByteArray();
+    }
+
+    static GameEngine fromCompactBytes(byte[] data) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            if (in.readByte() != COMPACT_VERSION) throw new IOException("Unknown compact session version");
+            GameEngine engine = new GameEngine(new Random());
+            engine.currentLevel = in.readInt();
+            engine.difficulty = in.readInt();
+            engine.startingDifficulty = in.readInt();
+            engine.lastScoreRank = in.readInt();
+            int state = in.readByte();
+            engine.gameState = state < 0 ? null : GameState.values()[state];
+            engine.endless = in.readBoolean();
+            engine.fogOfWar = in.readBoolean();
+            engine.mobileMutants = in.readBoolean();
+            engine.player = new Player(new Position(in.readShort(), in.readShort()));
+            engine.player.restore(in.readInt(), in.readInt(), in.readInt());
+            engine.player.setGameEngineContext(engine);
+            engine.map = GameMap.readCompact(in);
+            engine.updateVisibility(); // The next level is prefetched on the first move, not on every wake
+            return engine;
+        }
+    }
+
+    // Rebuilds the transient state of a deserialized engine
+    void restoreAfterLoad() {
+        randomGenerator = new Random();
+        replayHits = -1;
+        if (player != null) {
+            player.setGameEngineContext(this);
+        }
+        if (map != null && player != null) updateVisibility(); // The line-of-sight cache is not saved
+        loadTopScoresFromFile();
+        if (gameState == GameState.IN_PROGRESS) prefetchNextLevel();
+    }
+
+    // Autosave: every move is appended to a small journal, with a full checkpoint now and then
+    public void enableAutosave() {
+        enableAutosave(new MoveJournal(Paths.get(AUTOSAVE_CHECKPOINT), Paths.get(AUTOSAVE_JOURNAL)));
+    }
+
+    public void enableAutosave(MoveJournal moveJournal) {
+        disableAutosave();
+        try {
+            moveJournal.checkpoint(this);
+            this.journal = moveJournal;
+        } catch (IOException e) {
+            System.err.println("Error starting autosave: " + e.getMessage());
+        }
+    }
+
+    public void disableAutosave() {
+        if (journal == null) return;
+        try {
+            journal.close();
         } catch (IOException e) {
-            System.err.println("Error saving top scores to file: " + e.getMessage());
+            System.err.println("Error closing autosave: " + e.getMessage());
         }
+        journal = null;
     }
 
-    public void addScoreToTopList(int scoreOnPlayerObject) {
+    public boolean isAutosave() { return journal != null; }
+
+    // Autosave, move listeners or analytics: attachments the compact form does not keep
+    boolean hasAttachments() {
+        return journal != null || (moveListeners != null && !moveListeners.isEmpty()) || analytics != null;
+    }
+
+    // Writes a checkpoint now, for changes that do not go through a move (e.g. toggling fog of war)
+    private void checkpointAutosave() {
+        if (journal == null || isReplaying()) return;
+        try {
+            journal.checkpoint(this);
+        } catch (IOException e) {
+            System.err.println("Error writing autosave: " + e.getMessage());
+        }
+    }
+
+    public static GameEngine loadAutosave() {
+        return loadAutosave(new MoveJournal(Paths.get(AUTOSAVE_CHECKPOINT), Paths.get(AUTOSAVE_JOURNAL)));
+    }
+
+    // Restores the last checkpoint plus the moves journaled after it; autosave stays on for the restored game
+    public static GameEngine loadAutosave(MoveJournal moveJournal) {
+        try {
+            GameEngine engine = moveJournal.recover();
+            if (engine == null) {
+                System.out.println("No autosave found.");
+                return null;
+            }
+            engine.journal = moveJournal;
+            System.out.println("Autosave restored (" + moveJournal.getRecordsSinceCheckpoint() + " moves replayed since the last checkpoint).");
+            return engine;
+        } catch (IOException e) {
+            System.err.println("Error loading autosave: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void loadTopScoresFromFile() {
+        this.topScores = TopScores.forFile(Paths.get(SAVE_FILE_SCORES));
+        this.topScores.refresh(); // Picks up scores other processes added since
+    }
+
+    // Records the finished game on the leaderboard and returns its place in the top 5 (1-5), or 0 if it did not make it
+    public int addScoreToTopList(int scoreOnPlayerObject) {
         // scoreOnPlayerObject is player.getScore() at the time of game end.
+        ScoreEntry newEntry = new ScoreEntry(scoreOnPlayerObject, LocalDate.now(), startingDifficulty);
+        getScoreHistory().record(newEntry); // Every finished game counts for ranks and percentiles, losses included
+        lastScoreRank = 0;
+
         // The requirement is "final score: -1" for losing.
         if (scoreOnPlayerObject == -1 && (gameState == GameState.LOSE_HP || gameState == GameState.LOSE_STEPS)) {
             System.out.println("Game lost with score -1. This score is not added to the Top 5 player scores list.");
-            return; // Do not add -1 scores to the persistent top list.
+            return 0; // Do not add -1 scores to the persistent top list.
         }
 
-        // Only proceed if it's a winning score (which should be > 0)
-        if (gameState != GameState.WIN_GAME || scoreOnPlayerObject <= 0) {
+        // Only proceed if it's a winning score (which should be > 0), or the end of an endless run
+        if ((gameState != GameState.WIN_GAME && !endless) || scoreOnPlayerObject <= 0) {
             // Or some other logic if you want to record other scores, but spec implies top 5 *winning* plays.
-            return;
+            return 0;
         }
 
-        ScoreEntry newEntry = new ScoreEntry(scoreOnPlayerObject, LocalDate.now());
-
-        // Add and sort
-        topScores.add(newEntry);
-        Collections.sort(topScores); // Sorts descending by score, then date
-
-        // Keep only top 5
-        while (topScores.size() > 5) {
-            topScores.remove(topScores.size() - 1); // Remove lowest score
+        // Safe when other engines, here or in other processes, finish at the same time
+        lastScoreRank = getTopScoreBoard().submit(newEntry);
+        if (lastScoreRank > 0) {
+            System.out.println("Congratulations! Your score of " + newEntry.getScore() + " made it to #" + lastScoreRank + " in the Top 5!");
         }
-        saveTopScoresToFile(); // Save the updated list
+        return lastScoreRank;
+    }
 
-        // Check if the new score made it to the top 5 (after potential removal of others)
-        boolean madeItToTop5 = false;
-        for (ScoreEntry se : topScores) {
-            if (se.equals(newEntry)) {
-                madeItToTop5 = true;
-                break;
-            }
-        }
-        if (madeItToTop5) {
-            System.out.println("Congratulations! Your score of " + newEntry.getScore() + " made it to the Top 5!");
-        }
+    public int getLastScoreRank() { return lastScoreRank; }
+
+    // Shared by every engine in this JVM; read from the file on first use
+    public Leaderboard getLeaderboard() {
+        return getScoreHistory().getLeaderboard();
     }
 
+    private static ScoreHistory getScoreHistory() {
+        return ScoreHistory.forFile(Paths.get(SAVE_FILE_HISTORY));
+    }
 
     public List<ScoreEntry> getTopScores() {
-        return Collections.unmodifiableList(topScores);
+        return getTopScoreBoard().get();
+    }
+
+    private TopScores getTopScoreBoard() {
+        if (topScores == null) loadTopScoresFromFile(); // Transient, so missing after a load
+        return topScores;
     }
 
     public GameMap getMap() { return map; }
     public Player getPlayer() { return player; }
     public GameState getGameState() { return gameState; }
     public int getDifficultySetting() { return difficulty; } // Returns the current effective difficulty for the level
+    public int getStartingDifficulty() { return startingDifficulty; }
+    public boolean isEndless() { return endless; }
 
     public static void main(String[] args) {
+        List<String> options = Arrays.asList(args);
+        if (options.contains("--bot") || options.contains("--bot-port")) {
+            runBotMode(options);
+            return;
+        }
+
         Scanner scanner = new Scanner(System.in);
         GameEngine engine = null;
+        boolean autosave = options.contains("--autosave"); // Journal every move; (L)oad then restores the autosave
+        SpectatorServer spectators = startSpectatorServer(options); // Null unless --spectate-port is given
+        EventRecorder analytics = startAnalytics(options); // Null unless --analytics is given
 
         System.out.println("Welcome to MiniDungeon!");
 
@@ -302,10 +622,13 @@ public class GameEngine implements Serializable {
                     System.out.println("Invalid difficulty format, using default 3.");
                 }
                 engine = new GameEngine();
-                engine.startGame(difficultySetting);
+                engine.setFogOfWar(options.contains("--fog"));
+                engine.setMobileMutants(options.contains("--mobile"));
+                engine.startGame(difficultySetting, options.contains("--endless"));
+                if (autosave) engine.enableAutosave();
                 break;
             } else if (initialChoice.equals("L")) {
-                GameEngine loaded = GameEngine.loadGame();
+                GameEngine loaded = autosave ? GameEngine.loadAutosave() : GameEngine.loadGame();
                 if (loaded != null) {
                     engine = loaded;
                     System.out.println("Game loaded. Current Level: " + engine.getCurrentLevel() +
@@ -326,24 +649,32 @@ public class GameEngine implements Serializable {
             }
         }
 
-        while (engine != null && !engine.isGameOver()) {
-            engine.getMap().displayMapText(engine.getPlayer());
-            System.out.println(engine.getPlayer());
-            System.out.println("Steps remaining in level: " + (engine.maxStepsPerLevel - engine.getPlayer().getStepsTaken()));
+        if (analytics != null && engine != null) engine.setAnalytics(analytics);
+        if (spectators != null && engine != null) {
+            engine.addMoveListener(spectators);
+            spectators.publish(engine);
+        }
+
+        // The ANSI renderer only redraws what changed; --plain keeps the old scrolling output
+        boolean plainOutput = options.contains("--plain");
+        TerminalRenderer renderer = plainOutput ? null : new TerminalRenderer(System.out);
+        if (plainOutput && engine != null) {
             System.out.println("Top Scores (from file):");
-            List<ScoreEntry> currentTopScores = engine.getTopScores();
-            if (currentTopScores.isEmpty()) {
-                System.out.println("No top scores recorded yet.");
+            printTopScores(engine.getTopScores());
+        }
+
+        String message = "";
+        while (engine != null && !engine.isGameOver()) {
+            if (renderer != null) {
+                renderer.render(engine, message);
             } else {
-                int rank = 1;
-                for(ScoreEntry se : currentTopScores){
-                    System.out.println("#" + rank++ + " " + se);
-                }
+                engine.getMap().displayMapText(engine.getPlayer());
+                System.out.println(engine.getPlayer());
+                System.out.println("Steps remaining in level: " + (engine.maxStepsPerLevel - engine.getPlayer().getStepsTaken()));
+                System.out.print("Enter command (u, d, l, r, save, quit): ");
             }
 
-            System.out.print("Enter command (u, d, l, r, save, quit): ");
             String command = scanner.nextLine().trim().toLowerCase();
-            String message = "";
 
             switch (command) {
                 case "u": message = engine.processMove(Direction.UP); break;
@@ -364,8 +695,9 @@ public class GameEngine implements Serializable {
                     message = "Unknown command: " + command;
                     break;
             }
-            System.out.println("\n" + message + "\n");
+            if (renderer == null) System.out.println("\n" + message + "\n");
         }
+        if (renderer != null && engine != null) renderer.render(engine, message);
 
         if (engine != null) {
             System.out.println("================ GAME OVER ================");
@@ -383,17 +715,74 @@ public class GameEngine implements Serializable {
             }
 
             System.out.println("\nFinal Top 5 Player Scores:");
-            List<ScoreEntry> finalTopScores = engine.getTopScores();
-            if (finalTopScores.isEmpty()) {
-                System.out.println("No top scores recorded yet.");
-            } else {
-                int rank = 1;
-                for(ScoreEntry se : finalTopScores){
-                    System.out.println("#" + rank++ + " " + se);
-                }
-            }
+            printTopScores(engine.getTopScores());
         }
         scanner.close();
+        if (spectators != null) spectators.close();
+        if (analytics != null) {
+            try {
+                analytics.close();
+            } catch (IOException e) {
+                System.err.println("Error writing analytics events: " + e.getMessage());
+            }
+        }
         System.out.println("Thanks for playing MiniDungeon!");
     }
+
+    // Appends this session's game events to minidungeon_events.dat with --analytics (read it with EventQuery)
+    private static EventRecorder startAnalytics(List<String> options) {
+        if (!options.contains("--analytics")) return null;
+        try {
+            return new EventRecorder(Paths.get(SAVE_FILE_EVENTS));
+        } catch (IOException e) {
+            System.err.println("Could not open analytics file: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Lets others watch the game on a loopback port with --spectate-port <port>
+    private static SpectatorServer startSpectatorServer(List<String> options) {
+        int portIndex = options.indexOf("--spectate-port");
+        if (portIndex < 0) return null;
+        try {
+            SpectatorServer server = new SpectatorServer(Integer.parseInt(options.get(portIndex + 1)));
+            System.out.println("Spectators can connect on port " + server.getPort() + ".");
+            return server;
+        } catch (IOException e) {
+            System.err.println("Could not start spectator server: " + e.getMessage());
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            System.err.println("Usage: --spectate-port <port>");
+        }
+        return null;
+    }
+
+    // Headless line protocol for bots: on stdin/stdout with --bot, or on a loopback port with --bot-port <port>
+    private static void runBotMode(List<String> options) {
+        int portIndex = options.indexOf("--bot-port");
+        try {
+            if (portIndex < 0) {
+                PrintStream protocolOut = System.out;
+                System.setOut(System.err); // Keep engine chatter out of the protocol stream
+                new BotProtocol(System.in, protocolOut).run();
+            } else {
+                int port = Integer.parseInt(options.get(portIndex + 1));
+                BotProtocol.serve(port);
+            }
+        } catch (IOException e) {
+            System.err.println("Bot protocol error: " + e.getMessage());
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            System.err.println("Usage: --bot-port <port>");
+        }
+    }
+
+    private static void printTopScores(List<ScoreEntry> scores) {
+        if (scores.isEmpty()) {
+            System.out.println("No top scores recorded yet.");
+            return;
+        }
+        int rank = 1;
+        for (ScoreEntry se : scores) {
+            System.out.println("#" + rank++ + " " + se);
+        }
+    }
 }
@@ -1,19 +1,39 @@
 package dungeon.engine;
 
 import dungeon.engine.items.*; // Imports all classes from the items sub-package
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.List;
-import java.util.Random;
 
+/**
+ * A level's grid. Each Cell holds the id of the entity on it, and the entities themselves (type,
+ * tile, HP, cooldown, flags) are rows in the map's EntityStore, so a level can hold many stateful
+ * monsters and items without an object per entity. Walls are terrain and have no entity.
+ */
 public class GameMap implements Serializable {
     private static final long serialVersionUID = 4L;
+    static final int GOLD_COUNT = 5;
+    static final int TRAP_COUNT = 5;
+    static final int HEALTH_POTION_COUNT = 2;
+    static final int MELEE_MUTANT_COUNT = 3;
+    static final int MAX_RANGED_MUTANTS = 10;
     private final Cell[][] grid;
     private final int width;
     private final int height;
     private Position entryPosition;
     private Position ladderPosition; // To know where the ladder is for advancing levels
+    private EntityStore entities;
+    private boolean fogOfWar;
+    private BitSet revealed; // Tiles the player has seen at some point (fog of war memory)
+    private transient FieldOfView fieldOfView;
+    private transient MutantScheduler mutantScheduler; // Built on first use, only when mutants move
+    private transient FlowField flowField; // Distance-to-player map shared by chasing mutants
 
     public GameMap(int width, int height) {
         this.width = width;
@@ -21,21 +41,102 @@ public class GameMap implements Serializable {
         this.grid = new Cell[height][width]; // Standard [row][col] -> [y][x]
         for (int y = 0; y < height; y++) {
             for (int x = 0; x < width; x++) {
-                grid[y][x] = new Cell(x, y);
+                grid[y][x] = new Cell(this, x, y);
             }
         }
+        this.entities = new EntityStore();
     }
     public Cell getCell(int x, int y) {
         if (isValidPosition(x, y)) return grid[y][x];
         return null; // Or throw an exception for invalid coordinates
     }
     public Cell getCell(Position pos) { return getCell(pos.x(), pos.y()); }
+
+    // Tile indexes (y * width + x) address a tile with one int and no Position allocation
+    public int tileOf(int x, int y) { return y * width + x; }
+    public int tileX(int tile) { return tile % width; }
+    public int tileY(int tile) { return tile / width; }
+    public boolean isValidTile(int tile) { return tile >= 0 && tile < width * height; }
+    public Cell getCellAt(int tile) { return isValidTile(tile) ? grid[tile / width][tile % width] : null; }
+
+    // The tile one step away in the direction, or -1 past the map edge
+    public int step(int tile, Direction direction) {
+        int x = tile % width + direction.getDx();
+        int y = tile / width + direction.getDy();
+        return isValidPosition(x, y) ? tile + direction.offset(width) : -1;
+    }
+
     public void setItemAt(Position pos, Item item) {
-        if (isValidPosition(pos)) {
-            grid[pos.y()][pos.x()].setItem(item);
-            if (item instanceof Ladder) this.ladderPosition = pos;
+        if (isValidPosition(pos)) setItemAt(pos.y() * width + pos.x(), item);
+    }
+    public void setItemAt(int x, int y, Item item) {
+        if (isValidPosition(x, y)) setItemAt(y * width + x, item);
+    }
+    // Items are kept by type (see TileType): the old entity on the tile is destroyed and a new one created
+    public void setItemAt(int tile, Item item) {
+        if (!isValidTile(tile)) return;
+        int x = tile % width, y = tile / width;
+        Cell cell = grid[y][x];
+        Item old = cell.getItem();
+        boolean wasOpaque = !old.isPassable();
+        boolean wasWalkable = FlowField.isWalkable(old);
+        setType(cell, tile, TileType.of(item));
+        if (item instanceof Ladder) this.ladderPosition = cell.getPosition();
+        if (fieldOfView != null && wasOpaque == item.isPassable()) fieldOfView.onOpacityChanged(x, y);
+        if (flowField != null && wasWalkable != FlowField.isWalkable(item)) flowField.onWalkableChanged(x, y);
+        if (mutantScheduler != null && MutantScheduler.isMutant(item)) mutantScheduler.track(tile);
+    }
+
+    private void setType(Cell cell, int tile, byte type) {
+        if (cell.getEntityId() != EntityStore.NONE) entities.destroy(cell.getEntityId());
+        cell.setWall(type == TileType.WALL);
+        cell.setEntityId(isEntity(type) ? entities.create(type, tile) : EntityStore.NONE);
+    }
+
+    private static boolean isEntity(byte type) {
+        return type != TileType.EMPTY && type != TileType.WALL && type != TileType.PLAYER;
+    }
+
+    // Moves a mutant onto an empty tile, leaving an empty tile behind; its entity and state go with it.
+    // Tiles are y * width + x. Both tiles stay walkable for mutants, so the flow field is still valid afterwards.
+    void moveItem(int fromTile, int toTile) {
+        Cell from = grid[fromTile / width][fromTile % width];
+        int id = from.getEntityId();
+        from.setEntityId(EntityStore.NONE);
+        grid[toTile / width][toTile % width].setEntityId(id);
+        if (id != EntityStore.NONE) entities.setTile(id, toTile);
+    }
+
+    public int getEntityId(int x, int y) {
+        return isValidPosition(x, y) ? grid[y][x].getEntityId() : EntityStore.NONE;
+    }
+
+    int getEntityAt(int tile) { return grid[tile / width][tile % width].getEntityId(); }
+
+    public EntityStore getEntities() { return entities; }
+
+    // Saves from before the entity store kept an Item object in every cell; move those into a new store
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (width == 0 || height == 0 || grid[0][0].isAttached()) return;
+        entities = new EntityStore();
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                Item legacy = grid[y][x].attach(this);
+                setType(grid[y][x], y * width + x, TileType.of(legacy));
+            }
         }
     }
+
+    public FlowField getFlowField() {
+        if (flowField == null) flowField = new FlowField(this);
+        return flowField;
+    }
+
+    public MutantScheduler getMutantScheduler() {
+        if (mutantScheduler == null) mutantScheduler = new MutantScheduler(this);
+        return mutantScheduler;
+    }
     public boolean isValidPosition(int x, int y) { return x >= 0 && x < width && y >= 0 && y < height; }
     public boolean isValidPosition(Position pos) { return isValidPosition(pos.x(), pos.y()); }
     public int getWidth() { return width; }
@@ -43,8 +144,52 @@ public class GameMap implements Serializable {
     public Position getEntryPosition() { return entryPosition; }
     public Position getLadderPosition() { return ladderPosition; }
 
+    // Fog of war: only tiles in line of sight are shown, plus tiles seen before
+    public boolean isFogOfWar() { return fogOfWar; }
+    public void setFogOfWar(boolean fogOfWar) { this.fogOfWar = fogOfWar; }
+
+    public boolean blocksSight(int x, int y) { return !grid[y][x].getItem().isPassable(); }
+
+    // Recomputes line of sight from (x, y) if needed and adds it to the revealed tiles
+    public void updateVisibility(int x, int y) {
+        if (!fogOfWar || !isValidPosition(x, y)) return;
+        if (fieldOfView == null) fieldOfView = new FieldOfView(this, FieldOfView.DEFAULT_RADIUS);
+        if (revealed == null) revealed = new BitSet(width * height);
+        if (fieldOfView.update(x, y)) revealed.or(fieldOfView.getVisibleTiles());
+    }
+
+    public boolean isVisible(int x, int y) {
+        return !fogOfWar || (fieldOfView != null && fieldOfView.isVisible(x, y));
+    }
+
+    public boolean isRevealed(int x, int y) {
+        return !fogOfWar || (revealed != null && revealed.get(y * width + x));
+    }
+
+    // Whether a renderer should draw this tile at all (visible now or remembered)
+    public boolean isShown(int x, int y) { return isVisible(x, y) || isRevealed(x, y); }
+
     public void placeItemsRandomly(int difficulty, int currentLevel, Player player) {
-        Random random = new Random();
+        // 1. Determine Entry
+        Position entry;
+        if (currentLevel == 1) {
+            entry = new Position(0, height - 1); // Bottom-left for Level 1
+        } else {
+            // For Level 2+, entry is where the player was (at the ladder of the previous level)
+            entry = player.getPosition();
+        }
+        int rangedMutantCount = Math.max(0, Math.min(MAX_RANGED_MUTANTS, difficulty));
+        placeItems(entry, player != null ? player.getPosition() : null,
+                GOLD_COUNT, TRAP_COUNT, HEALTH_POTION_COUNT, MELEE_MUTANT_COUNT, rangedMutantCount);
+    }
+
+    // Places the Entry, one Ladder and the given item counts on random free cells (used for scaled endless levels)
+    public void placeItems(Position entry, int goldCount, int trapCount, int healthPotionCount, int meleeMutantCount, int rangedMutantCount) {
+        placeItems(entry, null, goldCount, trapCount, healthPotionCount, meleeMutantCount, rangedMutantCount);
+    }
+
+    private void placeItems(Position entry, Position reserved, int goldCount, int trapCount, int healthPotionCount,
+                            int meleeMutantCount, int rangedMutantCount) {
         List<Position> availableCells = new ArrayList<>();
         for (int y = 0; y < height; y++) {
             for (int x = 0; x < width; x++) {
@@ -53,18 +198,12 @@ public class GameMap implements Serializable {
         }
         Collections.shuffle(availableCells);
 
-        // 1. Determine and set Entry
-        if (currentLevel == 1) {
-            this.entryPosition = new Position(0, height - 1); // Bottom-left for Level 1
-        } else {
-            // For Level 2+, entry is where the player was (at the ladder of the previous level)
-            this.entryPosition = player.getPosition();
-        }
+        this.entryPosition = entry;
         setItemAt(this.entryPosition, new Entry());
         availableCells.remove(this.entryPosition); // Don't place other items on Entry
 
-        if (player != null && !player.getPosition().equals(this.entryPosition) && availableCells.contains(player.getPosition())) {
-            availableCells.remove(player.getPosition());
+        if (reserved != null && !reserved.equals(this.entryPosition) && availableCells.contains(reserved)) {
+            availableCells.remove(reserved);
         }
 
         // 2. Place Ladder (1) - must not be on Entry
@@ -91,9 +230,6 @@ public class GameMap implements Serializable {
         }
 
         // 3. Place other items
-        int goldCount = 5, trapCount = 5, healthPotionCount = 2, meleeMutantCount = 3;
-        int rangedMutantCount = Math.max(0, Math.min(10, difficulty));
-
         for (int i = 0; i < goldCount && !availableCells.isEmpty(); i++) setItemAt(availableCells.remove(0), new Gold());
         for (int i = 0; i < trapCount && !availableCells.isEmpty(); i++) setItemAt(availableCells.remove(0), new Trap());
         for (int i = 0; i < healthPotionCount && !availableCells.isEmpty(); i++) setItemAt(availableCells.remove(0), new HealthPotion());
@@ -101,22 +237,155 @@ public class GameMap implements Serializable {
         for (int i = 0; i < rangedMutantCount && !availableCells.isEmpty(); i++) setItemAt(availableCells.remove(0), new RangedMutant());
     }
 
+    // For MemoryFootprint: the EntityStore columns (the ids themselves are in the cells)
+    long entityBytes() { return entities.estimateBytes(); }
+
+    // For MemoryFootprint: fog of war memory plus whichever per-map caches have been built
+    long cacheBytes() {
+        int area = width * height;
+        long total = revealed != null ? MemoryFootprint.bitSet(area) : 0;
+        if (fieldOfView != null) total += MemoryFootprint.object(4 * MemoryFootprint.REFERENCE) + MemoryFootprint.bitSet(area);
+        if (flowField != null) total += MemoryFootprint.object(8 * 4) + 3 * MemoryFootprint.array(4, area);
+        if (mutantScheduler != null) {
+            int chunks = ((width + 7) / 8) * ((height + 7) / 8);
+            total += MemoryFootprint.object(8 * 4) + MemoryFootprint.array(MemoryFootprint.REFERENCE, chunks)
+                    + mutantScheduler.getTrackedCount() * 4L;
+        }
+        return total;
+    }
+
+    // Bulk load for generators into a new map: sets the walls of rows [fromRow, toRow) from TileType
+    // codes without the per-cell bookkeeping of setItemAt. Distinct row ranges may be loaded from
+    // different threads; call finishLoad with the same codes once all rows are in.
+    void loadRows(byte[] tiles, int fromRow, int toRow) {
+        for (int y = fromRow; y < toRow; y++) {
+            for (int x = 0; x < width; x++) grid[y][x].setWall(tiles[y * width + x] == TileType.WALL);
+        }
+    }
+
+    // Creates the entities in tile order on the calling thread, since the store is not thread-safe
+    void finishLoad(byte[] tiles, Position entry, Position ladder) {
+        for (int tile = 0; tile < tiles.length; tile++) {
+            if (isEntity(tiles[tile])) grid[tile / width][tile % width].setEntityId(entities.create(tiles[tile], tile));
+        }
+        this.entryPosition = entry;
+        this.ladderPosition = ladder;
+        this.fieldOfView = null;
+        this.flowField = null;
+        this.mutantScheduler = null;
+    }
+
+    // Compact form for hibernated sessions: size, one TileType byte per tile, entry and ladder tiles, fog
+    // memory, then (tile, HP, cooldown, flags) for each entity whose state is not the default for its type
+    void writeCompact(DataOutput out) throws IOException {
+        out.writeShort(width);
+        out.writeShort(height);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) out.writeByte(grid[y][x].getType());
+        }
+        out.writeInt(entryPosition != null ? tileOf(entryPosition.x(), entryPosition.y()) : -1);
+        out.writeInt(ladderPosition != null ? tileOf(ladderPosition.x(), ladderPosition.y()) : -1);
+        out.writeBoolean(fogOfWar);
+        long[] words = revealed != null ? revealed.toLongArray() : new long[0];
+        out.writeInt(revealed != null ? words.length : -1);
+        for (long word : words) out.writeLong(word);
+
+        List<Integer> changed = new ArrayList<>();
+        for (int tile = 0; tile < width * height; tile++) {
+            int id = getEntityAt(tile);
+            if (id != EntityStore.NONE && !hasDefaultState(id)) changed.add(tile);
+        }
+        out.writeInt(changed.size());
+        for (int tile : changed) {
+            int id = getEntityAt(tile);
+            out.writeInt(tile);
+            out.writeInt(entities.getHp(id));
+            out.writeInt(entities.getCooldown(id));
+            out.writeInt(entities.getFlags(id) & ~EntityStore.SCHEDULER_FLAGS);
+        }
+    }
+
+    private boolean hasDefaultState(int id) {
+        byte type = entities.getType(id);
+        return entities.getHp(id) == EntityStore.defaultHp(type) && entities.getCooldown(id) == 0
+                && (entities.getFlags(id) & ~EntityStore.SCHEDULER_FLAGS) == EntityStore.defaultFlags(type);
+    }
+
+    static GameMap readCompact(DataInput in) throws IOException {
+        int width = in.readUnsignedShort();
+        int height = in.readUnsignedShort();
+        byte[] tiles = new byte[width * height];
+        in.readFully(tiles);
+        GameMap map = new GameMap(width, height);
+        map.loadRows(tiles, 0, height);
+        int entry = in.readInt();
+        int ladder = in.readInt();
+        map.finishLoad(tiles, entry >= 0 ? new Position(entry % width, entry / width) : null,
+                ladder >= 0 ? new Position(ladder % width, ladder / width) : null);
+        map.fogOfWar = in.readBoolean();
+        int words = in.readInt();
+        if (words >= 0) {
+            long[] bits = new long[words];
+            for (int i = 0; i < words; i++) bits[i] = in.readLong();
+            map.revealed = BitSet.valueOf(bits);
+        }
+        int changed = in.readInt();
+        for (int i = 0; i < changed; i++) {
+            int tile = in.readInt();
+            int id = map.isValidTile(tile) ? map.getEntityAt(tile) : EntityStore.NONE;
+            if (id == EntityStore.NONE) throw new IOException("No entity at tile " + tile + " in compact session");
+            map.entities.setHp(id, in.readInt());
+            map.entities.setCooldown(id, in.readInt());
+            map.entities.setFlags(id, in.readInt());
+        }
+        return map;
+    }
+
+    // Breadth-first search over passable cells; LevelPrefetcher checks each level it generates with it
+    public boolean isReachable(Position from, Position to) {
+        if (!isValidPosition(from) || !isValidPosition(to)) return false;
+        int start = from.y() * width + from.x();
+        int goal = to.y() * width + to.x();
+        boolean[] visited = new boolean[width * height];
+        int[] queue = new int[width * height];
+        int head = 0, tail = 0;
+        queue[tail++] = start;
+        visited[start] = true;
+        while (head < tail) {
+            int current = queue[head++];
+            if (current == goal) return true;
+            int cx = current % width, cy = current / width;
+            for (Direction d : Direction.values()) {
+                int nx = cx + d.getDx(), ny = cy + d.getDy();
+                if (!isValidPosition(nx, ny)) continue;
+                int next = ny * width + nx;
+                if (!visited[next] && grid[ny][nx].getItem().isPassable()) {
+                    visited[next] = true;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return false;
+    }
+
     public void displayMapText(Player player) {
         int currentDisplayLevel = 1;
         if (player.getGameEngineContext() instanceof GameEngine) {
             currentDisplayLevel = ((GameEngine) player.getGameEngineContext()).getCurrentLevel();
         }
-        System.out.println("---- LEVEL " + currentDisplayLevel + " MAP ----");
+        // Build the whole map first and print it in one call, rather than one print per tile
+        int playerX = player.getX();
+        int playerY = player.getY();
+        StringBuilder sb = new StringBuilder((width * 2 + 1) * height + 64);
+        sb.append("---- LEVEL ").append(currentDisplayLevel).append(" MAP ----").append(System.lineSeparator());
         for (int y = 0; y < height; y++) {
             for (int x = 0; x < width; x++) {
-                if (player.getPosition().equals(new Position(x, y))) {
-                    System.out.print('P' + " ");
-                } else {
-                    System.out.print(grid[y][x].getSymbol() + " ");
-                }
+                char symbol = isShown(x, y) ? grid[y][x].getSymbol() : ' ';
+                sb.append(x == playerX && y == playerY ? 'P' : symbol).append(' ');
             }
-            System.out.println();
+            sb.append(System.lineSeparator());
         }
-        System.out.println("-------------");
+        sb.append("-------------").append(System.lineSeparator());
+        System.out.print(sb);
     }
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package dungeon.engine;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Unordered growable list of ints with O(1) add and O(1) swap-remove, without boxing.
+ */
+class IntBag implements Serializable {
+    private static final long serialVersionUID = 11L;
+    private int[] values;
+    private int size;
+
+    IntBag() { this(8); }
+    IntBag(int capacity) { values = new int[Math.max(1, capacity)]; }
+
+    void add(int value) {
+        if (size == values.length) values = Arrays.copyOf(values, size * 2);
+        values[size++] = value;
+    }
+
+    int get(int i) { return values[i]; }
+    void set(int i, int value) { values[i] = value; }
+
+    // Removes entry i by moving the last entry into its place
+    int removeAt(int i) {
+        int removed = values[i];
+        values[i] = values[--size];
+        return removed;
+    }
+
+    void sort() { Arrays.sort(values, 0, size); }
+
+    int size() { return size; }
+    boolean isEmpty() { return size == 0; }
+    void clear() { size = 0; }
+}
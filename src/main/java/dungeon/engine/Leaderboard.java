@@ -0,0 +1,142 @@
+package dungeon.engine;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * Index over every recorded game result. Score counts live in Fenwick trees (one overall, one
+ * per starting difficulty), so rank, percentile and "how many games scored above X" are
+ * O(log n) in the score range. A date index keeps each day's results sorted best first, so a
+ * top-K query for a date range merges the heads of the days inside it: O(d log d + k log d) for
+ * d days in the range, however many games were played on them. Every method is synchronized, since one leaderboard is
+ * shared by all engines in the JVM (see ScoreHistory).
+ */
+public class Leaderboard {
+    public static final int MIN_SCORE = -1; // Lost games are recorded with -1
+
+    private final ScoreTree all = new ScoreTree();
+    private final ScoreTree[] byDifficulty = new ScoreTree[11]; // Difficulty 0-10
+    private final TreeMap<LocalDate, List<ScoreEntry>> byDate = new TreeMap<>();
+
+    public Leaderboard() { }
+
+    public Leaderboard(List<ScoreEntry> history) {
+        for (ScoreEntry entry : history) record(entry);
+    }
+
+    public synchronized void record(ScoreEntry entry) {
+        all.add(entry.getScore());
+        difficultyTree(entry.getDifficulty(), true).add(entry.getScore());
+        List<ScoreEntry> day = byDate.computeIfAbsent(entry.getDate(), d -> new ArrayList<>());
+        int index = Collections.binarySearch(day, entry);
+        day.add(index < 0 ? -index - 1 : index, entry); // Entries on one day that compare equal are equal
+    }
+
+    public synchronized int size() { return all.total; }
+
+    public synchronized int size(int difficulty) {
+        ScoreTree tree = difficultyTree(difficulty, false);
+        return tree == null ? 0 : tree.total;
+    }
+
+    // Number of recorded games that scored strictly more than score
+    public synchronized int countAbove(int score) { return all.total - all.countAtOrBelow(score); }
+
+    public synchronized int countAbove(int score, int difficulty) {
+        ScoreTree tree = difficultyTree(difficulty, false);
+        return tree == null ? 0 : tree.total - tree.countAtOrBelow(score);
+    }
+
+    // 1 for the best score; games with the same score share a rank
+    public synchronized int rankOf(int score) { return countAbove(score) + 1; }
+
+    public synchronized int rankOf(int score, int difficulty) { return countAbove(score, difficulty) + 1; }
+
+    // Percentage of recorded games that this score matched or beat (0 when nothing is recorded)
+    public synchronized double percentileRank(int score) { return percentile(all, score); }
+
+    public synchronized double percentileRank(int score, int difficulty) { return percentile(difficultyTree(difficulty, false), score); }
+
+    // Best k results played between from and to (inclusive), highest first
+    public synchronized List<ScoreEntry> topK(int k, LocalDate from, LocalDate to) {
+        if (k <= 0 || from.isAfter(to)) return Collections.emptyList();
+        PriorityQueue<DayCursor> heads = new PriorityQueue<>(); // The day whose next entry is best on top
+        for (List<ScoreEntry> day : byDate.subMap(from, true, to, true).values()) heads.add(new DayCursor(day));
+        List<ScoreEntry> result = new ArrayList<>();
+        while (result.size() < k && !heads.isEmpty()) {
+            DayCursor cursor = heads.poll();
+            result.add(cursor.day.get(cursor.next++));
+            if (cursor.next < cursor.day.size()) heads.add(cursor);
+        }
+        return result;
+    }
+
+    // A position in one day's sorted results
+    private static class DayCursor implements Comparable<DayCursor> {
+        final List<ScoreEntry> day;
+        int next;
+
+        DayCursor(List<ScoreEntry> day) { this.day = day; }
+
+        @Override public int compareTo(DayCursor other) { return day.get(next).compareTo(other.day.get(other.next)); }
+    }
+
+    private static double percentile(ScoreTree tree, int score) {
+        if (tree == null || tree.total == 0) return 0.0;
+        return 100.0 * tree.countAtOrBelow(score) / tree.total;
+    }
+
+    private ScoreTree difficultyTree(int difficulty, boolean create) {
+        int d = Math.max(0, Math.min(byDifficulty.length - 1, difficulty));
+        if (byDifficulty[d] == null && create) byDifficulty[d] = new ScoreTree();
+        return byDifficulty[d];
+    }
+
+    // Fenwick tree of game counts indexed by score - MIN_SCORE; doubles in size when a higher score arrives
+    private static class ScoreTree {
+        private int[] tree = new int[64]; // 1-based, tree[0] unused
+        private int total;
+
+        void add(int score) {
+            int index = indexOf(score);
+            if (index >= tree.length) grow(index);
+            for (int i = index; i < tree.length; i += i & -i) tree[i]++;
+            total++;
+        }
+
+        int countAtOrBelow(int score) {
+            if (score < MIN_SCORE) return 0;
+            int sum = 0;
+            for (int i = Math.min(indexOf(score), tree.length - 1); i > 0; i -= i & -i) sum += tree[i];
+            return sum;
+        }
+
+        private static int indexOf(int score) { return Math.max(score, MIN_SCORE) - MIN_SCORE + 1; }
+
+        // Rebuilds from the per-score counts, which are recovered from the old tree
+        private void grow(int index) {
+            int size = tree.length;
+            while (size <= index) size *= 2;
+            int[] counts = new int[size];
+            for (int i = 1; i < tree.length; i++) counts[i] = tree[i] - rangeBelow(i);
+            int[] grown = Arrays.copyOf(counts, size);
+            for (int i = 1; i < size; i++) {
+                int parent = i + (i & -i);
+                if (parent < size) grown[parent] += grown[i];
+            }
+            tree = grown;
+        }
+
+        // Sum of counts in (i - lowbit(i), i - 1], i.e. what tree[i] covers apart from index i itself
+        private int rangeBelow(int i) {
+            int sum = 0;
+            for (int j = i - 1, stop = i - (i & -i); j > stop; j -= j & -j) sum += tree[j];
+            return sum;
+        }
+    }
+}
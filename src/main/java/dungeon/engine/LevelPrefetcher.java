@@ -0,0 +1,99 @@
+package dungeon.engine;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Generates the next endless-mode level on a background thread while the current one is played,
+ * so climbing the ladder only swaps in a map that is already built.
+ */
+class LevelPrefetcher {
+
+    // One shared daemon worker is enough: a level takes milliseconds and only one is queued per game
+    private static final ExecutorService WORKER = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "level-pregeneration");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private Future<GameMap> pending;
+    private int pendingLevel;
+    private Position pendingEntry;
+    private int handOffs; // Levels taken from here instead of being generated on the spot
+
+    // Starts generating 'level' with its entry at 'entry' (the ladder of the current level)
+    void prefetch(int level, int difficulty, Position entry) {
+        cancel();
+        pendingLevel = level;
+        pendingEntry = entry;
+        pending = WORKER.submit(() -> checkReachable(generate(level, difficulty, entry)));
+    }
+
+    // Returns the pre-generated map if it matches, waiting for it if it is not quite done yet.
+    // Returns null if nothing usable was prepared (e.g. the ladder moved), so the caller generates it.
+    GameMap take(int level, Position entry) {
+        Future<GameMap> ready = pending;
+        pending = null;
+        if (ready == null || level != pendingLevel || !entry.equals(pendingEntry)) {
+            if (ready != null) ready.cancel(true);
+            return null;
+        }
+        try {
+            GameMap map = ready.get();
+            handOffs++;
+            return map;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            System.err.println("Level pre-generation failed: " + e.getCause());
+            return null;
+        }
+    }
+
+    int getHandOffs() { return handOffs; }
+
+    boolean isPending() { return pending != null; }
+
+    // The pre-generated map if it is ready, without waiting or handing it over; null otherwise
+    GameMap peek() {
+        Future<GameMap> ready = pending;
+        if (ready == null || !ready.isDone() || ready.isCancelled()) return null;
+        try {
+            return ready.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+    void cancel() {
+        if (pending != null) pending.cancel(true);
+        pending = null;
+    }
+
+    // Checked on the worker so a level whose ladder cannot be reached is never handed over;
+    // take then returns null and the engine generates the level itself
+    static GameMap checkReachable(GameMap map) {
+        if (!map.isReachable(map.getEntryPosition(), map.getLadderPosition())) {
+            throw new IllegalStateException("Ladder at " + map.getLadderPosition() + " cannot be reached from " + map.getEntryPosition());
+        }
+        return map;
+    }
+
+    // Item counts grow with the level and difficulty, capped so the map never fills up.
+    // placeItems places no walls, so the ladder is always reachable from the entry.
+    static GameMap generate(int level, int difficulty, Position entry) {
+        int area = GameEngine.MAP_WIDTH * GameEngine.MAP_HEIGHT;
+        int traps = Math.min(area / 4, GameMap.TRAP_COUNT + (level - 1));
+        int melee = Math.min(area / 8, GameMap.MELEE_MUTANT_COUNT + (level - 1) / 2);
+        int ranged = Math.min(area / 5, Math.max(0, difficulty));
+        GameMap map = new GameMap(GameEngine.MAP_WIDTH, GameEngine.MAP_HEIGHT);
+        map.placeItems(entry, GameMap.GOLD_COUNT, traps, GameMap.HEALTH_POTION_COUNT, melee, ranged);
+        return map;
+    }
+}
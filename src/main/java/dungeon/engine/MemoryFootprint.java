@@ -0,0 +1,80 @@
+package dungeon.engine;
+
+/**
+ * Estimated heap retained by one GameEngine, broken down by component. The estimate counts
+ * objects the way a 64-bit HotSpot JVM with compressed references lays them out (12-byte object
+ * headers, 16-byte array headers, 4-byte references, 8-byte alignment); it is meant for capacity
+ * planning, not exact to the byte. The top score list and the score history are shared by every
+ * engine in the JVM (see TopScores and ScoreHistory), so they are not charged to any one engine;
+ * neither are Items, which TileType keeps one shared instance of per type.
+ */
+public final class MemoryFootprint {
+    public enum Component {
+        CELLS,         // The Cell[][] grid and its Cell objects
+        POSITIONS,     // One Position per cell
+        ENTITIES,      // The EntityStore columns (the ids are in the cells)
+        VISIBILITY,    // Fog of war memory and the line-of-sight, flow field and scheduler caches
+        PLAYER,
+        PREFETCHED     // The next endless level, built in the background; just its grid while still in progress
+    }
+
+    static final int OBJECT_HEADER = 12;
+    static final int ARRAY_HEADER = 16;
+    static final int REFERENCE = 4;
+    private static final int ENGINE = object(30 * 4); // GameEngine's own fields, roughly
+
+    private final long[] bytes = new long[Component.values().length];
+
+    private MemoryFootprint() { }
+
+    public static MemoryFootprint of(GameEngine engine) {
+        MemoryFootprint footprint = new MemoryFootprint();
+        GameMap map = engine.getMap();
+        if (map != null) {
+            footprint.bytes[Component.CELLS.ordinal()] = cellBytes(map.getWidth(), map.getHeight());
+            footprint.bytes[Component.POSITIONS.ordinal()] = positionBytes(map.getWidth(), map.getHeight());
+            footprint.bytes[Component.ENTITIES.ordinal()] = map.entityBytes();
+            footprint.bytes[Component.VISIBILITY.ordinal()] = map.cacheBytes();
+        }
+        if (engine.getPlayer() != null) footprint.bytes[Component.PLAYER.ordinal()] = object(5 * 4 + REFERENCE);
+        GameMap next = engine.getPrefetchedMap();
+        if (next != null) {
+            footprint.bytes[Component.PREFETCHED.ordinal()] = cellBytes(next.getWidth(), next.getHeight())
+                    + positionBytes(next.getWidth(), next.getHeight()) + next.entityBytes() + next.cacheBytes();
+        } else if (engine.isPrefetching()) {
+            footprint.bytes[Component.PREFETCHED.ordinal()] = cellBytes(GameEngine.MAP_WIDTH, GameEngine.MAP_HEIGHT)
+                    + positionBytes(GameEngine.MAP_WIDTH, GameEngine.MAP_HEIGHT);
+        }
+        return footprint;
+    }
+
+    private static long cellBytes(int width, int height) {
+        return array(REFERENCE, height) + height * array(REFERENCE, width) + (long) width * height * object(3 * REFERENCE + 4 + 1);
+    }
+
+    private static long positionBytes(int width, int height) { return (long) width * height * object(2 * 4); }
+
+    public long get(Component component) { return bytes[component.ordinal()]; }
+
+    // Every component plus the engine object itself
+    public long getTotal() {
+        long total = ENGINE;
+        for (long b : bytes) total += b;
+        return total;
+    }
+
+    static int object(int fieldBytes) { return (int) align(OBJECT_HEADER + fieldBytes); }
+
+    static long array(int elementBytes, int length) { return align(ARRAY_HEADER + (long) elementBytes * length); }
+
+    static long bitSet(int bits) { return object(REFERENCE + 4 + 1) + array(8, (bits + 63) / 64); }
+
+    private static long align(long size) { return (size + 7) & ~7L; }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("MemoryFootprint{total=").append(getTotal());
+        for (Component component : Component.values()) sb.append(", ").append(component).append('=').append(get(component));
+        return sb.append('}').toString();
+    }
+}
@@ -0,0 +1,163 @@
+package dungeon.engine;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Autosave as a checkpoint plus a write-ahead journal of the moves made since. Each move that
+ * changed the game appends one 4-byte record (direction and the outcome of its ranged attack
+ * rolls) instead of rewriting the whole serialized engine. A full checkpoint is written every
+ * CHECKPOINT_INTERVAL moves, on level change and when the game ends, and the journal restarts.
+ *
+ * Record layout: byte 0 = direction (bits 0-1) and roll count (bits 2-5), byte 1 = hit bits,
+ * byte 2 = record number (low 8 bits), byte 3 = checksum. Both files start with a checkpoint
+ * number, so a journal left over from before the latest checkpoint is never replayed; a new
+ * MoveJournal numbers its first checkpoint past whatever the files on disk already hold. Replay
+ * stops at the first short or corrupt record, so a torn tail from a crash is simply dropped.
+ *
+ * Records are written straight to the file without fsync: they survive the game crashing or
+ * being killed, but not the machine losing power.
+ */
+public class MoveJournal implements Closeable {
+    public static final int CHECKPOINT_INTERVAL = 50;
+    public static final int MAX_ROLLS = 8; // Rolls that fit in one record; more forces a checkpoint
+    static final int RECORD_SIZE = 4;
+    private static final int HEADER_SIZE = 8;
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final Path checkpointFile;
+    private final Path journalFile;
+    private FileChannel channel;
+    private final ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+    private long checkpointNumber; // 0 until read from or written to the files
+    private int recordsSinceCheckpoint;
+
+    public MoveJournal(Path checkpointFile, Path journalFile) {
+        this.checkpointFile = checkpointFile;
+        this.journalFile = journalFile;
+    }
+
+    public Path getCheckpointFile() { return checkpointFile; }
+    public Path getJournalFile() { return journalFile; }
+    public int getRecordsSinceCheckpoint() { return recordsSinceCheckpoint; }
+
+    // Called by the engine after every move that changed the game
+    void onMove(GameEngine engine, Direction direction, int rollCount, int hitBits, boolean forceCheckpoint) throws IOException {
+        if (forceCheckpoint || rollCount > MAX_ROLLS || recordsSinceCheckpoint + 1 >= CHECKPOINT_INTERVAL || channel == null) {
+            checkpoint(engine);
+            return;
+        }
+        encode(direction, rollCount, hitBits, recordsSinceCheckpoint);
+        while (record.hasRemaining()) channel.write(record);
+        recordsSinceCheckpoint++;
+    }
+
+    // Writes the full engine next to the old checkpoint, swaps it in, then starts an empty journal
+    public void checkpoint(GameEngine engine) throws IOException {
+        if (checkpointNumber == 0) checkpointNumber = numberOnDisk();
+        long next = checkpointNumber + 1;
+        Path temp = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        try (ObjectOutputStream oos = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            oos.writeLong(next);
+            oos.writeObject(engine);
+        }
+        try {
+            Files.move(temp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, checkpointFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+        checkpointNumber = next;
+        openJournal(true);
+    }
+
+    /**
+     * Rebuilds the engine from the checkpoint and replays the journal on top of it. Any torn or
+     * corrupt tail is cut off so new records continue from the last good one. Returns null if
+     * there is no readable checkpoint.
+     */
+    GameEngine recover() throws IOException {
+        if (!Files.exists(checkpointFile)) return null;
+        GameEngine engine;
+        try (ObjectInputStream ois = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(checkpointFile)))) {
+            checkpointNumber = ois.readLong();
+            engine = (GameEngine) ois.readObject();
+        } catch (ClassNotFoundException | ClassCastException e) {
+            throw new IOException("Unreadable checkpoint: " + e.getMessage(), e);
+        }
+        engine.restoreAfterLoad();
+
+        byte[] journal = Files.exists(journalFile) ? Files.readAllBytes(journalFile) : new byte[0];
+        long validLength = HEADER_SIZE;
+        if (journal.length < HEADER_SIZE || ByteBuffer.wrap(journal).getLong() != checkpointNumber) {
+            openJournal(true); // Missing, or older than the checkpoint
+            return engine;
+        }
+        recordsSinceCheckpoint = 0;
+        for (int offset = HEADER_SIZE; offset + RECORD_SIZE <= journal.length; offset += RECORD_SIZE) {
+            byte b0 = journal[offset], b1 = journal[offset + 1], b2 = journal[offset + 2], b3 = journal[offset + 3];
+            if (b2 != (byte) recordsSinceCheckpoint || b3 != checksum(b0, b1, b2)) break;
+            engine.replayMove(DIRECTIONS[b0 & 0x3], b1 & 0xFF);
+            recordsSinceCheckpoint++;
+            validLength = offset + RECORD_SIZE;
+        }
+        openJournal(false);
+        channel.truncate(validLength);
+        channel.position(validLength);
+        return engine;
+    }
+
+    // Highest checkpoint number the existing files carry, 0 if there are none or they are unreadable
+    private long numberOnDisk() {
+        long number = 0;
+        try (ObjectInputStream ois = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(checkpointFile)))) {
+            number = ois.readLong();
+        } catch (IOException e) {
+            // No checkpoint yet
+        }
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(journalFile))) {
+            number = Math.max(number, in.readLong());
+        } catch (IOException e) {
+            // No journal yet
+        }
+        return number;
+    }
+
+    private void openJournal(boolean reset) throws IOException {
+        if (channel != null) channel.close();
+        channel = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (reset) {
+            channel.truncate(0);
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putLong(0, checkpointNumber);
+            while (header.hasRemaining()) channel.write(header);
+            recordsSinceCheckpoint = 0;
+        }
+    }
+
+    private void encode(Direction direction, int rollCount, int hitBits, int recordNumber) {
+        byte b0 = (byte) (direction.ordinal() | rollCount << 2);
+        byte b1 = (byte) hitBits;
+        byte b2 = (byte) recordNumber;
+        record.clear();
+        record.put(b0).put(b1).put(b2).put(checksum(b0, b1, b2));
+        record.flip();
+    }
+
+    private static byte checksum(byte b0, byte b1, byte b2) {
+        return (byte) (b0 * 31 + b1 * 7 + b2 + 0x5A);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package dungeon.engine;
+
+/**
+ * Told about every move the engine made, on the thread that made it. Listeners must be quick
+ * and must not change the engine; anything slow should be handed off to another thread.
+ */
+public interface MoveListener {
+    void onMove(GameEngine engine, Direction direction);
+}
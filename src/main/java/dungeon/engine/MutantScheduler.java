@@ -0,0 +1,172 @@
+package dungeon.engine;
+
+import dungeon.engine.items.Empty;
+import dungeon.engine.items.MeleeMutant;
+import dungeon.engine.items.RangedMutant;
+
+/**
+ * Moves mutants each turn, but only those near the player. Mutants within ACTIVE_RADIUS of the
+ * player are active and act every tick; the rest sleep in per-chunk dormant buckets and are only
+ * looked at when the player's active zone overlaps their chunk. The cost of a tick therefore
+ * depends on how many mutants are nearby, not on the size of the map.
+ *
+ * Melee mutants chase the player along the map's shared FlowField, so they find their way around
+ * walls. Ranged mutants kite: they keep their distance and try to line up with the player so
+ * they can shoot. Mutants only step onto empty tiles and never onto the player, so fights still
+ * happen when the player steps onto a mutant, as before.
+ *
+ * Which mutants are tracked and active is kept as flags on their rows in the map's EntityStore,
+ * so the flags move with a mutant and vanish when it is destroyed. Mutants at 0 HP are ignored.
+ */
+public class MutantScheduler {
+    public static final int ACTIVE_RADIUS = 6;
+    private static final int CHUNK_SIZE = 8;
+
+    private final GameMap map;
+    private final EntityStore entities;
+    private final FlowField flowField;
+    private final int width;
+    private final int chunksX;
+    private final IntBag active = new IntBag();
+    private final IntBag[] dormant;
+
+    MutantScheduler(GameMap map) {
+        this.map = map;
+        this.entities = map.getEntities();
+        this.flowField = map.getFlowField();
+        this.width = map.getWidth();
+        this.chunksX = (map.getWidth() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        int chunksY = (map.getHeight() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        this.dormant = new IntBag[chunksX * chunksY];
+        entities.clearFlags(EntityStore.SCHEDULER_FLAGS); // Left by an earlier scheduler, e.g. before a save
+        // One scan when the scheduler is created; after that GameMap reports new mutants
+        for (int y = 0; y < map.getHeight(); y++) {
+            for (int x = 0; x < map.getWidth(); x++) {
+                if (isMutant(map.getCell(x, y).getItem())) track(y * width + x);
+            }
+        }
+    }
+
+    static boolean isMutant(Item item) {
+        return item instanceof MeleeMutant || item instanceof RangedMutant;
+    }
+
+    // New mutants start dormant; the next tick wakes them if they are close enough
+    void track(int tile) {
+        int id = map.getEntityAt(tile);
+        if (!isMutant(id) || entities.hasFlag(id, EntityStore.FLAG_TRACKED)) return;
+        entities.setFlag(id, EntityStore.FLAG_TRACKED, true);
+        dormantBucket(tile).add(tile);
+    }
+
+    // A live mutant's entity id, not a defeated one or anything else
+    private boolean isMutant(int id) {
+        if (id == EntityStore.NONE) return false;
+        byte type = entities.getType(id);
+        return (type == TileType.MELEE_MUTANT || type == TileType.RANGED_MUTANT) && entities.getHp(id) > 0;
+    }
+
+    private boolean isActive(int id) { return isMutant(id) && entities.hasFlag(id, EntityStore.FLAG_ACTIVE); }
+
+    public int getActiveCount() { return active.size(); }
+
+    // Entries in the active and dormant lists; a mutant replaced on the same tile may briefly count twice
+    public int getTrackedCount() {
+        int count = active.size();
+        for (IntBag bucket : dormant) if (bucket != null) count += bucket.size();
+        return count;
+    }
+
+    public void tick(int playerX, int playerY) {
+        // Drop mutants that were defeated or replaced since the last tick; a replacement has its own entry
+        for (int i = 0; i < active.size(); ) {
+            if (isActive(map.getEntityAt(active.get(i)))) i++;
+            else active.removeAt(i);
+        }
+        wakeNearby(playerX, playerY);
+        if (!active.isEmpty()) flowField.update(playerX, playerY); // One search shared by every chasing mutant
+
+        // Move in tile order: the list order depends on when each mutant woke, which a scheduler
+        // rebuilt after loading does not know, and a replayed autosave journal must move alike
+        active.sort();
+
+        for (int i = 0; i < active.size(); ) {
+            int tile = active.get(i);
+            if (!inActiveZone(tile, playerX, playerY)) {
+                entities.setFlag(map.getEntityAt(tile), EntityStore.FLAG_ACTIVE, false);
+                active.removeAt(i);
+                dormantBucket(tile).add(tile);
+                continue;
+            }
+            boolean melee = entities.getType(map.getEntityAt(tile)) == TileType.MELEE_MUTANT;
+            int next = melee ? flowField.nextStep(tile) : kiteStep(tile, playerX, playerY);
+            if (next != tile) {
+                map.moveItem(tile, next); // The entity, and so its flags, moves along
+                active.set(i, next);
+            }
+            i++;
+        }
+    }
+
+    private void wakeNearby(int playerX, int playerY) {
+        int minChunkX = Math.max(0, (playerX - ACTIVE_RADIUS) / CHUNK_SIZE);
+        int maxChunkX = Math.min(chunksX - 1, (playerX + ACTIVE_RADIUS) / CHUNK_SIZE);
+        int minChunkY = Math.max(0, (playerY - ACTIVE_RADIUS) / CHUNK_SIZE);
+        int maxChunkY = Math.min(dormant.length / chunksX - 1, (playerY + ACTIVE_RADIUS) / CHUNK_SIZE);
+        for (int cy = minChunkY; cy <= maxChunkY; cy++) {
+            for (int cx = minChunkX; cx <= maxChunkX; cx++) {
+                IntBag bucket = dormant[cy * chunksX + cx];
+                if (bucket == null) continue;
+                for (int i = 0; i < bucket.size(); ) {
+                    int tile = bucket.get(i);
+                    int id = map.getEntityAt(tile);
+                    if (!isMutant(id) || entities.hasFlag(id, EntityStore.FLAG_ACTIVE)) {
+                        bucket.removeAt(i); // Gone, or a stale copy of a mutant that is already active
+                    } else if (inActiveZone(tile, playerX, playerY)) {
+                        entities.setFlag(id, EntityStore.FLAG_ACTIVE, true);
+                        active.add(bucket.removeAt(i));
+                    } else {
+                        i++;
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean inActiveZone(int tile, int playerX, int playerY) {
+        return Math.abs(tile % width - playerX) <= ACTIVE_RADIUS && Math.abs(tile / width - playerY) <= ACTIVE_RADIUS;
+    }
+
+    private IntBag dormantBucket(int tile) {
+        int chunk = (tile / width / CHUNK_SIZE) * chunksX + (tile % width) / CHUNK_SIZE;
+        if (dormant[chunk] == null) dormant[chunk] = new IntBag(4);
+        return dormant[chunk];
+    }
+
+    // Keep at least two tiles away; otherwise line up on a row or column within shooting range
+    private int kiteStep(int tile, int playerX, int playerY) {
+        int x = tile % width, y = tile / width;
+        int offX = playerX - x, offY = playerY - y;
+        int distance = Math.abs(offX) + Math.abs(offY);
+        int range = RangedMutant.RANGED_ATTACK_RANGE;
+        int target = -1;
+        if (distance < range) {
+            // Too close: back off along the axis we are already separated on
+            if (offX != 0) target = stepTo(x - Integer.signum(offX), y, true, playerX, playerY);
+            if (target < 0 && offY != 0) target = stepTo(x, y - Integer.signum(offY), true, playerX, playerY);
+        } else if (offX != 0 && offY != 0) {
+            // Not lined up: close the smaller gap to get a clear shot
+            if (Math.abs(offX) <= Math.abs(offY)) target = stepTo(x + Integer.signum(offX), y, true, playerX, playerY);
+            else target = stepTo(x, y + Integer.signum(offY), true, playerX, playerY);
+        } else if (distance > range) {
+            target = stepTo(x + Integer.signum(offX), y + Integer.signum(offY), true, playerX, playerY);
+        }
+        return target >= 0 ? target : tile;
+    }
+
+    // Tile index of (x, y) if a mutant may step there, otherwise -1
+    private int stepTo(int x, int y, boolean moving, int playerX, int playerY) {
+        if (!moving || !map.isValidPosition(x, y) || (x == playerX && y == playerY)) return -1;
+        return map.getCell(x, y).getItem() instanceof Empty ? y * width + x : -1;
+    }
+}
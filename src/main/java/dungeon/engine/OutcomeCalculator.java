@@ -0,0 +1,270 @@
+package dungeon.engine;
+
+import dungeon.engine.items.Gold;
+import dungeon.engine.items.HealthPotion;
+import dungeon.engine.items.MeleeMutant;
+import dungeon.engine.items.RangedMutant;
+import dungeon.engine.items.Trap;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Works out exactly how a level plays out for a given move sequence or policy, instead of
+ * estimating it by playing many games. Only ranged attacks are random, and they only change HP,
+ * so the calculator follows each distinct board (player tile, steps, score, items used up) and
+ * carries an HP probability vector for it. Each move pushes every vector through the move and
+ * the ranged attack rolls; boards that end up the same are merged. Mass that reaches 0 HP, the
+ * step limit or the final ladder leaves as an outcome.
+ *
+ * The rules are the same as BatchEngine (mutants stay where they are). A ladder before the last
+ * level leads to a new random level, so a branch that climbs one stops there and is counted as
+ * reaching the next level.
+ */
+public final class OutcomeCalculator {
+
+    /** Picks the next move; may depend on HP, so the same board can branch different ways. */
+    public interface Policy {
+        // Null stops the branch. moveIndex counts every move asked for, including ones a wall blocked.
+        Direction next(int moveIndex, int x, int y, int hp);
+    }
+
+    /** Probabilities of each outcome, adding up to 1. */
+    public static final class Result {
+        private double win;
+        private double loseHp;
+        private double loseSteps;
+        private double nextLevel;
+        private double unfinished;
+        private double scoreSum;
+        private int branches; // Most boards alive after any move
+
+        public double getWinProbability() { return win; }
+        public double getLoseHpProbability() { return loseHp; }
+        public double getLoseStepsProbability() { return loseSteps; }
+        // Climbed a ladder to a further level
+        public double getNextLevelProbability() { return nextLevel; }
+        // Still playing when the moves ran out
+        public double getUnfinishedProbability() { return unfinished; }
+        // Lost games score -1 (outside endless mode); other outcomes count the score they reached
+        public double getExpectedScore() { return scoreSum; }
+        public int getPeakBranches() { return branches; }
+    }
+
+    // The deterministic part of a game; equal boards are merged
+    private static final class Board {
+        final int tile;
+        final int steps;
+        final int score;
+        final BitSet used; // Tiles whose item has been picked up or defeated
+
+        Board(int tile, int steps, int score, BitSet used) {
+            this.tile = tile;
+            this.steps = steps;
+            this.score = score;
+            this.used = used;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Board)) return false;
+            Board other = (Board) o;
+            return tile == other.tile && steps == other.steps && score == other.score && used.equals(other.used);
+        }
+
+        @Override
+        public int hashCode() { return Objects.hash(tile, steps, score, used); }
+    }
+
+    private final GameMap map;
+    private final byte[] tiles;
+    private final boolean lastLevel;
+    private final boolean endless;
+    private final int maxHp;
+    private final Result result = new Result();
+
+    private OutcomeCalculator(GameMap map, boolean lastLevel, boolean endless, int maxHp) {
+        this.map = map;
+        this.tiles = new byte[map.getWidth() * map.getHeight()];
+        for (int tile = 0; tile < tiles.length; tile++) tiles[tile] = TileType.of(map.getCellAt(tile).getItem());
+        this.lastLevel = lastLevel;
+        this.endless = endless;
+        this.maxHp = maxHp;
+    }
+
+    public static Result evaluate(GameEngine engine, List<Direction> moves) {
+        return evaluate(engine, (moveIndex, x, y, hp) -> moveIndex < moves.size() ? moves.get(moveIndex) : null, moves.size());
+    }
+
+    // Plays the policy from the engine's current state for at most maxMoves moves; the engine is not changed
+    public static Result evaluate(GameEngine engine, Policy policy, int maxMoves) {
+        if (engine.getMap() == null || engine.getGameState() != GameState.IN_PROGRESS) {
+            throw new IllegalStateException("No game in progress");
+        }
+        if (engine.isMobileMutants()) throw new IllegalArgumentException("Moving mutants are not modelled");
+        Player player = engine.getPlayer();
+        boolean lastLevel = !engine.isEndless() && engine.getCurrentLevel() >= GameEngine.MAX_LEVELS;
+        return evaluate(engine.getMap(), lastLevel, engine.isEndless(), player.getX(), player.getY(),
+                player.getHp(), player.getScore(), player.getStepsTaken(), policy, maxMoves);
+    }
+
+    static Result evaluate(GameMap map, boolean lastLevel, boolean endless, int x, int y, int hp, int score, int steps,
+                           Policy policy, int maxMoves) {
+        OutcomeCalculator calculator = new OutcomeCalculator(map, lastLevel, endless, Math.max(Player.MAX_HP, hp));
+        double[] start = new double[calculator.maxHp + 1];
+        start[hp] = 1.0;
+        Map<Board, double[]> live = new HashMap<>();
+        live.put(new Board(map.tileOf(x, y), steps, score, new BitSet()), start);
+        calculator.run(live, policy, maxMoves);
+        return calculator.result;
+    }
+
+    private void run(Map<Board, double[]> live, Policy policy, int maxMoves) {
+        Direction[] directions = Direction.values();
+        for (int move = 0; move < maxMoves && !live.isEmpty(); move++) {
+            result.branches = Math.max(result.branches, live.size());
+            Map<Board, double[]> next = new HashMap<>();
+            for (Map.Entry<Board, double[]> entry : live.entrySet()) {
+                Board board = entry.getKey();
+                double[] hp = entry.getValue();
+                double[][] byDirection = new double[directions.length][];
+                for (int h = 1; h < hp.length; h++) {
+                    if (hp[h] == 0.0) continue;
+                    Direction direction = policy.next(move, map.tileX(board.tile), map.tileY(board.tile), h);
+                    if (direction == null) {
+                        end(hp[h], board.score);
+                        result.unfinished += hp[h];
+                        continue;
+                    }
+                    if (byDirection[direction.ordinal()] == null) byDirection[direction.ordinal()] = new double[hp.length];
+                    byDirection[direction.ordinal()][h] = hp[h];
+                }
+                for (Direction direction : directions) {
+                    if (byDirection[direction.ordinal()] != null) step(board, direction, byDirection[direction.ordinal()], next);
+                }
+            }
+            live = next;
+        }
+        for (Map.Entry<Board, double[]> entry : live.entrySet()) {
+            double mass = sum(entry.getValue());
+            end(mass, entry.getKey().score);
+            result.unfinished += mass;
+        }
+    }
+
+    private void step(Board board, Direction direction, double[] hp, Map<Board, double[]> next) {
+        int tile = map.step(board.tile, direction);
+        if (tile < 0 || !TileType.isPassable(tileAt(board, tile))) {
+            merge(next, board, hp); // Blocked: no step taken
+            return;
+        }
+        int score = board.score;
+        BitSet used = board.used;
+        switch (tileAt(board, tile)) {
+            case TileType.GOLD:
+                score += Gold.VALUE;
+                used = with(used, tile);
+                break;
+            case TileType.HEALTH_POTION:
+                hp = shift(hp, HealthPotion.HEAL_AMOUNT);
+                used = with(used, tile);
+                break;
+            case TileType.TRAP:
+                hp = shift(hp, -Trap.DAMAGE);
+                break;
+            case TileType.MELEE_MUTANT:
+                hp = shift(hp, -MeleeMutant.DAMAGE);
+                score += MeleeMutant.SCORE_VALUE;
+                used = with(used, tile);
+                break;
+            case TileType.RANGED_MUTANT:
+                score += RangedMutant.SCORE_VALUE;
+                used = with(used, tile);
+                break;
+            case TileType.LADDER:
+                double mass = sum(hp);
+                end(mass, score);
+                if (lastLevel) result.win += mass;
+                else result.nextLevel += mass;
+                return;
+            default:
+                break;
+        }
+        Board moved = new Board(tile, board.steps + 1, score, used);
+        hp = rangedAttacks(moved, hp);
+
+        // Same order as checkGameEndConditions: HP first, then steps
+        end(hp[0], endless ? score : -1);
+        result.loseHp += hp[0];
+        hp[0] = 0.0;
+        if (moved.steps >= GameEngine.MAX_STEPS_PER_LEVEL) {
+            double mass = sum(hp);
+            end(mass, endless ? score : -1);
+            result.loseSteps += mass;
+            return;
+        }
+        merge(next, moved, hp);
+    }
+
+    // Each ranged mutant in line and in range hits with a fixed chance, independently of the others
+    private double[] rangedAttacks(Board board, double[] hp) {
+        int px = map.tileX(board.tile);
+        int py = map.tileY(board.tile);
+        int range = RangedMutant.RANGED_ATTACK_RANGE;
+        double hit = RangedMutant.RANGED_ATTACK_HIT_CHANCE;
+        for (int y = Math.max(0, py - range); y <= Math.min(map.getHeight() - 1, py + range); y++) {
+            int fromX = (y == py) ? Math.max(0, px - range) : px;
+            int toX = (y == py) ? Math.min(map.getWidth() - 1, px + range) : px;
+            for (int x = fromX; x <= toX; x++) {
+                if ((x == px && y == py) || tileAt(board, map.tileOf(x, y)) != TileType.RANGED_MUTANT) continue;
+                double[] after = new double[hp.length];
+                for (int h = 0; h < hp.length; h++) {
+                    if (hp[h] == 0.0) continue;
+                    after[Math.max(0, h - RangedMutant.RANGED_ATTACK_DAMAGE)] += hp[h] * hit;
+                    after[h] += hp[h] * (1.0 - hit);
+                }
+                hp = after;
+            }
+        }
+        return hp;
+    }
+
+    private byte tileAt(Board board, int tile) {
+        return board.used.get(tile) ? TileType.EMPTY : tiles[tile];
+    }
+
+    // Moves the HP vector by amount, clamped to 0 and max HP like Player.takeDamage and heal
+    private double[] shift(double[] hp, int amount) {
+        double[] shifted = new double[hp.length];
+        for (int h = 0; h < hp.length; h++) {
+            if (hp[h] != 0.0) shifted[Math.max(0, Math.min(maxHp, h + amount))] += hp[h];
+        }
+        return shifted;
+    }
+
+    private void end(double mass, int finalScore) {
+        result.scoreSum += mass * finalScore;
+    }
+
+    private static void merge(Map<Board, double[]> next, Board board, double[] hp) {
+        double[] existing = next.putIfAbsent(board, hp);
+        if (existing != null && existing != hp) {
+            for (int h = 0; h < hp.length; h++) existing[h] += hp[h];
+        }
+    }
+
+    private static BitSet with(BitSet used, int tile) {
+        BitSet copy = (BitSet) used.clone();
+        copy.set(tile);
+        return copy;
+    }
+
+    private static double sum(double[] hp) {
+        double total = 0.0;
+        for (double p : hp) total += p;
+        return total;
+    }
+}
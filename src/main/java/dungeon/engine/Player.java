@@ -1,28 +1,47 @@
 package dungeon.engine;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
 
 public class Player implements Serializable {
     private static final long serialVersionUID = 2L;
-    private Position position;
+    public static final int MAX_HP = 10;
+    // Saved with the same fields as before x and y replaced the Position, so old saves still load
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("position", Position.class),
+            new ObjectStreamField("hp", int.class),
+            new ObjectStreamField("maxHp", int.class),
+            new ObjectStreamField("score", int.class),
+            new ObjectStreamField("stepsTaken", int.class)
+    };
+    private int x;
+    private int y;
     private int hp;
-    private final int maxHp = 10;
+    private final int maxHp = MAX_HP;
     private int score;
     private int stepsTaken;
     private transient Object gameEngineContext; // To hold reference to GameEngine, e.g. for GameMap.displayMapText
 
     public Player(Position startPosition) {
-        this.position = startPosition;
+        this.x = startPosition.x();
+        this.y = startPosition.y();
         this.hp = maxHp;
         this.score = 0;
         this.stepsTaken = 0;
     }
-    public Position getPosition() { return position; }
+    public Position getPosition() { return new Position(x, y); } // Allocates; hot paths use getX/getY
+    public int getX() { return x; }
+    public int getY() { return y; }
+    public boolean isAt(int x, int y) { return this.x == x && this.y == y; }
     public int getHp() { return hp; }
     public int getMaxHp() { return maxHp; }
     public int getScore() { return score; }
     public int getStepsTaken() { return stepsTaken; }
-    public void moveTo(Position newPosition) { this.position = newPosition; }
+    public void moveTo(Position newPosition) { moveTo(newPosition.x(), newPosition.y()); }
+    public void moveTo(int x, int y) { this.x = x; this.y = y; }
     public void incrementSteps() { this.stepsTaken++; }
     public void takeDamage(int amount) {
         this.hp -= amount;
@@ -35,13 +54,39 @@ public class Player implements Serializable {
     public void addScore(int amount) { this.score += amount; }
     public void setScore(int score) { this.score = score; } // For game over state
     public void resetForNewLevel(Position newStartPosition) {
-        this.position = newStartPosition;
+        moveTo(newStartPosition);
         this.stepsTaken = 0;
         // HP and score typically carry over to the next level.
     }
+    // Sets the counters directly; used when a compact (hibernated) session is rebuilt
+    void restore(int hp, int score, int stepsTaken) {
+        this.hp = hp;
+        this.score = score;
+        this.stepsTaken = stepsTaken;
+    }
     public void setGameEngineContext(Object context) { this.gameEngineContext = context; }
     public Object getGameEngineContext() { return this.gameEngineContext; }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("position", new Position(x, y));
+        fields.put("hp", hp);
+        fields.put("maxHp", maxHp);
+        fields.put("score", score);
+        fields.put("stepsTaken", stepsTaken);
+        out.writeFields();
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        Position position = (Position) fields.get("position", null);
+        if (position != null) moveTo(position);
+        hp = fields.get("hp", MAX_HP);
+        score = fields.get("score", 0);
+        stepsTaken = fields.get("stepsTaken", 0);
+    }
+
     @Override public String toString() {
-        return "Player [Pos=" + position.x() + "," + position.y() + " HP=" + hp + "/" + maxHp + ", Score=" + score + ", Steps=" + stepsTaken + "]";
+        return "Player [Pos=" + x + "," + y + " HP=" + hp + "/" + maxHp + ", Score=" + score + ", Steps=" + stepsTaken + "]";
     }
-}
\ No newline at end of file
+}
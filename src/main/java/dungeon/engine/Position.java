@@ -1,8 +1,8 @@
 package dungeon.engine;
 
 import java.io.Serializable;
-import java.util.Objects;
 
+// Boundary type for coordinates; hot loops use tile indexes (y * width + x) instead, see GameMap.tileOf
 public record Position(int x, int y) implements Serializable {
     private static final long serialVersionUID = 1L; // For Serializable records
     @Override
@@ -13,5 +13,8 @@ public record Position(int x, int y) implements Serializable {
         return x == position.x && y == position.y;
     }
     @Override
-    public int hashCode() { return Objects.hash(x, y); }
+    public int hashCode() { return 31 * x + y; } // Objects.hash would box both ints into an array
+
+    public int toTile(int width) { return y * width + x; }
+    public static Position ofTile(int tile, int width) { return new Position(tile % width, tile / width); }
 }
@@ -0,0 +1,105 @@
+package dungeon.engine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Everything a renderer needs to draw one frame, copied out of the engine so it can be handed
+ * to another thread. Nothing in it changes after it is built, and it holds no references into
+ * the engine's mutable state.
+ */
+public final class RenderSnapshot {
+    public static final byte HIDDEN = 0;     // Never seen (fog of war)
+    public static final byte REMEMBERED = 1; // Seen before but out of sight
+    public static final byte VISIBLE = 2;
+
+    private final long version;
+    private final int width;
+    private final int height;
+    private final byte[] tiles;      // TileType code per tile, row-major
+    private final byte[] visibility; // HIDDEN, REMEMBERED or VISIBLE per tile
+    private final int playerX;
+    private final int playerY;
+    private final int hp;
+    private final int maxHp;
+    private final int score;
+    private final int stepsTaken;
+    private final int level;
+    private final int difficulty;
+    private final boolean endless;
+    private final boolean fogOfWar;
+    private final boolean mobileMutants;
+    private final GameState gameState;
+    private final boolean gameOver;
+    private final List<ScoreEntry> topScores;
+    private final int lastScoreRank;
+    private final double scorePercentile; // Of the final score, only set once the game is over
+    private final int recordedGames;
+
+    private RenderSnapshot(long version, GameEngine engine) {
+        this.version = version;
+        GameMap map = engine.getMap();
+        Player player = engine.getPlayer();
+        this.width = map == null ? 0 : map.getWidth();
+        this.height = map == null ? 0 : map.getHeight();
+        this.tiles = new byte[width * height];
+        this.visibility = new byte[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int i = y * width + x;
+                tiles[i] = TileType.of(map.getCell(x, y).getItem());
+                visibility[i] = map.isVisible(x, y) ? VISIBLE : map.isRevealed(x, y) ? REMEMBERED : HIDDEN;
+            }
+        }
+        this.playerX = player == null ? -1 : player.getX();
+        this.playerY = player == null ? -1 : player.getY();
+        this.hp = player == null ? 0 : player.getHp();
+        this.maxHp = player == null ? 0 : player.getMaxHp();
+        this.score = player == null ? 0 : player.getScore();
+        this.stepsTaken = player == null ? 0 : player.getStepsTaken();
+        this.level = engine.getCurrentLevel();
+        this.difficulty = engine.getDifficultySetting();
+        this.endless = engine.isEndless();
+        this.fogOfWar = engine.isFogOfWar();
+        this.mobileMutants = engine.isMobileMutants();
+        this.gameState = engine.getGameState();
+        this.topScores = Collections.unmodifiableList(new ArrayList<>(engine.getTopScores())); // ScoreEntry is immutable
+        this.lastScoreRank = engine.getLastScoreRank();
+        this.gameOver = player != null && engine.isGameOver();
+        Leaderboard leaderboard = gameOver ? engine.getLeaderboard() : null;
+        this.scorePercentile = gameOver ? leaderboard.percentileRank(score) : 0.0;
+        this.recordedGames = gameOver ? leaderboard.size() : 0;
+    }
+
+    // Copies the engine's current state; call it on the thread that owns the engine
+    public static RenderSnapshot of(GameEngine engine, long version) {
+        return new RenderSnapshot(version, engine);
+    }
+
+    // Increases with every snapshot published by the same source
+    public long getVersion() { return version; }
+    public boolean hasGame() { return width > 0 && playerX >= 0; }
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+    public byte getTile(int x, int y) { return tiles[y * width + x]; }
+    public byte getVisibility(int x, int y) { return visibility[y * width + x]; }
+    public boolean isPlayerAt(int x, int y) { return x == playerX && y == playerY; }
+    public int getPlayerX() { return playerX; }
+    public int getPlayerY() { return playerY; }
+    public int getHp() { return hp; }
+    public int getMaxHp() { return maxHp; }
+    public int getScore() { return score; }
+    public int getStepsTaken() { return stepsTaken; }
+    public int getLevel() { return level; }
+    public int getDifficulty() { return difficulty; }
+    public boolean isEndless() { return endless; }
+    public boolean isFogOfWar() { return fogOfWar; }
+    public boolean isMobileMutants() { return mobileMutants; }
+    public GameState getGameState() { return gameState; }
+    public boolean isGameOver() { return gameOver; }
+    public List<ScoreEntry> getTopScores() { return topScores; }
+    public int getLastScoreRank() { return lastScoreRank; }
+    public double getScorePercentile() { return scorePercentile; }
+    public int getRecordedGames() { return recordedGames; }
+}
@@ -0,0 +1,180 @@
+package dungeon.engine;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Many save slots in one memory-mapped file. The file starts with a fixed-size index holding
+ * the metadata of every slot (level, HP, score, steps, difficulty, time saved) and where its
+ * data lives, so listing saves only reads the index and never deserializes a game. Slot data
+ * follows the index; a slot is loaded by mapping just its region.
+ *
+ * Each index entry holds two complete copies of a slot's record (metadata, data offset, length
+ * and capacity, each copy with its own data region) and one int naming the live copy. A save
+ * writes the data and the record of the copy not in use, forces both to disk, and only then
+ * flips that int; a crash at any point before the flip leaves the previous save intact, and
+ * the flip itself is a single aligned int write. Data that outgrows its region gets a new one
+ * at the end of the file, and the old region is left unused.
+ */
+public class SaveSlotStore implements Closeable {
+    public static final int MAX_SLOTS = 256;
+
+    private static final int MAGIC = 0x4D445356; // "MDSV"
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 16; // magic, version, slot count, reserved
+    private static final int ENTRY_SIZE = 128;
+    private static final int INDEX_SIZE = HEADER_SIZE + MAX_SLOTS * ENTRY_SIZE;
+
+    // An index entry is the live copy number (0 if the slot is unused, else 1 or 2), then the two copies
+    private static final int LIVE = 0;
+    private static final int COPY_START = 8;
+    private static final int COPY_SIZE = 56;
+
+    // Field offsets inside a copy
+    private static final int LEVEL = 0;
+    private static final int HP = 4;
+    private static final int SCORE = 8;
+    private static final int STEPS = 12;
+    private static final int DIFFICULTY = 16;
+    private static final int DATA_LENGTH = 20;
+    private static final int SAVED_AT = 24;
+    private static final int DATA_OFFSET = 32; // 0 until the copy has a region
+    private static final int DATA_CAPACITY = 40;
+
+    /** Metadata of one used slot, as kept in the index. */
+    public record SlotInfo(int slot, int level, int hp, int score, int steps, int difficulty, long savedAtMillis) { }
+
+    private final FileChannel channel;
+    private final MappedByteBuffer index;
+
+    public SaveSlotStore(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        boolean fresh = channel.size() == 0;
+        this.index = channel.map(FileChannel.MapMode.READ_WRITE, 0, INDEX_SIZE);
+        if (fresh) {
+            index.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, MAX_SLOTS);
+        } else if (index.getInt(0) != MAGIC || index.getInt(4) != VERSION || index.getInt(8) != MAX_SLOTS) {
+            channel.close();
+            throw new IOException("Not a save slot file: " + file);
+        }
+    }
+
+    // Reads the index only
+    public List<SlotInfo> listSlots() {
+        List<SlotInfo> slots = new ArrayList<>();
+        for (int slot = 0; slot < MAX_SLOTS; slot++) {
+            if (isUsed(slot)) slots.add(getSlotInfo(slot));
+        }
+        return slots;
+    }
+
+    public boolean isUsed(int slot) { return index.getInt(entry(slot) + LIVE) != 0; }
+
+    public SlotInfo getSlotInfo(int slot) {
+        if (!isUsed(slot)) return null;
+        int e = live(slot);
+        return new SlotInfo(slot, index.getInt(e + LEVEL), index.getInt(e + HP), index.getInt(e + SCORE),
+                index.getInt(e + STEPS), index.getInt(e + DIFFICULTY), index.getLong(e + SAVED_AT));
+    }
+
+    // Lowest unused slot, or -1 if all are taken
+    public int firstFreeSlot() {
+        for (int slot = 0; slot < MAX_SLOTS; slot++) {
+            if (!isUsed(slot)) return slot;
+        }
+        return -1;
+    }
+
+    public void save(int slot, GameEngine engine) throws IOException {
+        commit(slot, prepare(slot, engine));
+    }
+
+    // Writes the data and the record of the copy not in use, and returns its number. Until commit
+    // flips the slot to it, nothing readers see has changed.
+    int prepare(int slot, GameEngine engine) throws IOException {
+        int copy = index.getInt(entry(slot) + LIVE) == 1 ? 2 : 1;
+        int c = copy(slot, copy);
+        byte[] data = engine.toBytes();
+        long offset = index.getLong(c + DATA_OFFSET);
+        int capacity = index.getInt(c + DATA_CAPACITY);
+        if (offset == 0 || data.length > capacity) {
+            offset = Math.max(channel.size(), INDEX_SIZE);
+            capacity = data.length + data.length / 4; // Room to grow a little before moving again
+        }
+        MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_WRITE, offset, capacity);
+        region.put(data);
+        region.force();
+
+        Player player = engine.getPlayer();
+        index.putInt(c + LEVEL, engine.getCurrentLevel())
+                .putInt(c + HP, player.getHp())
+                .putInt(c + SCORE, player.getScore())
+                .putInt(c + STEPS, player.getStepsTaken())
+                .putInt(c + DIFFICULTY, engine.getDifficultySetting())
+                .putInt(c + DATA_LENGTH, data.length)
+                .putLong(c + SAVED_AT, System.currentTimeMillis())
+                .putLong(c + DATA_OFFSET, offset)
+                .putInt(c + DATA_CAPACITY, capacity);
+        index.force(); // The copy must be on disk before the flip can be
+        return copy;
+    }
+
+    void commit(int slot, int copy) {
+        index.putInt(entry(slot) + LIVE, copy);
+        index.force();
+    }
+
+    // Where the slot's data starts in the file, 0 if it has none
+    long getDataOffset(int slot) { return isUsed(slot) ? index.getLong(live(slot) + DATA_OFFSET) : 0; }
+
+    public GameEngine load(int slot) throws IOException {
+        if (!isUsed(slot)) return null;
+        int c = live(slot);
+        MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, index.getLong(c + DATA_OFFSET), index.getInt(c + DATA_LENGTH));
+        return GameEngine.fromStream(new ByteBufferInputStream(region));
+    }
+
+    public void delete(int slot) {
+        index.putInt(entry(slot) + LIVE, 0); // The regions are kept for the next save to this slot
+        index.force();
+    }
+
+    private static int entry(int slot) {
+        if (slot < 0 || slot >= MAX_SLOTS) throw new IllegalArgumentException("No such save slot: " + slot);
+        return HEADER_SIZE + slot * ENTRY_SIZE;
+    }
+
+    private static int copy(int slot, int copy) { return entry(slot) + COPY_START + (copy - 1) * COPY_SIZE; }
+
+    private int live(int slot) { return copy(slot, index.getInt(entry(slot) + LIVE)); }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // Lets ObjectInputStream read straight from a mapped region
+    private static class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) { this.buffer = buffer; }
+
+        @Override public int read() { return buffer.hasRemaining() ? buffer.get() & 0xFF : -1; }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!buffer.hasRemaining()) return -1;
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override public int available() { return buffer.remaining(); }
+    }
+}
@@ -10,10 +10,13 @@ public class ScoreEntry implements Serializable, Comparable<ScoreEntry> { // Ens
     private static final long serialVersionUID = 5L;
     private final int score;
     private final LocalDate date;
+    private final int difficulty; // Starting difficulty of the game; 0 for entries saved before it was recorded
 
-    public ScoreEntry(int score, LocalDate date) { this.score = score; this.date = date; }
+    public ScoreEntry(int score, LocalDate date) { this(score, date, 0); }
+    public ScoreEntry(int score, LocalDate date, int difficulty) { this.score = score; this.date = date; this.difficulty = difficulty; }
     public int getScore() { return score; }
     public LocalDate getDate() { return date; }
+    public int getDifficulty() { return difficulty; }
     @Override public int compareTo(ScoreEntry other) {
         if (this.score != other.score) return Integer.compare(other.score, this.score); // Higher score first
         return other.date.compareTo(this.date); // Then more recent date first
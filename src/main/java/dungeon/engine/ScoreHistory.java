@@ -0,0 +1,145 @@
+package dungeon.engine;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Every finished game, indexed by a Leaderboard. Engines in the same JVM share one instance per
+ * file (see forFile), and nothing is read until the leaderboard is first needed.
+ *
+ * The file only grows: a finished game appends one fixed-size record under an exclusive
+ * FileChannel lock, so writers in other processes never overwrite each other's games. Records
+ * other processes appended are picked up from where the last read stopped, so a finished game
+ * costs one record of I/O plus whatever others wrote since. As in TopScores, all instances on a
+ * file also share an in-JVM lock, since FileChannel locks cannot overlap within one JVM.
+ */
+public class ScoreHistory {
+    private static final int MAGIC = 0x4D444831; // "MDH1"
+    private static final int HEADER = 4;
+    static final int RECORD = 4 + 4 + 1; // score, epoch day, starting difficulty
+
+    private static final ConcurrentHashMap<Path, ScoreHistory> SHARED = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<Path, Object> FILE_LOCKS = new ConcurrentHashMap<>();
+
+    private final Path file;
+    private final Object fileLock; // Shared by every instance on this file in the JVM
+    private final Leaderboard leaderboard = new Leaderboard();
+    private long readUpTo = -1; // File position of the first record not yet indexed, -1 before the first read
+
+    public ScoreHistory(Path file) {
+        this.file = file;
+        this.fileLock = FILE_LOCKS.computeIfAbsent(file.toAbsolutePath().normalize(), f -> new Object());
+    }
+
+    // The instance every engine in this JVM uses for that file
+    public static ScoreHistory forFile(Path file) {
+        return SHARED.computeIfAbsent(file.toAbsolutePath().normalize(), ScoreHistory::new);
+    }
+
+    // Every game recorded so far, here or by other processes; safe to query from any thread
+    public Leaderboard getLeaderboard() {
+        synchronized (fileLock) {
+            if (file.toFile().exists()) {
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                    channel.lock(); // Exclusive, in case an old-format file has to be converted; released on close
+                    catchUp(channel);
+                } catch (IOException e) {
+                    System.err.println("Error loading score history from file: " + e.getMessage());
+                }
+            }
+        }
+        return leaderboard;
+    }
+
+    // Appends the finished game to the file and the leaderboard
+    public void record(ScoreEntry entry) {
+        synchronized (fileLock) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                channel.lock(); // Released when the channel closes
+                catchUp(channel);
+                ByteBuffer buffer = ByteBuffer.allocate(RECORD);
+                write(buffer, entry);
+                buffer.flip();
+                long position = readUpTo;
+                while (buffer.hasRemaining()) position += channel.write(buffer, position);
+                channel.force(false);
+                readUpTo = position;
+            } catch (IOException e) {
+                System.err.println("Error saving score history to file: " + e.getMessage());
+            }
+            leaderboard.record(entry); // Counts for this run even if the file could not be written
+        }
+    }
+
+    // Indexes the records added since the last read. Caller holds fileLock and an exclusive file lock.
+    private void catchUp(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (readUpTo < 0) {
+            if (size == 0) {
+                writeHeader(channel);
+                size = HEADER;
+            } else if (readInt(channel, 0) != MAGIC) {
+                convertOldFile(channel);
+                size = channel.size();
+            }
+            readUpTo = HEADER;
+        }
+        long end = HEADER + (size - HEADER) / RECORD * RECORD;
+        if (end < size) channel.truncate(end); // A record torn by a crash; the next one goes where it started
+        if (end <= readUpTo) return;
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) (end - readUpTo));
+        while (buffer.hasRemaining() && channel.read(buffer, readUpTo + buffer.position()) >= 0) { }
+        buffer.flip();
+        while (buffer.remaining() >= RECORD) {
+            leaderboard.record(new ScoreEntry(buffer.getInt(), LocalDate.ofEpochDay(buffer.getInt()), buffer.get()));
+        }
+        readUpTo = end;
+    }
+
+    // Earlier versions kept the history as one serialized list, rewritten on every game
+    @SuppressWarnings("unchecked")
+    private static void convertOldFile(FileChannel channel) throws IOException {
+        ByteBuffer old = ByteBuffer.allocate((int) channel.size());
+        while (old.hasRemaining() && channel.read(old, old.position()) >= 0) { }
+        List<ScoreEntry> entries = new ArrayList<>();
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(old.array(), 0, old.position()))) {
+            List<ScoreEntry> loaded = (List<ScoreEntry>) ois.readObject();
+            if (loaded != null) entries.addAll(loaded);
+        } catch (ClassNotFoundException | ClassCastException | IOException e) {
+            System.err.println("Score history file is unreadable, starting a new history: " + e.getMessage());
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER + entries.size() * RECORD);
+        buffer.putInt(MAGIC);
+        for (ScoreEntry entry : entries) write(buffer, entry);
+        buffer.flip();
+        channel.truncate(0);
+        while (buffer.hasRemaining()) channel.write(buffer, buffer.position());
+        channel.force(false);
+    }
+
+    private static void writeHeader(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER).putInt(MAGIC);
+        buffer.flip();
+        while (buffer.hasRemaining()) channel.write(buffer, buffer.position());
+    }
+
+    private static int readInt(FileChannel channel, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4);
+        while (buffer.hasRemaining() && channel.read(buffer, position + buffer.position()) >= 0) { }
+        return buffer.hasRemaining() ? 0 : buffer.getInt(0);
+    }
+
+    private static void write(ByteBuffer buffer, ScoreEntry entry) {
+        buffer.putInt(entry.getScore()).putInt((int) entry.getDate().toEpochDay()).put((byte) entry.getDifficulty());
+    }
+}
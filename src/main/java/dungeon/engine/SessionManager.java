@@ -0,0 +1,297 @@
+package dungeon.engine;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Hosts many games in one JVM under a global memory budget. Each session's heap cost is
+ * estimated with MemoryFootprint when it opens and again whenever its map is replaced or its
+ * game ends. When a new session would not fit, the manager either rejects it or, with
+ * EVICT_IDLE, first closes sessions that have been idle for at least the idle period, least
+ * recently used first, and rejects only if that still does not make room.
+ *
+ * With hibernation on, a session left alone for the hibernation period is encoded in its
+ * compact form (about a byte per tile, see GameEngine.toCompactBytes) and its engine dropped;
+ * the bytes stay on the heap or go to a spill file. At most maxResident engines are kept
+ * built: opening or waking one more hibernates the least recently used. A hibernated session
+ * is rebuilt on its next move, so callers never see the difference, but should not hold on to
+ * an engine between calls (use inspect). Sessions with autosave, move listeners or analytics
+ * attached stay built, since the compact form does not keep them.
+ *
+ * Bookkeeping is guarded by the manager; a move holds only its own session, so sessions are
+ * played in parallel. Moves on one session are applied one at a time.
+ */
+public class SessionManager implements Closeable {
+    public enum FullPolicy { REJECT, EVICT_IDLE }
+
+    private static final int HIBERNATED_OVERHEAD = MemoryFootprint.object(8 * 4 + 2 * MemoryFootprint.REFERENCE);
+
+    private static final class Session {
+        final long id;
+        GameEngine engine; // Null while hibernated
+        byte[] compact; // Hibernated without a spill file
+        long spillOffset = -1;
+        int spillLength;
+        int spillCapacity;
+        long bytes;
+        long lastUsed;
+        int busy; // Moves running right now; a busy session is never evicted or hibernated
+        GameMap measuredMap;
+        boolean measuredOver;
+
+        Session(long id, GameEngine engine) {
+            this.id = id;
+            this.engine = engine;
+        }
+    }
+
+    private final long budgetBytes;
+    private final long idleNanos;
+    private final FullPolicy policy;
+    private final LongSupplier clock;
+    private final HashMap<Long, Session> sessions = new HashMap<>();
+    private final LinkedHashMap<Long, Session> resident = new LinkedHashMap<>(16, 0.75f, true); // Built engines, least recently used first
+    private long nextId = 1;
+    private long usedBytes;
+    private long evictedCount;
+
+    private boolean hibernation;
+    private long hibernateNanos;
+    private int maxResident = Integer.MAX_VALUE;
+    private SpillFile spill; // Null keeps hibernated sessions on the heap
+
+    public SessionManager(long budgetBytes, long idleMillis, FullPolicy policy) {
+        this(budgetBytes, idleMillis, policy, System::nanoTime);
+    }
+
+    // Clock in nanoseconds; tests pass their own
+    SessionManager(long budgetBytes, long idleMillis, FullPolicy policy, LongSupplier clock) {
+        this.budgetBytes = budgetBytes;
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(idleMillis);
+        this.policy = policy;
+        this.clock = clock;
+    }
+
+    // Hibernates sessions idle for hibernateAfterMillis, and keeps at most maxResident built. spillFile may be null.
+    public synchronized void enableHibernation(long hibernateAfterMillis, int maxResident, Path spillFile) throws IOException {
+        if (maxResident < 1) throw new IllegalArgumentException("maxResident must be at least 1: " + maxResident);
+        if (spillFile != null && spill == null) spill = new SpillFile(spillFile);
+        this.hibernation = true;
+        this.hibernateNanos = TimeUnit.MILLISECONDS.toNanos(hibernateAfterMillis);
+        this.maxResident = maxResident;
+    }
+
+    public long open(int difficulty) {
+        GameEngine engine = new GameEngine();
+        engine.startGame(difficulty);
+        return open(engine);
+    }
+
+    // Takes over the engine and returns its session id. Throws IllegalStateException if the budget has no room.
+    public synchronized long open(GameEngine engine) {
+        hibernateIdle();
+        long bytes = MemoryFootprint.of(engine).getTotal();
+        if (!makeRoom(bytes, null)) {
+            throw new IllegalStateException("Memory budget of " + budgetBytes + " bytes is full ("
+                    + usedBytes + " used, " + bytes + " needed)");
+        }
+        Session session = new Session(nextId++, engine);
+        session.bytes = bytes;
+        session.lastUsed = clock.getAsLong();
+        session.measuredMap = engine.getMap();
+        session.measuredOver = engine.isGameOver();
+        sessions.put(session.id, session);
+        resident.put(session.id, session);
+        usedBytes += bytes;
+        limitResident(session);
+        return session.id;
+    }
+
+    public String processMove(long id, Direction direction) {
+        return inspect(id, engine -> engine.processMove(direction));
+    }
+
+    // Runs query on the session's engine, waking it first if it is hibernated
+    public <T> T inspect(long id, Function<GameEngine, T> query) {
+        Session session = acquire(id);
+        try {
+            synchronized (session) {
+                return query.apply(session.engine);
+            }
+        } finally {
+            release(session);
+        }
+    }
+
+    public MemoryFootprint footprint(long id) {
+        return inspect(id, MemoryFootprint::of);
+    }
+
+    public synchronized void close(long id) {
+        Session session = sessions.remove(id);
+        if (session == null) return;
+        resident.remove(id);
+        usedBytes -= session.bytes;
+        if (spill != null) spill.free(session.spillOffset, session.spillCapacity); // Kept from its last hibernation, if any
+    }
+
+    public synchronized boolean isOpen(long id) { return sessions.containsKey(id); }
+    public synchronized boolean isHibernated(long id) { return sessions.containsKey(id) && sessions.get(id).engine == null; }
+    public synchronized int getSessionCount() { return sessions.size(); }
+    public synchronized int getResidentCount() { return resident.size(); }
+    public synchronized long getUsedBytes() { return usedBytes; }
+    public long getBudgetBytes() { return budgetBytes; }
+    // Size of the spill file, 0 without one
+    synchronized long getSpillBytes() { return spill == null ? 0 : spill.size(); }
+    // Sessions closed to make room for others
+    public synchronized long getEvictedCount() { return evictedCount; }
+
+    // Hibernates every session idle for the hibernation period; open and moves also do this as they go
+    public synchronized void hibernateIdle() {
+        if (!hibernation) return;
+        long now = clock.getAsLong();
+        Iterator<Session> it = resident.values().iterator();
+        while (it.hasNext()) {
+            Session session = it.next();
+            if (now - session.lastUsed < hibernateNanos) break; // Later entries were used more recently
+            if (session.busy == 0 && hibernate(session)) it.remove();
+        }
+    }
+
+    private synchronized Session acquire(long id) {
+        hibernateIdle();
+        Session session = find(id);
+        if (session.engine == null) {
+            wake(session);
+            resident.put(id, session);
+            limitResident(session);
+            makeRoom(0, session); // The woken engine may not fit beside the others
+        } else {
+            resident.get(id); // Now the most recently used
+        }
+        session.busy++;
+        session.lastUsed = clock.getAsLong();
+        return session;
+    }
+
+    // Re-measures the session if the move changed what it holds, then makes room if it grew past the budget
+    private synchronized void release(Session session) {
+        session.busy--;
+        session.lastUsed = clock.getAsLong();
+        GameEngine engine = session.engine;
+        if (session.busy == 0 && (engine.getMap() != session.measuredMap || engine.isGameOver() != session.measuredOver)) {
+            long bytes = MemoryFootprint.of(engine).getTotal();
+            usedBytes += bytes - session.bytes;
+            session.bytes = bytes;
+            session.measuredMap = engine.getMap();
+            session.measuredOver = engine.isGameOver();
+            makeRoom(0, session);
+        }
+    }
+
+    private Session find(long id) {
+        Session session = sessions.get(id);
+        if (session == null) throw new IllegalArgumentException("No open session " + id);
+        return session;
+    }
+
+    // Hibernates the least recently used sessions until at most maxResident are built
+    private void limitResident(Session keep) {
+        Iterator<Session> it = resident.values().iterator();
+        while (resident.size() > maxResident && it.hasNext()) {
+            Session session = it.next();
+            if (session != keep && session.busy == 0 && hibernate(session)) it.remove();
+        }
+    }
+
+    // Evicts idle sessions, oldest first, until 'bytes' more fit; false if they still do not.
+    // With hibernation on, sessions are hibernated first, since that loses nothing.
+    private boolean makeRoom(long bytes, Session keep) {
+        if (usedBytes + bytes <= budgetBytes) return true;
+        if (hibernation) {
+            Iterator<Session> it = resident.values().iterator();
+            while (usedBytes + bytes > budgetBytes && it.hasNext()) {
+                Session session = it.next();
+                if (session != keep && session.busy == 0 && hibernate(session)) it.remove();
+            }
+        }
+        if (policy == FullPolicy.REJECT) return usedBytes + bytes <= budgetBytes;
+        evictIdle(bytes, keep);
+        return usedBytes + bytes <= budgetBytes;
+    }
+
+    // Closes idle sessions, resident or hibernated, least recently used first
+    private void evictIdle(long bytes, Session keep) {
+        long now = clock.getAsLong();
+        List<Session> idle = new ArrayList<>();
+        for (Session candidate : sessions.values()) {
+            if (candidate != keep && candidate.busy == 0 && now - candidate.lastUsed >= idleNanos) idle.add(candidate);
+        }
+        idle.sort(Comparator.comparingLong(candidate -> candidate.lastUsed));
+        for (int i = 0; i < idle.size() && usedBytes + bytes > budgetBytes; i++) {
+            close(idle.get(i).id);
+            evictedCount++;
+        }
+    }
+
+    // Encodes and drops the engine; false (and the session stays built) if it could not be written
+    private boolean hibernate(Session session) {
+        if (session.engine == null) return true;
+        if (session.engine.hasAttachments()) return false; // The journal, listeners or recorder would be lost
+        try {
+            byte[] data = session.engine.toCompactBytes();
+            if (spill != null) {
+                long offset = spill.write(data, session.spillOffset, session.spillCapacity);
+                if (offset != session.spillOffset) session.spillCapacity = SpillFile.regionSize(data.length);
+                session.spillOffset = offset;
+                session.spillLength = data.length;
+            } else {
+                session.compact = data;
+            }
+            session.engine = null;
+            session.measuredMap = null;
+            long bytes = HIBERNATED_OVERHEAD + (spill != null ? 0 : MemoryFootprint.array(1, data.length));
+            usedBytes += bytes - session.bytes;
+            session.bytes = bytes;
+            return true;
+        } catch (IOException e) {
+            System.err.println("Could not hibernate session " + session.id + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void wake(Session session) {
+        try {
+            byte[] data = spill != null ? spill.read(session.spillOffset, session.spillLength) : session.compact;
+            session.engine = GameEngine.fromCompactBytes(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not wake session " + session.id, e);
+        }
+        session.compact = null;
+        long bytes = MemoryFootprint.of(session.engine).getTotal();
+        usedBytes += bytes - session.bytes;
+        session.bytes = bytes;
+        session.measuredMap = session.engine.getMap();
+        session.measuredOver = session.engine.isGameOver();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        sessions.clear();
+        resident.clear();
+        usedBytes = 0;
+        if (spill != null) spill.close();
+        spill = null;
+    }
+}
@@ -0,0 +1,257 @@
+package dungeon.engine;
+
+import dungeon.engine.items.Empty;
+import dungeon.engine.items.Gold;
+import dungeon.engine.items.HealthPotion;
+import dungeon.engine.items.MeleeMutant;
+import dungeon.engine.items.RangedMutant;
+import dungeon.engine.items.Trap;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * One map shared by several players, who may submit moves from any thread. The map has a
+ * single writer: every command goes into a lock-free mailbox, and whichever executor thread is
+ * draining that mailbox applies the commands one at a time. The map itself needs no locks, and
+ * dungeons never contend with each other, so thousands of them can share one small executor.
+ * A dungeon with nothing to do holds no thread.
+ *
+ * The rules are those of GameEngine.processMove for a single level, like BatchEngine's. Players
+ * who reach the ladder have escaped (WIN_GAME) and leave the map. Conflicts are settled by
+ * mailbox order: the first player to reach gold, a potion or a mutant takes it, and anyone
+ * arriving later finds an empty tile. A tile holding another player blocks the move. Ranged
+ * mutants shoot at the player who just moved.
+ */
+public class SharedDungeon {
+    public static final int MAX_COMMANDS_PER_RUN = 64; // Then the thread moves on to other dungeons
+
+    /** What a command left the player with. moved is false if the move was refused. */
+    public record MoveResult(boolean moved, String message, int x, int y, int hp, int score, int steps, GameState state) { }
+
+    private final GameMap map;
+    private final Executor executor;
+    private final Random random;
+    private final ConcurrentLinkedQueue<Runnable> mailbox = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    // Only touched by the command being run
+    private final Map<Integer, Player> players = new HashMap<>();
+    private final Map<Integer, GameState> states = new HashMap<>();
+    private final int[] occupant; // Per tile: id of the player standing there, or -1
+    private int nextPlayerId;
+    private int turn; // Moves made by all players, the clock for ranged mutant cooldowns
+
+    public SharedDungeon(GameMap map, Executor executor, long seed) {
+        this.map = map;
+        this.executor = executor;
+        this.random = new Random(seed);
+        this.occupant = new int[map.getWidth() * map.getHeight()];
+        Arrays.fill(occupant, -1);
+    }
+
+    // A fresh first level with a reachable ladder
+    public static SharedDungeon create(int difficulty, Executor executor, long seed) {
+        Position entry = new Position(0, GameEngine.MAP_HEIGHT - 1);
+        return new SharedDungeon(LevelPrefetcher.generate(1, difficulty, entry), executor, seed);
+    }
+
+    // Adds a player on the entry, or on the nearest free tile if someone stands there. Completes with -1 if the map is full.
+    public CompletableFuture<Integer> join() {
+        return send(() -> {
+            Position entry = map.getEntryPosition();
+            int start = entry != null ? map.tileOf(entry.x(), entry.y()) : map.tileOf(0, map.getHeight() - 1);
+            int tile = nearestFreeTile(start);
+            return tile < 0 ? -1 : addPlayer(tile);
+        });
+    }
+
+    // Adds a player on a given free tile; for tests and scripted setups
+    CompletableFuture<Integer> join(int x, int y) {
+        return send(() -> isFree(map.tileOf(x, y)) ? addPlayer(map.tileOf(x, y)) : -1);
+    }
+
+    public CompletableFuture<MoveResult> move(int playerId, Direction direction) {
+        return send(() -> applyMove(playerId, direction));
+    }
+
+    public CompletableFuture<MoveResult> status(int playerId) {
+        return send(() -> result(playerId, false, ""));
+    }
+
+    public CompletableFuture<Void> leave(int playerId) {
+        return send(() -> {
+            Player player = players.remove(playerId);
+            states.remove(playerId);
+            if (player != null) vacate(player);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Integer> getPlayerCount() {
+        return send(players::size);
+    }
+
+    // Runs on the dungeon's writer; for reads that need a consistent view of the map
+    public <T> CompletableFuture<T> inspect(Function<GameMap, T> query) {
+        return send(() -> query.apply(map));
+    }
+
+    private <T> CompletableFuture<T> send(Supplier<T> command) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        mailbox.add(() -> {
+            try {
+                result.complete(command.get());
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        if (scheduled.compareAndSet(false, true)) executor.execute(this::drain);
+        return result;
+    }
+
+    // At most one drain runs at a time (guarded by 'scheduled'), which is what makes it the single writer
+    private void drain() {
+        Runnable command;
+        for (int run = 0; run < MAX_COMMANDS_PER_RUN && (command = mailbox.poll()) != null; run++) command.run();
+        scheduled.set(false);
+        // A command may have arrived after the last poll but before the flag was cleared
+        if (!mailbox.isEmpty() && scheduled.compareAndSet(false, true)) executor.execute(this::drain);
+    }
+
+    private int addPlayer(int tile) {
+        int id = nextPlayerId++;
+        players.put(id, new Player(new Position(map.tileX(tile), map.tileY(tile))));
+        states.put(id, GameState.IN_PROGRESS);
+        occupant[tile] = id;
+        return id;
+    }
+
+    private MoveResult applyMove(int playerId, Direction direction) {
+        Player player = players.get(playerId);
+        if (player == null) return new MoveResult(false, "No such player.", -1, -1, 0, 0, 0, null);
+        if (states.get(playerId) != GameState.IN_PROGRESS) return result(playerId, false, "Your game is over.");
+
+        int from = map.tileOf(player.getX(), player.getY());
+        int to = map.step(from, direction);
+        if (to < 0) return result(playerId, false, "That way is the boundary wall.");
+        Item item = map.getCellAt(to).getItem();
+        if (!item.isPassable()) return result(playerId, false, "That way is " + item.getDescription() + ".");
+        if (occupant[to] >= 0) return result(playerId, false, "Another player is standing there.");
+
+        occupant[from] = -1;
+        occupant[to] = playerId;
+        player.moveTo(map.tileX(to), map.tileY(to));
+        player.incrementSteps();
+        turn++;
+        StringBuilder message = new StringBuilder(interact(player, to, playerId));
+        if (states.get(playerId) == GameState.IN_PROGRESS) {
+            rangedAttacks(player, message);
+            checkEnd(playerId, player, message);
+        }
+        return result(playerId, true, message.toString().trim());
+    }
+
+    private String interact(Player player, int tile, int playerId) {
+        switch (TileType.of(map.getCellAt(tile).getItem())) {
+            case TileType.GOLD:
+                player.addScore(Gold.VALUE);
+                map.setItemAt(tile, new Empty());
+                return "You picked up gold. ";
+            case TileType.HEALTH_POTION:
+                player.heal(HealthPotion.HEAL_AMOUNT);
+                map.setItemAt(tile, new Empty());
+                return "You drank a health potion. ";
+            case TileType.TRAP:
+                player.takeDamage(Trap.DAMAGE);
+                return "You fell into a trap! ";
+            case TileType.MELEE_MUTANT:
+                player.takeDamage(MeleeMutant.fightDamage(map, map.tileX(tile), map.tileY(tile)));
+                player.addScore(MeleeMutant.SCORE_VALUE);
+                map.setItemAt(tile, new Empty());
+                return "You defeated a melee mutant! ";
+            case TileType.RANGED_MUTANT:
+                player.addScore(RangedMutant.SCORE_VALUE);
+                map.setItemAt(tile, new Empty());
+                return "You defeated a ranged mutant! ";
+            case TileType.LADDER:
+                states.put(playerId, GameState.WIN_GAME); // Escaped; the ladder stays for the others
+                vacate(player);
+                return "You climbed the ladder and escaped the dungeon! ";
+            default:
+                return "";
+        }
+    }
+
+    // Same cross-shaped scan as GameEngine, aimed at the player who just moved
+    private void rangedAttacks(Player player, StringBuilder message) {
+        int px = player.getX(), py = player.getY();
+        int range = RangedMutant.RANGED_ATTACK_RANGE;
+        for (int y = Math.max(0, py - range); y <= Math.min(map.getHeight() - 1, py + range); y++) {
+            int fromX = (y == py) ? Math.max(0, px - range) : px;
+            int toX = (y == py) ? Math.min(map.getWidth() - 1, px + range) : px;
+            for (int x = fromX; x <= toX; x++) {
+                if ((x != px || y != py) && map.getCell(x, y).getItem() instanceof RangedMutant
+                        && RangedMutant.readyToFire(map, x, y, turn) && random.nextDouble() < RangedMutant.RANGED_ATTACK_HIT_CHANCE) {
+                    player.takeDamage(RangedMutant.RANGED_ATTACK_DAMAGE);
+                    message.append("A ranged mutant at (").append(x).append(",").append(y).append(") hit you! ");
+                }
+            }
+        }
+    }
+
+    private void checkEnd(int playerId, Player player, StringBuilder message) {
+        GameState state = player.getHp() <= 0 ? GameState.LOSE_HP
+                : player.getStepsTaken() >= GameEngine.MAX_STEPS_PER_LEVEL ? GameState.LOSE_STEPS : null;
+        if (state == null) return;
+        states.put(playerId, state);
+        player.setScore(-1);
+        vacate(player); // Out of the way of the players still going
+        message.append(state == GameState.LOSE_HP ? "Your HP reached 0. Game Over." : "You ran out of steps. Game Over.");
+    }
+
+    private void vacate(Player player) {
+        int tile = map.tileOf(player.getX(), player.getY());
+        if (occupant[tile] >= 0 && players.get(occupant[tile]) == player) occupant[tile] = -1;
+    }
+
+    private boolean isFree(int tile) {
+        return map.isValidTile(tile) && occupant[tile] < 0 && map.getCellAt(tile).getItem().isPassable();
+    }
+
+    // Breadth-first over passable tiles, so a crowded entry spills into the corridor behind it
+    private int nearestFreeTile(int start) {
+        boolean[] seen = new boolean[occupant.length];
+        int[] queue = new int[occupant.length];
+        int head = 0, tail = 0;
+        queue[tail++] = start;
+        seen[start] = true;
+        while (head < tail) {
+            int tile = queue[head++];
+            if (isFree(tile)) return tile;
+            for (Direction d : Direction.values()) {
+                int next = map.step(tile, d);
+                if (next >= 0 && !seen[next] && map.getCellAt(next).getItem().isPassable()) {
+                    seen[next] = true;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private MoveResult result(int playerId, boolean moved, String message) {
+        Player player = players.get(playerId);
+        if (player == null) return new MoveResult(false, "No such player.", -1, -1, 0, 0, 0, null);
+        return new MoveResult(moved, message, player.getX(), player.getY(), player.getHp(), player.getScore(),
+                player.getStepsTaken(), states.get(playerId));
+    }
+}
@@ -0,0 +1,232 @@
+package dungeon.engine;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Streams a live game to any number of spectators on a loopback port. Each move is encoded once,
+ * on the engine's thread, as a binary delta (plus the full snapshot kept for late joiners); one
+ * selector thread then writes that same buffer to every spectator, each through its own duplicate
+ * view rather than a copy, so a thousand spectators still cost one encode per move. A spectator
+ * that joins late is first sent the latest full snapshot. One that falls more than
+ * MAX_BACKLOG_BYTES behind is disconnected rather than buffered without limit.
+ *
+ * Frames (big-endian): kind byte, int payload length, payload.
+ *   'F' full:  short width, short height, stats, width * height tile bytes (TileType codes)
+ *   'D' delta: stats, short changedCount, changedCount * (short tile index, byte TileType code)
+ *   stats:     int level, int hp, int score, int steps, short x, short y, byte GameState ordinal (-1 if none)
+ * Tile indexes are y * width + x.
+ */
+public class SpectatorServer implements MoveListener, Closeable {
+    public static final byte FULL = 'F';
+    public static final byte DELTA = 'D';
+    public static final int MAX_BACKLOG_BYTES = 64 * 1024;
+    static final int HEADER_SIZE = 5;
+    private static final int STATS_SIZE = 4 * 4 + 2 * 2 + 1;
+
+    private final ServerSocketChannel server;
+    private final Selector selector;
+    private final Thread thread;
+    private final ConcurrentLinkedQueue<ByteBuffer[]> published = new ConcurrentLinkedQueue<>(); // {full, delta}
+    private volatile boolean running = true;
+
+    // Engine thread only
+    private byte[] lastTiles;
+
+    // Selector thread only
+    private ByteBuffer latestFull;
+    private volatile int droppedCount;
+    private volatile int spectatorCount;
+
+    private static class Spectator {
+        final ArrayDeque<ByteBuffer> pending = new ArrayDeque<>();
+        int backlog; // Bytes queued but not yet written
+        boolean synced; // Has been sent a full snapshot, so deltas make sense to it
+    }
+
+    public SpectatorServer(int port) throws IOException {
+        selector = Selector.open();
+        server = ServerSocketChannel.open();
+        server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+        thread = new Thread(this::runSelector, "spectator-server");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public int getPort() { return server.socket().getLocalPort(); }
+
+    @Override
+    public void onMove(GameEngine engine, Direction direction) { publish(engine); }
+
+    // Encodes the engine's current state and queues it for every spectator; call it on the engine's thread
+    public void publish(GameEngine engine) {
+        GameMap map = engine.getMap();
+        if (map == null || engine.getPlayer() == null) return;
+        int area = map.getWidth() * map.getHeight();
+        byte[] tiles = new byte[area];
+        for (int tile = 0; tile < area; tile++) tiles[tile] = TileType.of(map.getCellAt(tile).getItem());
+
+        ByteBuffer full = ByteBuffer.allocate(HEADER_SIZE + 4 + STATS_SIZE + area);
+        full.put(FULL).putInt(full.capacity() - HEADER_SIZE)
+                .putShort((short) map.getWidth()).putShort((short) map.getHeight());
+        putStats(full, engine);
+        full.put(tiles).flip();
+
+        int changed = 0;
+        boolean sameSize = lastTiles != null && lastTiles.length == area;
+        for (int tile = 0; tile < area; tile++) if (!sameSize || lastTiles[tile] != tiles[tile]) changed++;
+        ByteBuffer delta = ByteBuffer.allocate(HEADER_SIZE + STATS_SIZE + 2 + changed * 3);
+        delta.put(DELTA).putInt(delta.capacity() - HEADER_SIZE);
+        putStats(delta, engine);
+        delta.putShort((short) changed);
+        for (int tile = 0; tile < area; tile++) {
+            if (!sameSize || lastTiles[tile] != tiles[tile]) delta.putShort((short) tile).put(tiles[tile]);
+        }
+        delta.flip();
+        lastTiles = tiles;
+
+        published.add(new ByteBuffer[] {full.asReadOnlyBuffer(), delta.asReadOnlyBuffer()});
+        selector.wakeup();
+    }
+
+    private static void putStats(ByteBuffer buffer, GameEngine engine) {
+        Player player = engine.getPlayer();
+        GameState state = engine.getGameState();
+        buffer.putInt(engine.getCurrentLevel()).putInt(player.getHp()).putInt(player.getScore()).putInt(player.getStepsTaken())
+                .putShort((short) player.getX()).putShort((short) player.getY())
+                .put((byte) (state == null ? -1 : state.ordinal()));
+    }
+
+    private void runSelector() {
+        try {
+            while (running) {
+                selector.select();
+                fanOut();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) continue;
+                    if (key.isAcceptable()) accept();
+                    else if (key.isReadable()) readOrClose(key);
+                    if (key.isValid() && key.isWritable()) flush(key);
+                }
+            }
+        } catch (IOException e) {
+            if (running) System.err.println("Spectator server stopped: " + e.getMessage());
+        }
+    }
+
+    // Gives every spectator a view of each newly published frame
+    private void fanOut() {
+        ByteBuffer[] frame;
+        while ((frame = published.poll()) != null) {
+            latestFull = frame[0];
+            for (SelectionKey key : new ArrayList<>(selector.keys())) {
+                if (key.isValid() && key.attachment() instanceof Spectator) { // Closed keys stay listed until the next select
+                    Spectator spectator = (Spectator) key.attachment();
+                    enqueue(key, spectator.synced ? frame[1] : frame[0]);
+                    spectator.synced = true;
+                }
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = server.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            Spectator spectator = new Spectator();
+            SelectionKey key = channel.register(selector, SelectionKey.OP_READ, spectator);
+            spectatorCount++;
+            if (latestFull != null) {
+                enqueue(key, latestFull); // Late joiners start from a full snapshot
+                spectator.synced = true;
+            }
+        }
+    }
+
+    private void enqueue(SelectionKey key, ByteBuffer frame) {
+        Spectator spectator = (Spectator) key.attachment();
+        if (spectator.backlog + frame.remaining() > MAX_BACKLOG_BYTES) {
+            droppedCount++;
+            close(key); // Too slow to keep up
+            return;
+        }
+        spectator.pending.add(frame.duplicate()); // Own position and limit, shared bytes
+        spectator.backlog += frame.remaining();
+        flush(key);
+    }
+
+    private void flush(SelectionKey key) {
+        Spectator spectator = (Spectator) key.attachment();
+        SocketChannel channel = (SocketChannel) key.channel();
+        try {
+            while (!spectator.pending.isEmpty()) {
+                ByteBuffer head = spectator.pending.peek();
+                spectator.backlog -= channel.write(head);
+                if (head.hasRemaining()) break; // Socket buffer full; wait for OP_WRITE
+                spectator.pending.poll();
+            }
+            key.interestOps(spectator.pending.isEmpty() ? SelectionKey.OP_READ : SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        } catch (IOException e) {
+            close(key);
+        }
+    }
+
+    // Spectators send nothing; a read only tells us they went away
+    private void readOrClose(SelectionKey key) {
+        ByteBuffer discard = ByteBuffer.allocate(64);
+        try {
+            if (((SocketChannel) key.channel()).read(discard) < 0) close(key);
+        } catch (IOException e) {
+            close(key);
+        }
+    }
+
+    private void close(SelectionKey key) {
+        if (!key.isValid()) return;
+        spectatorCount--;
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException ignored) {
+            // Already gone
+        }
+    }
+
+    // Spectators disconnected for falling too far behind
+    int getDroppedCount() { return droppedCount; }
+
+    // Spectators connected now, as far as the selector thread has seen
+    int getSpectatorCount() { return spectatorCount; }
+
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+        try {
+            thread.join(1000);
+            for (SelectionKey key : selector.keys()) key.channel().close();
+            selector.close();
+        } catch (IOException e) {
+            System.err.println("Error closing spectator server: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
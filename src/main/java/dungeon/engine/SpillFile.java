@@ -0,0 +1,79 @@
+package dungeon.engine;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+
+/**
+ * Scratch file for hibernated sessions. Records are written at positions the caller keeps.
+ * Regions come in power-of-two sizes; a record that outgrows its region moves to a bigger one,
+ * and regions given back with free (a closed session's, or one a record moved out of) are
+ * reused by later records of that size, so the file only grows with the number of records held
+ * at once. The file is deleted on close.
+ */
+class SpillFile implements Closeable {
+    private static final int MIN_REGION = 64;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final HashMap<Integer, ArrayDeque<Long>> freeRegions = new HashMap<>(); // By region size
+    private long end;
+
+    SpillFile(Path path) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    // Size of the region a record of this length is given
+    static int regionSize(int length) {
+        return length <= MIN_REGION ? MIN_REGION : Integer.highestOneBit(length - 1) << 1;
+    }
+
+    // Writes data into the region at offset if it fits in capacity, otherwise into a free or new
+    // region of regionSize(data.length), freeing the old one; returns the offset used
+    synchronized long write(byte[] data, long offset, int capacity) throws IOException {
+        if (offset < 0 || data.length > capacity) {
+            if (offset >= 0) free(offset, capacity);
+            int size = regionSize(data.length);
+            ArrayDeque<Long> free = freeRegions.get(size);
+            if (free != null && !free.isEmpty()) {
+                offset = free.pop();
+            } else {
+                offset = end;
+                end += size;
+            }
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        long position = offset;
+        while (buffer.hasRemaining()) position += channel.write(buffer, position);
+        return offset;
+    }
+
+    // Gives a region back for reuse; capacity is the size it was given with
+    synchronized void free(long offset, int capacity) {
+        if (offset < 0) return;
+        freeRegions.computeIfAbsent(capacity, c -> new ArrayDeque<>()).push(offset);
+    }
+
+    byte[] read(long offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) throw new IOException("Spill file is truncated");
+        }
+        return buffer.array();
+    }
+
+    synchronized long size() { return end; }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+        path.toFile().delete();
+    }
+}
@@ -0,0 +1,177 @@
+package dungeon.engine;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * ANSI renderer for the text UI. Each frame is built in a reused buffer and only the tiles
+ * that changed since the previous frame are sent, using cursor moves, with one flush per frame.
+ * This keeps play usable over slow links, where reprinting the whole map every turn scrolls badly.
+ */
+public class TerminalRenderer {
+    private static final String ESC = "\u001b[";
+    private static final int MAP_TOP_ROW = 2; // Row 1 is the level header
+    private static final int TOP_SCORE_LINES = 5;
+
+    private final Writer out;
+    private final StringBuilder frame = new StringBuilder(4096);
+    private char[] flushBuffer = new char[4096];
+
+    private GameMap lastMap; // Map of the last frame
+    private char[] previous; // Tiles as last sent to the terminal
+    private char[] current;
+    private int width = -1;
+    private int height = -1;
+    private boolean fullRedraw = true;
+
+    private String lastHeader;
+    private String lastStatus;
+    private String lastTopScores;
+
+    // Where the terminal cursor is after the last write, so adjacent tiles skip the cursor move
+    private int cursorRow;
+    private int cursorCol;
+
+    public TerminalRenderer(OutputStream stream) {
+        this.out = new BufferedWriter(new OutputStreamWriter(stream), 8192);
+    }
+
+    // Forces the next frame to clear the screen and redraw everything
+    public void invalidate() { fullRedraw = true; }
+
+    public void render(GameEngine engine, String message) {
+        GameMap map = engine.getMap();
+        Player player = engine.getPlayer();
+        if (map.getWidth() != width || map.getHeight() != height) {
+            width = map.getWidth();
+            height = map.getHeight();
+            previous = new char[width * height];
+            current = new char[width * height];
+            fullRedraw = true;
+        }
+        if (map != lastMap) {
+            lastMap = map;
+            fullRedraw = true; // A new level, game or loaded save: almost every tile changed anyway
+        }
+
+        frame.setLength(0);
+        cursorRow = -1;
+        if (fullRedraw) {
+            frame.append(ESC).append("2J");
+            Arrays.fill(previous, '\0');
+            lastHeader = null;
+            lastStatus = null;
+            lastTopScores = null;
+        }
+
+        String header = "---- LEVEL " + engine.getCurrentLevel() + " MAP ----";
+        if (!header.equals(lastHeader)) {
+            moveTo(1, 1);
+            frame.append(header).append(ESC).append('K');
+            lastHeader = header;
+        }
+
+        fillTiles(map, player);
+        appendChangedTiles();
+        char[] swap = previous; previous = current; current = swap;
+
+        int row = MAP_TOP_ROW + height;
+        if (fullRedraw) {
+            moveTo(row, 1);
+            frame.append("-------------");
+        }
+
+        String status = player + "  Steps remaining in level: " + (GameEngine.MAX_STEPS_PER_LEVEL - player.getStepsTaken());
+        if (!status.equals(lastStatus)) {
+            moveTo(row + 1, 1);
+            frame.append(status).append(ESC).append('K');
+            lastStatus = status;
+        }
+
+        String topScores = formatTopScores(engine.getTopScores());
+        if (!topScores.equals(lastTopScores)) {
+            moveTo(row + 2, 1);
+            frame.append(ESC).append('J').append(topScores);
+            lastTopScores = topScores;
+        }
+
+        // Message and prompt area: clear it (and any echoed input or stray output) and rewrite it
+        moveTo(row + 4 + TOP_SCORE_LINES, 1);
+        frame.append(ESC).append('J');
+        if (message != null && !message.isEmpty()) frame.append(message);
+        frame.append("\r\n");
+        if (!engine.isGameOver()) frame.append("Enter command (u, d, l, r, save, quit): ");
+
+        fullRedraw = false;
+        flush();
+    }
+
+    private void fillTiles(GameMap map, Player player) {
+        int playerIndex = player.getY() * width + player.getX();
+        int i = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++, i++) {
+                if (i == playerIndex) {
+                    current[i] = 'P';
+                } else {
+                    current[i] = map.isShown(x, y) ? map.getCell(x, y).getSymbol() : ' ';
+                }
+            }
+        }
+    }
+
+    private void appendChangedTiles() {
+        int i = 0;
+        for (int y = 0; y < height; y++) {
+            int row = MAP_TOP_ROW + y;
+            for (int x = 0; x < width; x++, i++) {
+                if (current[i] == previous[i]) continue;
+                int col = x * 2 + 1; // Tiles are separated by a space, as in displayMapText
+                if (row == cursorRow && col == cursorCol + 1) {
+                    frame.append(' '); // Neighbouring tile: write the separator instead of a cursor move
+                } else if (row != cursorRow || col != cursorCol) {
+                    moveTo(row, col);
+                }
+                frame.append(current[i]);
+                cursorRow = row;
+                cursorCol = col + 1;
+            }
+        }
+    }
+
+    private void moveTo(int row, int col) {
+        frame.append(ESC).append(row).append(';').append(col).append('H');
+        cursorRow = row;
+        cursorCol = col;
+    }
+
+    private static String formatTopScores(List<ScoreEntry> scores) {
+        StringBuilder sb = new StringBuilder("Top Scores (from file):");
+        if (scores.isEmpty()) {
+            sb.append("\r\nNo top scores recorded yet.");
+        }
+        int rank = 1;
+        for (ScoreEntry se : scores) {
+            if (rank > TOP_SCORE_LINES) break;
+            sb.append("\r\n#").append(rank++).append(' ').append(se);
+        }
+        return sb.toString();
+    }
+
+    private void flush() {
+        int length = frame.length();
+        if (flushBuffer.length < length) flushBuffer = new char[Math.max(length, flushBuffer.length * 2)];
+        frame.getChars(0, length, flushBuffer, 0);
+        try {
+            out.write(flushBuffer, 0, length);
+            out.flush();
+        } catch (IOException e) {
+            System.err.println("Error writing to terminal: " + e.getMessage());
+        }
+    }
+}
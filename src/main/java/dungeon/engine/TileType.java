@@ -0,0 +1,59 @@
+package dungeon.engine;
+
+import dungeon.engine.items.*;
+
+/**
+ * Compact byte codes for the tile types, for code that keeps maps in primitive arrays
+ * instead of a Cell[][] of Item objects (batch simulation, renderers, encoders).
+ */
+public final class TileType {
+    public static final byte EMPTY = 0;
+    public static final byte ENTRY = 1;
+    public static final byte WALL = 2;
+    public static final byte GOLD = 3;
+    public static final byte TRAP = 4;
+    public static final byte HEALTH_POTION = 5;
+    public static final byte LADDER = 6;
+    public static final byte MELEE_MUTANT = 7;
+    public static final byte RANGED_MUTANT = 8;
+    public static final byte PLAYER = 9; // Only used by renderers/encoders, never stored in a map
+    public static final int COUNT = 10;
+
+    private static final char[] SYMBOLS = {'.', 'E', '#', 'G', 'T', 'H', 'L', 'M', 'R', 'P'};
+    private static final Item[] ITEMS = {new Empty(), new Entry(), new Wall(), new Gold(), new Trap(),
+            new HealthPotion(), new Ladder(), new MeleeMutant(), new RangedMutant(), new PlayerMarkerItem()};
+
+    private TileType() { }
+
+    public static byte of(Item item) {
+        if (item == null || item instanceof Empty) return EMPTY;
+        if (item instanceof Entry) return ENTRY;
+        if (item instanceof Wall) return WALL;
+        if (item instanceof Gold) return GOLD;
+        if (item instanceof Trap) return TRAP;
+        if (item instanceof HealthPotion) return HEALTH_POTION;
+        if (item instanceof Ladder) return LADDER;
+        if (item instanceof MeleeMutant) return MELEE_MUTANT;
+        if (item instanceof RangedMutant) return RANGED_MUTANT;
+        if (item instanceof PlayerMarkerItem) return PLAYER;
+        return EMPTY;
+    }
+
+    // Items hold no per-entity state (that is in each map's EntityStore), so every type has one shared instance
+    public static Item toItem(byte type) {
+        return (type >= 0 && type < COUNT) ? ITEMS[type] : ITEMS[EMPTY];
+    }
+
+    public static char symbol(byte type) {
+        return (type >= 0 && type < COUNT) ? SYMBOLS[type] : '?';
+    }
+
+    public static byte fromSymbol(char symbol) {
+        for (byte t = 0; t < COUNT; t++) {
+            if (SYMBOLS[t] == symbol) return t;
+        }
+        return EMPTY;
+    }
+
+    public static boolean isPassable(byte type) { return type != WALL; }
+}
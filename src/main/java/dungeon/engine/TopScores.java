@@ -0,0 +1,185 @@
+package dungeon.engine;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The top-K list of winning scores, safe for many games finishing at once. In memory the list
+ * is an immutable sorted snapshot behind an AtomicReference: a submission builds the new list
+ * and swaps it in with compareAndSet, retrying if another one got there first. Scores that do
+ * not make the list cost one read and no write.
+ *
+ * Engines in the same JVM share one instance per file (see forFile). Other processes using the
+ * same file are handled by merge-on-write: under an exclusive FileChannel lock on a separate
+ * ".lock" file the list is read, the new entries are merged into it, and the result is written
+ * to a ".tmp" file that is then renamed over the list. The list file is only ever replaced whole,
+ * so a crash mid-write leaves the previous list, and readers need no lock. One thread at a time
+ * writes; entries submitted while it writes are picked up by its next round. FileChannel locks
+ * are held by the whole JVM, and taking one that overlaps a lock this JVM already holds throws,
+ * so every instance on the same file also goes through one in-JVM lock object first.
+ */
+public class TopScores {
+    public static final int SIZE = 5;
+
+    private static final ConcurrentHashMap<Path, TopScores> SHARED = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<Path, Object> FILE_LOCKS = new ConcurrentHashMap<>();
+
+    private final Path file; // Null keeps the list in memory only
+    private final Object fileLock; // Shared by every instance on this file in the JVM
+    private final int capacity;
+    private final AtomicReference<List<ScoreEntry>> board;
+    private final ConcurrentLinkedQueue<ScoreEntry> unsaved = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean writing = new AtomicBoolean();
+
+    public TopScores(Path file, int capacity) {
+        this.file = file;
+        this.fileLock = file == null ? null : FILE_LOCKS.computeIfAbsent(file.toAbsolutePath().normalize(), f -> new Object());
+        this.capacity = capacity;
+        this.board = new AtomicReference<>(Collections.emptyList());
+        refresh();
+    }
+
+    // The instance every engine in this JVM uses for that file
+    public static TopScores forFile(Path file) {
+        return SHARED.computeIfAbsent(file.toAbsolutePath().normalize(), f -> new TopScores(f, SIZE));
+    }
+
+    // Best first; never changes once returned
+    public List<ScoreEntry> get() { return board.get(); }
+
+    /**
+     * Adds the entry if it makes the list and returns its place (1 = best), or 0 if it did not.
+     * The file is updated before this returns unless another thread is already writing, in which
+     * case that thread writes it.
+     */
+    public int submit(ScoreEntry entry) {
+        while (true) {
+            List<ScoreEntry> current = board.get();
+            int index = insertionIndex(current, entry);
+            if (index >= capacity) return 0;
+            List<ScoreEntry> next = new ArrayList<>(current.size() + 1);
+            next.addAll(current);
+            next.add(index, entry);
+            if (next.size() > capacity) next.remove(next.size() - 1);
+            if (board.compareAndSet(current, Collections.unmodifiableList(next))) {
+                if (file != null) {
+                    unsaved.add(entry);
+                    flush();
+                }
+                return index + 1;
+            }
+        }
+    }
+
+    // Re-reads the file to pick up scores other processes wrote, keeping anything not yet saved
+    public void refresh() {
+        if (file == null || !file.toFile().exists()) return;
+        synchronized (fileLock) {
+            try {
+                replaceBoard(read(file));
+            } catch (IOException e) {
+                System.err.println("Error loading top scores from file: " + e.getMessage());
+            }
+        }
+    }
+
+    // Writes unsaved entries until there are none left; returns at once if another thread is writing.
+    // A batch that could not be written goes back to unsaved for the next submit to retry.
+    private void flush() {
+        boolean failed = false;
+        while (!failed && !unsaved.isEmpty() && writing.compareAndSet(false, true)) {
+            try {
+                synchronized (fileLock) { // Otherwise a refresh could see the batch neither in unsaved nor on disk
+                    List<ScoreEntry> batch = new ArrayList<>();
+                    for (ScoreEntry entry = unsaved.poll(); entry != null; entry = unsaved.poll()) batch.add(entry);
+                    try {
+                        replaceBoard(mergeIntoFile(batch));
+                    } catch (IOException e) {
+                        System.err.println("Error saving top scores to file: " + e.getMessage());
+                        unsaved.addAll(batch);
+                        failed = true;
+                    }
+                }
+            } finally {
+                writing.set(false);
+            }
+            // Loop again in case an entry arrived after the last poll but before the flag was cleared
+        }
+    }
+
+    // Caller holds fileLock
+    private List<ScoreEntry> mergeIntoFile(List<ScoreEntry> entries) throws IOException {
+        Path lockFile = file.resolveSibling(file.getFileName() + ".lock");
+        try (FileChannel lock = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            lock.lock(); // Released when the channel closes
+            List<ScoreEntry> merged = read(file);
+            merged.addAll(entries);
+            Collections.sort(merged);
+            while (merged.size() > capacity) merged.remove(merged.size() - 1);
+
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                 ObjectOutputStream oos = new ObjectOutputStream(Channels.newOutputStream(out))) {
+                oos.writeObject(new ArrayList<>(merged)); // Same format as before, so older versions can still read it
+                oos.flush();
+                out.force(false);
+            }
+            try {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return merged;
+        }
+    }
+
+    // The file's list, or an empty one for a missing or unreadable file
+    @SuppressWarnings("unchecked")
+    private static List<ScoreEntry> read(Path file) throws IOException {
+        if (!Files.exists(file)) return new ArrayList<>();
+        byte[] bytes = Files.readAllBytes(file);
+        if (bytes.length == 0) return new ArrayList<>();
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            List<ScoreEntry> list = (List<ScoreEntry>) ois.readObject();
+            return list == null ? new ArrayList<>() : new ArrayList<>(list);
+        } catch (ClassNotFoundException | ClassCastException e) {
+            System.err.println("Top scores file is unreadable, starting a new list: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    // Takes the file's view as the new board, plus entries submitted here that it does not hold yet
+    private void replaceBoard(List<ScoreEntry> fromFile) {
+        while (true) {
+            List<ScoreEntry> current = board.get();
+            List<ScoreEntry> next = new ArrayList<>(fromFile);
+            next.addAll(unsaved);
+            Collections.sort(next);
+            while (next.size() > capacity) next.remove(next.size() - 1);
+            if (board.compareAndSet(current, Collections.unmodifiableList(next))) return;
+        }
+    }
+
+    // Where the entry would go in a sorted list; equal entries keep arrival order
+    private static int insertionIndex(List<ScoreEntry> sorted, ScoreEntry entry) {
+        int index = sorted.size();
+        while (index > 0 && entry.compareTo(sorted.get(index - 1)) < 0) index--;
+        return index;
+    }
+}
@@ -12,7 +12,7 @@ public class Empty implements Item {
     @Override public String interact(Player player, GameEngine engine) { return "You move into an empty space."; }
     @Override
     public String getIconPath() {
-        return "/dungeon/gui/icons/empty_icon.png";
+        return "/gui/icons/empty_icon.png";
     }
 
 
@@ -12,6 +12,6 @@ public class Entry implements Item {
     @Override public String interact(Player player, GameEngine engine) { return "You are at the entry point."; }
     @Override
     public String getIconPath() {
-        return "/dungeon/gui/icons/entry_icon.png";
+        return "/gui/icons/entry_icon.png";
     }
 }
\ No newline at end of file
@@ -6,18 +6,19 @@ import dungeon.engine.Player;
 
 public class Gold implements Item {
     private static final long serialVersionUID = 105L;
-    private final int value = 2;
+    public static final int VALUE = 2;
+    private final int value = VALUE;
     @Override public char getSymbol() { return 'G'; }
     @Override public String getDescription() { return "shining gold"; }
     @Override public boolean isPassable() { return true; }
     @Override public String interact(Player player, GameEngine engine) {
         player.addScore(value);
-        engine.removeItemFromMap(player.getPosition());
+        engine.removeItemFromMap(player.getX(), player.getY());
         return "You picked up gold. (+" + value + " score)";
     }
     @Override
     public String getIconPath() {
-        return "/dungeon/gui/icons/gold_icon.png";
+        return "/gui/icons/gold_icon.png";
     }
 }
 
@@ -19,6 +19,6 @@ public class Ladder implements Item {
     }
     @Override
     public String getIconPath() {
-        return "/dungeon/gui/icons/ladder_icon.png";
+        return "/gui/icons/ladder_icon.png";
     }
 }
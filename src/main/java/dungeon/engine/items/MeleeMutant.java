@@ -1,25 +1,39 @@
 package dungeon.engine.items;
 
+import dungeon.engine.EntityStore;
 import dungeon.engine.GameEngine;
+import dungeon.engine.GameMap;
 import dungeon.engine.Item;
 import dungeon.engine.Player;
 
 public class MeleeMutant implements Item {
     private static final long serialVersionUID = 108L;
-    private final int damage = 2;
-    private final int scoreValue = 2;
+    public static final int DAMAGE = 2;
+    public static final int SCORE_VALUE = 2;
+    private final int damage = DAMAGE;
+    private final int scoreValue = SCORE_VALUE;
     @Override public char getSymbol() { return 'M'; }
     @Override public String getDescription() { return "a fearsome melee mutant"; }
     @Override public boolean isPassable() { return true; }
     @Override public String interact(Player player, GameEngine engine) {
-        player.takeDamage(damage);
+        int taken = fightDamage(engine.getMap(), player.getX(), player.getY());
+        player.takeDamage(taken);
         player.addScore(scoreValue);
-        engine.removeItemFromMap(player.getPosition());
-        return "You defeated a melee mutant! (-" + damage + " HP, +" + scoreValue + " score)";
+        engine.removeItemFromMap(player.getX(), player.getY());
+        return "You defeated a melee mutant! (-" + taken + " HP, +" + scoreValue + " score)";
+    }
+
+    // HP the player loses defeating the mutant on (x, y): the player deals 1 damage a round and takes
+    // DAMAGE a round, so it depends on the mutant's HP in the map's EntityStore. Mutants start with
+    // 1 HP, which BatchEngine and OutcomeCalculator assume.
+    public static int fightDamage(GameMap map, int x, int y) {
+        int id = map.getEntityId(x, y);
+        int rounds = id == EntityStore.NONE ? 1 : Math.max(1, map.getEntities().getHp(id));
+        return DAMAGE * rounds;
     }
     @Override
     public String getIconPath() {
-        return "/dungeon/gui/icons/ladder_icon.png";
+        return "/gui/icons/meleemutant_icon.png";
     }
 }
 
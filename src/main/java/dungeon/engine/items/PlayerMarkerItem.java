@@ -11,6 +11,6 @@ public class PlayerMarkerItem implements Item {
     @Override public boolean isPassable() { return true; } // Player can be on their own spot
     @Override public String interact(Player player, GameEngine engine) { return "It's you!"; } // Should ideally not be "interacted" with
     @Override public String getIconPath()
-    { return "/dungeon/gui/icons/player_icon.png";}
+    { return "/gui/icons/player_icon.png";}
 }
 
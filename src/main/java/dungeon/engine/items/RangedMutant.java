@@ -1,6 +1,8 @@
 package dungeon.engine.items;
 
+import dungeon.engine.EntityStore;
 import dungeon.engine.GameEngine;
+import dungeon.engine.GameMap;
 import dungeon.engine.Item;
 import dungeon.engine.Player;
 
@@ -9,17 +11,31 @@ public class RangedMutant implements Item {
     public static final int RANGED_ATTACK_DAMAGE = 2;
     public static final int RANGED_ATTACK_RANGE = 2;
     public static final double RANGED_ATTACK_HIT_CHANCE = 0.5;
-    private final int scoreValue = 2;
+    public static final int SCORE_VALUE = 2;
+    public static final int SHOT_INTERVAL = 1; // Turns between shots; BatchEngine and OutcomeCalculator assume every turn
+    private final int scoreValue = SCORE_VALUE;
     @Override public char getSymbol() { return 'R'; }
     @Override public String getDescription() { return "a cunning ranged mutant"; }
     @Override public boolean isPassable() { return true; }
     @Override public String interact(Player player, GameEngine engine) {
         player.addScore(scoreValue);
-        engine.removeItemFromMap(player.getPosition());
+        engine.removeItemFromMap(player.getX(), player.getY());
         return "You attacked and defeated a ranged mutant directly! (+" + scoreValue + " score)";
     }
+
+    // Whether the mutant on (x, y) may shoot on this turn; if so, its cooldown in the map's EntityStore
+    // is set to the turn it may shoot again. Turns must increase by at least one per move.
+    public static boolean readyToFire(GameMap map, int x, int y, int turn) {
+        int id = map.getEntityId(x, y);
+        if (id == EntityStore.NONE) return true;
+        EntityStore entities = map.getEntities();
+        if (entities.getCooldown(id) > turn) return false;
+        entities.setCooldown(id, turn + SHOT_INTERVAL);
+        return true;
+    }
+
     @Override
     public String getIconPath() {
-        return "/dungeon/gui/icons/rangedmutant_icon.png";
+        return "/gui/icons/rangedmutant_icon.png";
     }
 }
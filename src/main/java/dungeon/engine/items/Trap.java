@@ -6,7 +6,8 @@ import dungeon.engine.Player;
 
 public class Trap implements Item {
     private static final long serialVersionUID = 107L;
-    private final int damage = 2;
+    public static final int DAMAGE = 2;
+    private final int damage = DAMAGE;
     @Override public char getSymbol() { return 'T'; }
     @Override public String getDescription() { return "a hidden trap"; }
     @Override public boolean isPassable() { return true; }
@@ -16,7 +17,7 @@ public class Trap implements Item {
     }
     @Override
     public String getIconPath() {
-        return "/dungeon/gui/icons/trap_icon.png";}
+        return "/gui/icons/trap_icon.png";}
     }
 
 
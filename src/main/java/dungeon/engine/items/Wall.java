@@ -12,6 +12,6 @@ public class Wall implements Item {
     @Override public String interact(Player player, GameEngine engine) { return "You bumped into a wall."; }
     @Override
     public String getIconPath() {
-        return "/dungeon/gui/icons/wall_icon.png";
+        return "/gui/icons/wall_icon.png";
     }
 }
@@ -1,48 +1,88 @@
 package dungeon.gui;
 
-import dungeon.engine.Cell;
 import dungeon.engine.Direction;
+import dungeon.engine.EngineLoop;
 import dungeon.engine.GameEngine;
 import dungeon.engine.GameState;
-import dungeon.engine.Item;
-import dungeon.engine.Player;
-import dungeon.engine.Position;
+import dungeon.engine.RenderSnapshot;
+import dungeon.engine.SaveSlotStore;
+import dungeon.engine.TileType;
 import dungeon.engine.ScoreEntry;
 
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.ChoiceDialog;
 import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
 import javafx.scene.control.ListView;
-import javafx.scene.control.TextArea;
 import javafx.scene.control.TextInputDialog;
+import javafx.scene.image.ImageView;
+import javafx.scene.input.KeyEvent;
 import javafx.scene.layout.GridPane;
-// Note: Imports for Image, ImageView, InputStream, StackPane, Text are NOT needed for this text-symbol version.
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 public class Controller {
 
     // FXML Injected Fields (must match fx:id in your FXML file)
-    @FXML private GridPane gameGridPane;
-    @FXML private Label hpLabel;
-    @FXML private Label scoreLabel;
-    @FXML private Label stepsLabel;
-    @FXML private Button upButton;
-    @FXML private Button downButton;
-    @FXML private Button leftButton;
-    @FXML private Button rightButton;
-    @FXML private Button newGameButton;
-    @FXML private Button saveButton;
-    @FXML private Button loadButton;
-    @FXML private Button helpButton;
-    @FXML private TextArea statusTextArea;
-    @FXML private ListView<String> topScoresListView;
-
-    private GameEngine engine;
-    private Player player; // Instance variable to hold the current player
+    // Package-private so GameScene can set them when the scene is built in code instead
+    @FXML GridPane gameGridPane;
+    @FXML Label hpLabel;
+    @FXML Label scoreLabel;
+    @FXML Label stepsLabel;
+    @FXML Button upButton;
+    @FXML Button downButton;
+    @FXML Button leftButton;
+    @FXML Button rightButton;
+    @FXML Button newGameButton;
+    @FXML Button saveButton;
+    @FXML Button loadButton;
+    @FXML Button helpButton;
+    @FXML CheckBox endlessCheckBox;
+    @FXML CheckBox fogCheckBox;
+    @FXML CheckBox mobileCheckBox;
+    @FXML CheckBox iconsCheckBox;
+    @FXML ListView<String> statusListView;
+    @FXML ListView<String> topScoresListView;
+
+    // The engine lives on its own thread; this controller only sends it commands and draws its snapshots
+    private EngineLoop engineLoop;
+    private RenderSnapshot rendered; // Snapshot currently on screen
+    private boolean gameOverShown; // End of the current game already reported
     private static final int CELL_SIZE = 40; // Used for Label preferred size, adjust if needed
+    static final int ICON_SIZE = CELL_SIZE - 6; // Leaves room for the cell border
+    private static final int MAX_QUEUED_MOVES = 16;
+    private final ArrayDeque<Direction> pendingMoves = new ArrayDeque<>(MAX_QUEUED_MOVES);
+    private final AnimationTimer frameTimer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            drainPendingMoves();
+            renderLatest();
+            if (gameLog.flush()) statusListView.scrollTo(gameLog.size() - 1);
+        }
+    };
+    // Only the newest messages are kept, and the list view only builds cells for the rows on screen
+    private final GameLog gameLog = new GameLog(GameLog.DEFAULT_CAPACITY);
+    private Label[] cellLabels; // Grid cells, reused while the map size stays the same
+    private ImageView[] cellIcons;
+    private int gridWidth;
+    private int gridHeight;
+    private static final Path SAVE_SLOTS_FILE = Paths.get("minidungeon_slots.dat");
+    private static final String NEW_SLOT_CHOICE = "New slot";
+    private static final DateTimeFormatter SLOT_TIME_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
 
     public Controller() {
         // System.out.println("Controller constructor called.");
@@ -51,11 +91,43 @@ public class Controller {
     @FXML
     public void initialize() {
         // System.out.println("Controller initialize called.");
-        engine = new GameEngine();
-        promptForDifficultyAndStartGame();
+        // The engine thread picks up the warmed-up engine; ask for the difficulty once the window is showing
+        engineLoop = new EngineLoop(RunGame::takeWarmedUpEngine);
+        statusListView.setItems(gameLog);
+        statusListView.setCellFactory(list -> new ListCell<String>() {
+            { setWrapText(true); setPrefWidth(0); } // Follow the list's width so long messages wrap
+
+            @Override
+            protected void updateItem(String message, boolean empty) {
+                super.updateItem(message, empty);
+                setText(empty ? null : message);
+            }
+        });
+        Platform.runLater(this::promptForDifficultyAndStartGame);
+
+        // Arrow keys and WASD move the player; the filter sees them before buttons use arrows for focus
+        gameGridPane.sceneProperty().addListener((observable, oldScene, newScene) -> {
+            if (newScene != null) newScene.addEventFilter(KeyEvent.KEY_PRESSED, this::handleKeyPressed);
+        });
+        frameTimer.start();
+    }
+
+    private void handleKeyPressed(KeyEvent event) {
+        Direction direction;
+        switch (event.getCode()) {
+            case UP: case W: case KP_UP: direction = Direction.UP; break;
+            case DOWN: case S: case KP_DOWN: direction = Direction.DOWN; break;
+            case LEFT: case A: case KP_LEFT: direction = Direction.LEFT; break;
+            case RIGHT: case D: case KP_RIGHT: direction = Direction.RIGHT; break;
+            default: return;
+        }
+        if (event.isShortcutDown() || event.isAltDown()) return;
+        event.consume();
+        processPlayerMove(direction);
     }
 
     private void promptForDifficultyAndStartGame() {
+        pendingMoves.clear();
         TextInputDialog dialog = new TextInputDialog("3");
         dialog.setTitle("New Game");
         dialog.setHeaderText("Welcome to MiniDungeon!");
@@ -69,99 +141,160 @@ public class Controller {
                 difficulty = Integer.parseInt(result.get());
                 difficulty = Math.max(0, Math.min(10, difficulty));
             } catch (NumberFormatException e) {
-                statusTextArea.appendText("Invalid difficulty format. Using default difficulty 3.\n");
+                gameLog.append("Invalid difficulty format. Using default difficulty 3.");
                 difficulty = 3;
             }
         } else {
-            statusTextArea.appendText("New game setup cancelled or no input. Using default difficulty 3.\n");
+            gameLog.append("New game setup cancelled or no input. Using default difficulty 3.");
         }
 
-        engine.startGame(difficulty);
-        this.player = engine.getPlayer();
-        if (this.player != null) {
-            this.player.setGameEngineContext(engine); // If your Player class uses this
-        }
-        statusTextArea.clear();
-        statusTextArea.appendText("New game started with difficulty: " + engine.getDifficultySetting() + ".\n");
-        updateGui();
+        boolean endless = endlessCheckBox != null && endlessCheckBox.isSelected();
+        boolean fog = fogCheckBox != null && fogCheckBox.isSelected();
+        boolean mobile = mobileCheckBox != null && mobileCheckBox.isSelected();
+        int chosenDifficulty = difficulty;
+        gameLog.clear();
+        gameOverShown = false;
+        engineLoop.submit(engine -> {
+            engine.setFogOfWar(fog);
+            engine.setMobileMutants(mobile);
+            engine.startGame(chosenDifficulty, endless); // Level generation happens on the engine thread
+            if (engine.getPlayer() != null) {
+                engine.getPlayer().setGameEngineContext(engine); // If your Player class uses this
+            }
+            engineLoop.post("New game started with difficulty: " + engine.getDifficultySetting()
+                    + (engine.isEndless() ? " (endless mode)" : "") + ".");
+        });
     }
 
-    private void updateGui() {
-        if (engine == null) {
-            statusTextArea.appendText("Critical Error: Game engine is not initialized.\n");
-            disableAllControls(true); return;
+    // Called every pulse: queues new status messages for the log, and redraws if the engine published a new snapshot
+    private void renderLatest() {
+        for (String message = engineLoop.pollMessage(); message != null; message = engineLoop.pollMessage()) {
+            gameLog.append(message);
         }
-        if (this.player == null) {
-            statusTextArea.appendText("Status: Player object not initialized.\n");
-            disableAllControls(true); if(gameGridPane != null) gameGridPane.getChildren().clear(); return;
-        }
-        if (engine.getMap() == null) {
-            statusTextArea.appendText("Critical Error: Game map is not initialized.\n");
+
+        RenderSnapshot snapshot = engineLoop.getLatest();
+        if (snapshot != null && snapshot != rendered) updateGui(snapshot);
+    }
+
+    private void updateGui(RenderSnapshot snapshot) {
+        rendered = snapshot;
+        if (!snapshot.hasGame()) {
             disableAllControls(true); if(gameGridPane != null) gameGridPane.getChildren().clear(); return;
         }
         disableAllControls(false);
 
-        hpLabel.setText("HP: " + this.player.getHp() + "/" + this.player.getMaxHp());
-        scoreLabel.setText("Score: " + this.player.getScore());
+        hpLabel.setText("HP: " + snapshot.getHp() + "/" + snapshot.getMaxHp());
+        scoreLabel.setText("Score: " + snapshot.getScore());
         int maxSteps = 100; // As per game spec
-        int stepsRemaining = maxSteps - this.player.getStepsTaken();
+        int stepsRemaining = maxSteps - snapshot.getStepsTaken();
         stepsLabel.setText("Steps Left: " + stepsRemaining);
 
-        gameGridPane.getChildren().clear();
-        for (int y = 0; y < engine.getMap().getHeight(); y++) {
-            for (int x = 0; x < engine.getMap().getWidth(); x++) {
-                Position currentCellPosition = new Position(x, y);
-                Cell cell = engine.getMap().getCell(currentCellPosition);
-                Item itemOnCell = (cell != null) ? cell.getItem() : new dungeon.engine.items.Empty();
-                if (itemOnCell == null) itemOnCell = new dungeon.engine.items.Empty();
+        ensureGridCells(snapshot.getWidth(), snapshot.getHeight());
+        IconAtlas atlas = (iconsCheckBox != null && iconsCheckBox.isSelected()) ? IconAtlas.getIfReady() : null;
+        for (int y = 0; y < snapshot.getHeight(); y++) {
+            for (int x = 0; x < snapshot.getWidth(); x++) {
+                byte tile = snapshot.getTile(x, y);
+                byte visibility = snapshot.getVisibility(x, y);
 
                 String symbolToShow;
-                if (this.player.getPosition().equals(currentCellPosition)) {
+                boolean shown = visibility != RenderSnapshot.HIDDEN;
+                boolean isPlayer = snapshot.isPlayerAt(x, y);
+                if (isPlayer) {
                     symbolToShow = "P"; // Player symbol
+                } else if (!shown) {
+                    symbolToShow = ""; // Never seen: hidden by fog of war
                 } else {
-                    symbolToShow = String.valueOf(itemOnCell.getSymbol());
+                    symbolToShow = String.valueOf(TileType.symbol(tile));
                 }
 
-                Label cellTextLabel = new Label(symbolToShow);
-                cellTextLabel.setPrefSize(CELL_SIZE, CELL_SIZE);
+                // Cells are reused between updates; only their content and style change
+                int index = y * gridWidth + x;
+                Label cellTextLabel = cellLabels[index];
+                if (atlas != null && shown) {
+                    atlas.apply(cellIcons[index], isPlayer ? TileType.PLAYER : tile);
+                    cellTextLabel.setGraphic(cellIcons[index]);
+                    cellTextLabel.setText("");
+                } else {
+                    cellTextLabel.setGraphic(null);
+                    cellTextLabel.setText(symbolToShow);
+                }
                 cellTextLabel.setStyle("-fx-alignment: center; -fx-font-weight: bold; -fx-border-color: #CCCCCC; -fx-font-size: 14px;");
                 // Example of changing color for player:
                 if (symbolToShow.equals("P")) {
                     cellTextLabel.setStyle("-fx-alignment: center; -fx-font-weight: bold; -fx-border-color: #CCCCCC; -fx-text-fill: blue; -fx-font-size: 16px;");
+                } else if (!shown) {
+                    cellTextLabel.setStyle("-fx-alignment: center; -fx-border-color: #CCCCCC; -fx-background-color: #222222;");
+                } else if (visibility == RenderSnapshot.REMEMBERED) {
+                    // Remembered but out of sight: dimmed
+                    cellTextLabel.setStyle("-fx-alignment: center; -fx-font-weight: bold; -fx-border-color: #CCCCCC; -fx-text-fill: #888888; -fx-background-color: #555555; -fx-font-size: 14px;");
                 }
-                gameGridPane.add(cellTextLabel, x, y);
+                cellIcons[index].setOpacity(visibility == RenderSnapshot.REMEMBERED ? 0.5 : 1.0);
             }
         }
 
-        updateTopScoresView();
+        updateTopScoresView(snapshot);
 
-        if (engine.isGameOver()) {
+        if (snapshot.isGameOver()) {
             disableMovementButtons(true);
+            if (gameOverShown) return; // Reported once per game, not on every redraw
+            gameOverShown = true;
             String endMessage = "GAME OVER! ";
-            if (engine.getGameState() == GameState.WIN_GAME) {
-                endMessage += "You escaped the dungeon! Final Score: " + this.player.getScore();
-                if (this.player.getScore() > 0) {
-                    boolean isNewTopScore = engine.getTopScores().stream()
-                            .anyMatch(se -> se.getScore() == this.player.getScore() &&
-                                    se.getDate().equals(java.time.LocalDate.now()));
-                    if (isNewTopScore) { // This check is a bit simplistic for "new" top score.
-                        // A better check would be if this score IS NOW in the top 5
-                        // and wasn't there before, or if it displaced a lower score.
-                        // The engine's addScoreToTopList should handle the logic of adding it.
-                        showCongratulatoryMessage("Congratulations! Your score of " + this.player.getScore() + " is a Top 5 score!");
-                    }
-                }
-            } else if (engine.getGameState() == GameState.LOSE_HP) {
+            if (snapshot.getGameState() == GameState.WIN_GAME) {
+                endMessage += "You escaped the dungeon! Final Score: " + snapshot.getScore();
+                endMessage += String.format(" (better than or equal to %.0f%% of %d recorded games)",
+                        snapshot.getScorePercentile(), snapshot.getRecordedGames());
+            } else if (snapshot.getGameState() == GameState.LOSE_HP) {
                 endMessage += "Your HP reached 0.";
-            } else if (engine.getGameState() == GameState.LOSE_STEPS) {
+            } else if (snapshot.getGameState() == GameState.LOSE_STEPS) {
                 endMessage += "You ran out of steps.";
             }
-            statusTextArea.appendText(endMessage + "\n");
+            gameLog.append(endMessage);
+            int rank = snapshot.getLastScoreRank(); // Set by the engine when it added the score (endless runs can place too)
+            if (rank > 0) {
+                // Shown after this pulse; showAndWait is not allowed while an animation is being processed
+                String message = "Congratulations! Your score of " + snapshot.getScore() + " is #" + rank + " in the Top 5!";
+                Platform.runLater(() -> showCongratulatoryMessage(message));
+            }
         } else {
+            gameOverShown = false;
             disableMovementButtons(false);
         }
     }
 
+    // Creates the grid's labels and icon views once per map size, instead of on every update
+    private void ensureGridCells(int width, int height) {
+        if (cellLabels != null && width == gridWidth && height == gridHeight) return;
+        gridWidth = width;
+        gridHeight = height;
+        cellLabels = new Label[width * height];
+        cellIcons = new ImageView[width * height];
+        gameGridPane.getChildren().clear();
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                Label label = new Label();
+                label.setPrefSize(CELL_SIZE, CELL_SIZE);
+                cellLabels[y * width + x] = label;
+                cellIcons[y * width + x] = new ImageView();
+                gameGridPane.add(label, x, y);
+            }
+        }
+    }
+
+    @FXML
+    void handleIconsToggle() {
+        if (iconsCheckBox.isSelected()) {
+            // Redraw once the atlas is ready if it is still loading
+            IconAtlas.preload(ICON_SIZE).thenRun(() -> Platform.runLater(this::redraw));
+        } else {
+            redraw();
+        }
+    }
+
+    // Draws the current snapshot again, e.g. after a display setting changed
+    private void redraw() {
+        if (rendered != null) updateGui(rendered);
+    }
+
     private void showCongratulatoryMessage(String message) {
         Alert alert = new Alert(Alert.AlertType.INFORMATION);
         alert.setTitle("High Score!");
@@ -179,15 +312,11 @@ public class Controller {
         // if (helpButton != null) helpButton.setDisable(disable); // Help usually stays enabled
     }
 
-    private void updateTopScoresView() {
+    private void updateTopScoresView(RenderSnapshot snapshot) {
         topScoresListView.getItems().clear();
-        if (engine != null) {
-            List<ScoreEntry> scores = engine.getTopScores(); // Assumes this list is managed by engine
-            if (scores != null) {
-                for (int i = 0; i < scores.size(); i++) {
-                    topScoresListView.getItems().add("#" + (i + 1) + " " + scores.get(i).toString());
-                }
-            }
+        List<ScoreEntry> scores = snapshot.getTopScores();
+        for (int i = 0; i < scores.size(); i++) {
+            topScoresListView.getItems().add("#" + (i + 1) + " " + scores.get(i).toString());
         }
     }
 
@@ -198,57 +327,153 @@ public class Controller {
         if (rightButton != null) rightButton.setDisable(disable);
     }
 
+    // Moves from keys and buttons are queued and sent to the engine on the next pulse, so a burst of input costs one redraw
     private void processPlayerMove(Direction direction) {
-        if (engine != null && !engine.isGameOver() && this.player != null) {
-            String message = engine.processMove(direction);
-            statusTextArea.appendText(message + "\n"); // Append message to status area
-            updateGui(); // Refresh the entire GUI
+        RenderSnapshot snapshot = engineLoop.getLatest();
+        if (snapshot != null && snapshot.hasGame() && !snapshot.isGameOver()
+                && pendingMoves.size() + engineLoop.getQueuedMoves() < MAX_QUEUED_MOVES) {
+            pendingMoves.add(direction); // Moves beyond the limit (e.g. a held key outrunning the game) are dropped
         }
     }
 
+    // Hands every queued move to the engine thread as one batch; it publishes one snapshot when done
+    private void drainPendingMoves() {
+        if (pendingMoves.isEmpty()) return;
+        engineLoop.move(new ArrayList<>(pendingMoves));
+        pendingMoves.clear();
+    }
+
     // Event Handlers for FXML Buttons
-    @FXML private void handleMoveUp() { processPlayerMove(Direction.UP); }
-    @FXML private void handleMoveDown() { processPlayerMove(Direction.DOWN); }
-    @FXML private void handleMoveLeft() { processPlayerMove(Direction.LEFT); }
-    @FXML private void handleMoveRight() { processPlayerMove(Direction.RIGHT); }
+    @FXML void handleMoveUp() { processPlayerMove(Direction.UP); }
+    @FXML void handleMoveDown() { processPlayerMove(Direction.DOWN); }
+    @FXML void handleMoveLeft() { processPlayerMove(Direction.LEFT); }
+    @FXML void handleMoveRight() { processPlayerMove(Direction.RIGHT); }
 
     @FXML
-    private void handleNewGame() {
+    void handleFogToggle() {
+        boolean fog = fogCheckBox.isSelected();
+        engineLoop.submit(engine -> engine.setFogOfWar(fog));
+    }
+
+    @FXML
+    void handleMobileToggle() {
+        boolean mobile = mobileCheckBox.isSelected();
+        engineLoop.submit(engine -> engine.setMobileMutants(mobile));
+    }
+
+    @FXML
+    void handleNewGame() {
         promptForDifficultyAndStartGame();
     }
 
     @FXML
-    private void handleSaveGame() {
-        if (engine != null && engine.getGameState() == GameState.IN_PROGRESS) {
-            engine.saveGame();
-            statusTextArea.appendText("Game saved.\n");
-        } else {
-            statusTextArea.appendText("No active game to save, or game is over.\n");
+    void handleSaveGame() {
+        RenderSnapshot snapshot = engineLoop.getLatest();
+        if (snapshot == null || !snapshot.hasGame() || snapshot.getGameState() != GameState.IN_PROGRESS) {
+            gameLog.append("No active game to save, or game is over.");
+            return;
+        }
+        List<SaveSlotStore.SlotInfo> slots;
+        try (SaveSlotStore store = new SaveSlotStore(SAVE_SLOTS_FILE)) {
+            slots = store.listSlots(); // Reads only the index
+        } catch (IOException e) {
+            gameLog.append("Error saving game: " + e.getMessage());
+            return;
         }
+        List<String> choices = new ArrayList<>();
+        choices.add(NEW_SLOT_CHOICE);
+        for (SaveSlotStore.SlotInfo info : slots) choices.add("Overwrite " + describeSlot(info));
+
+        ChoiceDialog<String> dialog = new ChoiceDialog<>(NEW_SLOT_CHOICE, choices);
+        dialog.setTitle("Save Game");
+        dialog.setHeaderText("Choose a save slot");
+        dialog.setContentText("Slot:");
+        Optional<String> choice = dialog.showAndWait();
+        if (!choice.isPresent()) return;
+
+        int index = choices.indexOf(choice.get());
+        int chosenSlot = index <= 0 ? -1 : slots.get(index - 1).slot();
+        // Serializing and writing the game happens on the engine thread, after any moves already sent
+        engineLoop.submit(engine -> {
+            try (SaveSlotStore store = new SaveSlotStore(SAVE_SLOTS_FILE)) {
+                int slot = chosenSlot < 0 ? store.firstFreeSlot() : chosenSlot;
+                if (slot < 0) {
+                    engineLoop.post("All " + SaveSlotStore.MAX_SLOTS + " save slots are in use. Overwrite one instead.");
+                    return;
+                }
+                store.save(slot, engine);
+                engineLoop.post("Game saved to slot " + (slot + 1) + ".");
+            } catch (IOException e) {
+                engineLoop.post("Error saving game: " + e.getMessage());
+            }
+        });
     }
 
     @FXML
-    private void handleLoadGame() {
-        GameEngine loadedEngine = GameEngine.loadGame(); // This is a static method in GameEngine
-        if (loadedEngine != null) {
-            engine = loadedEngine; // Replace current engine instance
-            this.player = engine.getPlayer(); // CRITICAL: Update the controller's player field
-            if (this.player != null) {
-                this.player.setGameEngineContext(engine);
+    void handleLoadGame() {
+        List<SaveSlotStore.SlotInfo> slots;
+        try (SaveSlotStore store = new SaveSlotStore(SAVE_SLOTS_FILE)) {
+            slots = store.listSlots();
+        } catch (IOException e) {
+            gameLog.append("Error loading game: " + e.getMessage());
+            return;
+        }
+        int chosenSlot = -1; // No slots: fall back to the single save from older versions
+        if (!slots.isEmpty()) {
+            List<String> choices = new ArrayList<>();
+            for (SaveSlotStore.SlotInfo info : slots) choices.add(describeSlot(info));
+            ChoiceDialog<String> dialog = new ChoiceDialog<>(choices.get(0), choices);
+            dialog.setTitle("Load Game");
+            dialog.setHeaderText("Choose a saved game");
+            dialog.setContentText("Slot:");
+            Optional<String> choice = dialog.showAndWait();
+            if (!choice.isPresent()) return;
+            chosenSlot = slots.get(choices.indexOf(choice.get())).slot();
+        }
+        pendingMoves.clear(); // Queued moves were meant for the old game
+        int slot = chosenSlot;
+        engineLoop.replace(current -> {
+            GameEngine loadedEngine = null;
+            if (slot < 0) {
+                loadedEngine = GameEngine.loadGame();
             } else {
-                statusTextArea.appendText("Error: Loaded game has no player object.\n");
-                disableAllControls(true);
-                return;
+                try (SaveSlotStore store = new SaveSlotStore(SAVE_SLOTS_FILE)) {
+                    loadedEngine = store.load(slot); // Maps only that slot's data
+                } catch (IOException e) {
+                    engineLoop.post("Error loading game: " + e.getMessage());
+                }
             }
-            statusTextArea.appendText("Game loaded successfully.\n");
-            updateGui();
-        } else {
-            statusTextArea.appendText("Failed to load game. No save file found or error during loading.\n");
-        }
+            if (loadedEngine == null) {
+                engineLoop.post("Failed to load game. No save file found or error during loading.");
+            } else if (loadedEngine.getPlayer() == null) {
+                engineLoop.post("Error: Loaded game has no player object.");
+                return null;
+            } else {
+                loadedEngine.getPlayer().setGameEngineContext(loadedEngine);
+                engineLoop.post("Game loaded successfully.");
+            }
+            return loadedEngine;
+        }).thenAccept(loaded -> {
+            if (loaded != null) Platform.runLater(() -> syncOptions(engineLoop.getLatest()));
+        });
+    }
+
+    // A loaded game brings its own options, so the checkboxes show those instead of what was ticked before
+    private void syncOptions(RenderSnapshot snapshot) {
+        if (snapshot == null || !snapshot.hasGame()) return;
+        if (endlessCheckBox != null) endlessCheckBox.setSelected(snapshot.isEndless());
+        if (fogCheckBox != null) fogCheckBox.setSelected(snapshot.isFogOfWar());
+        if (mobileCheckBox != null) mobileCheckBox.setSelected(snapshot.isMobileMutants());
+    }
+
+    private static String describeSlot(SaveSlotStore.SlotInfo info) {
+        String savedAt = SLOT_TIME_FORMAT.format(Instant.ofEpochMilli(info.savedAtMillis()).atZone(ZoneId.systemDefault()));
+        return "Slot " + (info.slot() + 1) + ": Level " + info.level() + ", HP " + info.hp() + ", Score " + info.score()
+                + ", Steps " + info.steps() + ", Difficulty " + info.difficulty() + " (" + savedAt + ")";
     }
 
     @FXML
-    private void handleHelp() {
+    void handleHelp() {
         Alert alert = new Alert(Alert.AlertType.INFORMATION);
         alert.setTitle("MiniDungeon Help");
         alert.setHeaderText("How to Play MiniDungeon");
@@ -266,6 +491,11 @@ public class Controller {
                 + "  M: Melee Mutant (fight: -2 HP, +2 score, defeated)\n"
                 + "  R: Ranged Mutant (attacks from 2 tiles, 50% chance, -2 HP per hit. Stepping on it: +2 score, no HP loss, defeated)\n\n"
                 + "You have a maximum of 100 steps per level. Max HP is 10.\n"
+                + "Fog of war: you only see what is in line of sight (walls block it); tiles you have seen stay dimmed on the map.\n"
+                + "Keyboard: arrow keys or W/A/S/D move the player.\n"
+                + "Icons: show item icons instead of letters on the map.\n"
+                + "Moving mutants: mutants near you move after each of your moves. Melee mutants chase you, ranged mutants keep their distance and try to line up a shot.\n"
+                + "Endless mode: the dungeon never ends and gets harder on every level. Your run ends when HP or steps run out, and you keep your score.\n"
                 + "Good luck, adventurer!";
         alert.setContentText(helpContent);
         alert.getDialogPane().setMinWidth(500); // Make dialog wider
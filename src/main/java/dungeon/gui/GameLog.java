@@ -0,0 +1,87 @@
+package dungeon.gui;
+
+import javafx.collections.ObservableListBase;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Status messages for the log view, kept in a fixed-size ring: once it is full, each new message
+ * replaces the oldest. Messages are queued by append and shown together on the next flush (once per
+ * frame), so the ListView hears about one change per frame however many messages arrived. Memory
+ * stays at most two rings of messages however long the game runs. Used on the FX thread only.
+ */
+final class GameLog extends ObservableListBase<String> {
+    static final int DEFAULT_CAPACITY = 500;
+
+    private final String[] ring;
+    private int head; // Index of the oldest message shown
+    private int size;
+    private final ArrayDeque<String> pending;
+
+    GameLog(int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be at least 1: " + capacity);
+        ring = new String[capacity];
+        pending = new ArrayDeque<>(capacity);
+    }
+
+    // Queues a message for the next flush; if more than a ring's worth are waiting, the oldest is never shown
+    void append(String message) {
+        if (pending.size() == ring.length) pending.pollFirst();
+        pending.addLast(message);
+    }
+
+    // Shows every queued message as one change, dropping the oldest shown ones to make room; false if none were queued
+    boolean flush() {
+        if (pending.isEmpty()) return false;
+        beginChange();
+        try {
+            int evict = Math.max(0, size + pending.size() - ring.length);
+            if (evict > 0) {
+                List<String> removed = new ArrayList<>(evict);
+                for (int i = 0; i < evict; i++) {
+                    removed.add(ring[head]);
+                    ring[head] = null;
+                    head = (head + 1) % ring.length;
+                }
+                size -= evict;
+                nextRemove(0, removed);
+            }
+            int from = size;
+            for (String message = pending.pollFirst(); message != null; message = pending.pollFirst()) {
+                ring[(head + size) % ring.length] = message;
+                size++;
+            }
+            nextAdd(from, size);
+        } finally {
+            endChange();
+        }
+        return true;
+    }
+
+    // Drops shown and queued messages, e.g. when a new game starts
+    @Override
+    public void clear() {
+        pending.clear();
+        if (size == 0) return;
+        beginChange();
+        try {
+            nextRemove(0, new ArrayList<>(this));
+            for (int i = 0; i < size; i++) ring[(head + i) % ring.length] = null;
+            head = 0;
+            size = 0;
+        } finally {
+            endChange();
+        }
+    }
+
+    @Override
+    public String get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+        return ring[(head + index) % ring.length];
+    }
+
+    @Override
+    public int size() { return size; }
+}
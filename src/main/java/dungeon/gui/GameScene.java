@@ -0,0 +1,133 @@
+package dungeon.gui;
+
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Parent;
+import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+
+/**
+ * Builds the same layout as game_gui.fxml directly in code and wires it to a Controller.
+ * This skips FXML parsing and its reflection at startup; the FXML file is still used with --fxml.
+ */
+final class GameScene {
+
+    private GameScene() { }
+
+    static Parent build(Controller controller) {
+        BorderPane root = new BorderPane();
+        root.setPrefSize(800, 600);
+        root.setTop(buildStatusBar(controller));
+
+        controller.gameGridPane = new GridPane();
+        controller.gameGridPane.setAlignment(Pos.CENTER);
+        controller.gameGridPane.setHgap(1.0);
+        controller.gameGridPane.setVgap(1.0);
+        controller.gameGridPane.setStyle("-fx-background-color: #444444;");
+        root.setCenter(controller.gameGridPane);
+
+        root.setRight(buildActionPanel(controller));
+        root.setLeft(buildInfoPanel(controller));
+
+        controller.initialize();
+        return root;
+    }
+
+    private static HBox buildStatusBar(Controller controller) {
+        controller.hpLabel = whiteLabel("HP: 10/10");
+        controller.scoreLabel = whiteLabel("Score: 0");
+        controller.stepsLabel = whiteLabel("Steps Left: 100");
+        HBox bar = new HBox(30.0, controller.hpLabel, controller.scoreLabel, controller.stepsLabel);
+        bar.setAlignment(Pos.CENTER);
+        bar.setPrefHeight(50.0);
+        bar.setStyle("-fx-background-color: #333333;");
+        bar.setPadding(new Insets(10.0, 0, 10.0, 0));
+        return bar;
+    }
+
+    private static VBox buildActionPanel(Controller controller) {
+        controller.upButton = button("Up", 100.0);
+        controller.upButton.setOnAction(e -> controller.handleMoveUp());
+        controller.leftButton = button("Left", 50.0);
+        controller.leftButton.setOnAction(e -> controller.handleMoveLeft());
+        controller.rightButton = button("Right", 50.0);
+        controller.rightButton.setOnAction(e -> controller.handleMoveRight());
+        controller.downButton = button("Down", 100.0);
+        controller.downButton.setOnAction(e -> controller.handleMoveDown());
+        HBox leftRight = new HBox(5.0, controller.leftButton, controller.rightButton);
+        leftRight.setAlignment(Pos.CENTER);
+
+        Label actionsLabel = boldLabel("Game Actions");
+        VBox.setMargin(actionsLabel, new Insets(20.0, 0, 0, 0));
+
+        controller.endlessCheckBox = new CheckBox("Endless mode");
+        controller.fogCheckBox = new CheckBox("Fog of war");
+        controller.fogCheckBox.setOnAction(e -> controller.handleFogToggle());
+        controller.mobileCheckBox = new CheckBox("Moving mutants");
+        controller.mobileCheckBox.setOnAction(e -> controller.handleMobileToggle());
+        controller.iconsCheckBox = new CheckBox("Icons");
+        controller.iconsCheckBox.setOnAction(e -> controller.handleIconsToggle());
+
+        controller.newGameButton = button("New Game", 100.0);
+        controller.newGameButton.setOnAction(e -> controller.handleNewGame());
+        controller.saveButton = button("Save Game", 100.0);
+        controller.saveButton.setOnAction(e -> controller.handleSaveGame());
+        controller.loadButton = button("Load Game", 100.0);
+        controller.loadButton.setOnAction(e -> controller.handleLoadGame());
+        controller.helpButton = button("Help", 100.0);
+        controller.helpButton.setOnAction(e -> controller.handleHelp());
+
+        VBox panel = new VBox(10.0, boldLabel("Movement"), controller.upButton, leftRight, controller.downButton,
+                actionsLabel, controller.endlessCheckBox, controller.fogCheckBox, controller.mobileCheckBox, controller.iconsCheckBox,
+                controller.newGameButton, controller.saveButton, controller.loadButton, controller.helpButton);
+        panel.setAlignment(Pos.TOP_CENTER);
+        panel.setPrefWidth(150.0);
+        panel.setStyle("-fx-background-color: #EEEEEE; -fx-border-color: #CCCCCC;");
+        panel.setPadding(new Insets(10.0));
+        return panel;
+    }
+
+    private static VBox buildInfoPanel(Controller controller) {
+        controller.topScoresListView = new ListView<>();
+        controller.topScoresListView.setPrefHeight(200.0);
+        controller.statusListView = new ListView<>();
+        controller.statusListView.setPrefHeight(150.0);
+
+        Label statusLabel = boldLabel("Status:");
+        VBox.setMargin(statusLabel, new Insets(10.0, 0, 0, 0));
+
+        VBox panel = new VBox(5.0, boldLabel("Top Scores"), controller.topScoresListView, statusLabel, controller.statusListView);
+        panel.setPrefWidth(200.0);
+        panel.setStyle("-fx-background-color: #F4F4F4; -fx-border-color: #CCCCCC;");
+        panel.setPadding(new Insets(10.0));
+        return panel;
+    }
+
+    private static Label boldLabel(String text) {
+        Label label = new Label(text);
+        label.setFont(Font.font("Arial", FontWeight.BOLD, 14.0));
+        return label;
+    }
+
+    private static Label whiteLabel(String text) {
+        Label label = boldLabel(text);
+        label.setTextFill(Color.WHITE);
+        return label;
+    }
+
+    private static Button button(String text, double width) {
+        Button button = new Button(text);
+        button.setMnemonicParsing(false);
+        button.setPrefWidth(width);
+        return button;
+    }
+}
@@ -0,0 +1,77 @@
+package dungeon.gui;
+
+import dungeon.engine.TileType;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+
+import java.net.URL;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Every item icon, decoded once at tile size and packed side by side into a single image,
+ * addressed by TileType code. Renderers point a reused ImageView at the atlas and change only
+ * its viewport, so drawing a tile never decodes or loads anything.
+ */
+final class IconAtlas {
+    private static CompletableFuture<IconAtlas> loading;
+
+    private final WritableImage image;
+    private final Rectangle2D[] viewports = new Rectangle2D[TileType.COUNT];
+
+    private IconAtlas(int tileSize) {
+        image = new WritableImage(tileSize * TileType.COUNT, tileSize);
+        PixelWriter writer = image.getPixelWriter();
+        for (byte type = 0; type < TileType.COUNT; type++) {
+            viewports[type] = new Rectangle2D(type * tileSize, 0, tileSize, tileSize);
+            String path = TileType.toItem(type).getIconPath(); // Each item knows its own icon
+            URL url = path == null ? null : IconAtlas.class.getResource(path);
+            if (url == null) {
+                System.err.println("Icon not found for " + TileType.symbol(type) + ": " + path);
+                continue;
+            }
+            // The source PNGs are large; decode them straight to tile size
+            Image icon = new Image(url.toExternalForm(), tileSize, tileSize, false, true);
+            if (icon.isError()) {
+                System.err.println("Could not load icon " + path + ": " + icon.getException());
+                continue;
+            }
+            writer.setPixels(type * tileSize, 0, tileSize, tileSize, icon.getPixelReader(), 0, 0);
+        }
+    }
+
+    // Starts building the atlas on a background thread; later calls return the same future
+    static synchronized CompletableFuture<IconAtlas> preload(int tileSize) {
+        if (loading == null) {
+            loading = new CompletableFuture<>();
+            CompletableFuture<IconAtlas> future = loading;
+            Thread loader = new Thread(() -> {
+                try {
+                    future.complete(new IconAtlas(tileSize));
+                } catch (RuntimeException e) {
+                    System.err.println("Icon atlas failed to load: " + e.getMessage());
+                    future.completeExceptionally(e);
+                }
+            }, "icon-atlas-loader");
+            loader.setDaemon(true);
+            loader.start();
+        }
+        return loading;
+    }
+
+    // The atlas if it has finished loading, otherwise null (callers fall back to text symbols)
+    static synchronized IconAtlas getIfReady() {
+        if (loading == null || !loading.isDone() || loading.isCompletedExceptionally()) return null;
+        return loading.join();
+    }
+
+    Image getImage() { return image; }
+
+    // Shows the icon for a tile type in a reused view
+    void apply(ImageView view, byte type) {
+        if (view.getImage() != image) view.setImage(image);
+        view.setViewport(viewports[type]);
+    }
+}
@@ -0,0 +1,140 @@
+package dungeon.engine;
+
+import dungeon.engine.items.Empty;
+import dungeon.engine.items.Entry;
+import dungeon.engine.items.Gold;
+import dungeon.engine.items.Ladder;
+import dungeon.engine.items.Trap;
+import dungeon.engine.items.Wall;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchEngineTest {
+
+    private GameEngine engine;
+    private BatchEngine batch;
+
+    @BeforeEach
+    void setUp() {
+        engine = new GameEngine();
+        engine.startGame(0); // Difficulty 0: no ranged mutants on level 1, so the level is deterministic
+        batch = new BatchEngine(4, 42L);
+    }
+
+    @Test
+    void resetAll_StartsEveryGameLikeStartGame() {
+        batch.resetAll(3);
+        for (int g = 0; g < batch.size(); g++) {
+            assertEquals(10, batch.getHp(g));
+            assertEquals(0, batch.getScore(g));
+            assertEquals(0, batch.getStepsTaken(g));
+            assertEquals(1, batch.getLevel(g));
+            assertEquals(0, batch.getPlayerX(g));
+            assertEquals(9, batch.getPlayerY(g));
+            assertEquals(GameState.IN_PROGRESS, batch.getGameState(g));
+            assertEquals(TileType.ENTRY, batch.getTile(g, 0, 9), "Entry should be bottom-left on level 1.");
+
+            int ladders = 0, gold = 0, ranged = 0;
+            for (int y = 0; y < 10; y++) {
+                for (int x = 0; x < 10; x++) {
+                    byte t = batch.getTile(g, x, y);
+                    if (t == TileType.LADDER) ladders++;
+                    if (t == TileType.GOLD) gold++;
+                    if (t == TileType.RANGED_MUTANT) ranged++;
+                }
+            }
+            assertEquals(1, ladders, "Exactly one ladder per level.");
+            assertEquals(5, gold, "Five gold per level.");
+            assertEquals(3, ranged, "Ranged mutant count follows difficulty.");
+        }
+    }
+
+    @Test
+    void step_MatchesGameEngineOnTheSameMap() {
+        GameMap map = engine.getMap();
+        // Clear the ladder from the start row so a fixed walk cannot hit the ladder and change level
+        for (int x = 0; x < 10; x++) {
+            if (map.getCell(x, 9).getItem() instanceof Ladder) map.setItemAt(new Position(x, 9), new Empty());
+        }
+        for (int g = 0; g < batch.size(); g++) batch.loadFrom(g, engine);
+
+        Direction[] walk = {Direction.RIGHT, Direction.RIGHT, Direction.RIGHT, Direction.LEFT, Direction.DOWN,
+                Direction.RIGHT, Direction.RIGHT, Direction.RIGHT, Direction.RIGHT, Direction.RIGHT, Direction.RIGHT};
+        Direction[] moves = new Direction[batch.size()];
+        for (Direction d : walk) {
+            engine.processMove(d);
+            java.util.Arrays.fill(moves, d);
+            batch.step(moves);
+            for (int g = 0; g < batch.size(); g++) {
+                assertEquals(engine.getPlayer().getHp(), batch.getHp(g), "HP should match after " + d);
+                assertEquals(engine.getPlayer().getScore(), batch.getScore(g), "Score should match after " + d);
+                assertEquals(engine.getPlayer().getStepsTaken(), batch.getStepsTaken(g), "Steps should match after " + d);
+                assertEquals(engine.getPlayer().getPosition().x(), batch.getPlayerX(g));
+                assertEquals(engine.getPlayer().getPosition().y(), batch.getPlayerY(g));
+                assertEquals(engine.getGameState(), batch.getGameState(g));
+            }
+        }
+        for (int y = 0; y < 10; y++) {
+            for (int x = 0; x < 10; x++) {
+                assertEquals(TileType.of(map.getCell(x, y).getItem()), batch.getTile(0, x, y), "Tile (" + x + "," + y + ") should match.");
+            }
+        }
+    }
+
+    @Test
+    void step_WallAndBoundaryBlockWithoutCostingAStep() {
+        GameMap map = engine.getMap();
+        map.setItemAt(new Position(1, 9), new Wall());
+        batch.loadFrom(0, engine);
+
+        batch.step(new byte[]{(byte) Direction.RIGHT.ordinal(), BatchEngine.NO_MOVE, BatchEngine.NO_MOVE, BatchEngine.NO_MOVE});
+        assertEquals(0, batch.getStepsTaken(0), "Moving into a wall should not count as a step.");
+        batch.step(new byte[]{(byte) Direction.LEFT.ordinal(), BatchEngine.NO_MOVE, BatchEngine.NO_MOVE, BatchEngine.NO_MOVE});
+        assertEquals(0, batch.getStepsTaken(0), "Moving into the boundary should not count as a step.");
+        assertEquals(0, batch.getPlayerX(0));
+    }
+
+    @Test
+    void step_TrapsCanEndTheGameWithScoreMinusOne() {
+        GameMap map = engine.getMap();
+        map.setItemAt(new Position(0, 9), new Entry());
+        map.setItemAt(new Position(1, 9), new Trap());
+        map.setItemAt(new Position(2, 9), new Gold());
+        engine.getPlayer().takeDamage(8); // 2 HP left
+        batch.loadFrom(0, engine);
+
+        Direction[] moves = {Direction.RIGHT, null, null, null};
+        batch.step(moves);
+        assertEquals(0, batch.getHp(0));
+        assertEquals(GameState.LOSE_HP, batch.getGameState(0));
+        assertEquals(-1, batch.getScore(0), "Losing sets the score to -1.");
+
+        batch.step(moves);
+        assertEquals(1, batch.getPlayerX(0), "A finished game should not move any more.");
+    }
+
+    @Test
+    void step_LadderOnFinalLevelWinsTheGame() {
+        GameMap map = engine.getMap();
+        map.setItemAt(new Position(1, 9), new Ladder());
+        batch.loadFrom(0, engine);
+
+        batch.step(new Direction[]{Direction.RIGHT, null, null, null});
+        assertEquals(2, batch.getLevel(0), "First ladder leads to level 2.");
+        assertEquals(0, batch.getStepsTaken(0), "Steps reset on a new level.");
+        assertEquals(TileType.ENTRY, batch.getTile(0, 1, 9), "Level 2 entry is where the ladder was.");
+
+        // Put a ladder next to the player on level 2 by loading a matching engine state
+        engine.advanceLevel();
+        GameMap level2 = engine.getMap();
+        Position start = engine.getPlayer().getPosition();
+        Position next = level2.isValidPosition(start.x() + 1, start.y())
+                ? new Position(start.x() + 1, start.y()) : new Position(start.x() - 1, start.y());
+        level2.setItemAt(next, new Ladder());
+        batch.loadFrom(0, engine);
+
+        batch.step(new Direction[]{next.x() > start.x() ? Direction.RIGHT : Direction.LEFT, null, null, null});
+        assertEquals(GameState.WIN_GAME, batch.getGameState(0));
+    }
+}
@@ -0,0 +1,68 @@
+package dungeon.engine;
+
+import dungeon.engine.items.Empty;
+import dungeon.engine.items.Gold;
+import dungeon.engine.items.Ladder;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BotProtocolTest {
+
+    private String[] runScript(String script) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new BotProtocol(new ByteArrayInputStream(script.getBytes(StandardCharsets.UTF_8)), out).run();
+        return out.toString(StandardCharsets.UTF_8).split("\n");
+    }
+
+    @Test
+    void newGame_AnswersWithFullState() throws IOException {
+        String[] lines = runScript("n 0\nq\n");
+
+        assertEquals(2, lines.length, "One response line per command.");
+        String[] fields = lines[0].split(" ");
+        assertEquals("S", fields[0]);
+        assertEquals("1", fields[1], "Level");
+        assertEquals("10", fields[2], "HP");
+        assertEquals("0", fields[4], "Steps");
+        assertEquals("IN_PROGRESS", fields[7]);
+        assertEquals(100, fields[10].length(), "Full state carries every tile of the 10x10 map.");
+        assertEquals('E', fields[10].charAt(90), "Entry is bottom-left on level 1.");
+        assertEquals("OK bye", lines[1]);
+    }
+
+    @Test
+    void moves_BeforeNewGame_AreRejected() throws IOException {
+        String[] lines = runScript("uurr\n");
+        assertTrue(lines[0].startsWith("E "), "Moves without a game should give an error line.");
+    }
+
+    @Test
+    void batchedMoves_CountStepsAndDeltaModeReportsOnlyChanges() throws IOException {
+        GameEngine engine = new GameEngine();
+        engine.startGame(0);
+        GameMap map = engine.getMap();
+        for (int y = 0; y < map.getHeight(); y++) {
+            for (int x = 0; x < map.getWidth(); x++) {
+                if (x != 0 || y != 9) map.setItemAt(x, y, new Empty()); // Keep the entry
+            }
+        }
+        map.setItemAt(0, 8, new Gold()); // Tile 80
+        map.setItemAt(5, 0, new Ladder());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        String script = "s\ndelta\nuur\nxyz\n";
+        new BotProtocol(new ByteArrayInputStream(script.getBytes(StandardCharsets.UTF_8)), out, engine).run();
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+
+        assertEquals("OK delta", lines[1]);
+        // Up onto the gold, up again, then right: three steps, and only the collected gold changed the map
+        assertEquals("D 1 10 2 3 1 7 IN_PROGRESS 3 1 80:.", lines[2]);
+        assertTrue(lines[3].startsWith("E unknown command"));
+    }
+}
@@ -0,0 +1,82 @@
+package dungeon.engine;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChunkedLevelGeneratorTest {
+
+    private ForkJoinPool single;
+    private ForkJoinPool parallel;
+
+    @BeforeEach
+    void setUp() {
+        single = new ForkJoinPool(1);
+        parallel = new ForkJoinPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        single.shutdown();
+        parallel.shutdown();
+    }
+
+    private static int count(GameMap map, byte type) {
+        int n = 0;
+        for (int y = 0; y < map.getHeight(); y++) {
+            for (int x = 0; x < map.getWidth(); x++) {
+                if (TileType.of(map.getCell(x, y).getItem()) == type) n++;
+            }
+        }
+        return n;
+    }
+
+    @Test
+    void generate_SameSeed_SameMapWhateverTheThreadCount() {
+        Position entry = new Position(0, 99);
+        GameMap a = new ChunkedLevelGenerator(single).generate(150, 100, 4, 1234L, entry);
+        GameMap b = new ChunkedLevelGenerator(parallel).generate(150, 100, 4, 1234L, entry);
+        for (int y = 0; y < 100; y++) {
+            for (int x = 0; x < 150; x++) {
+                assertEquals(TileType.of(a.getCell(x, y).getItem()), TileType.of(b.getCell(x, y).getItem()),
+                        "Tile (" + x + "," + y + ") should not depend on the pool.");
+            }
+        }
+        assertEquals(a.getLadderPosition(), b.getLadderPosition());
+    }
+
+    @Test
+    void generate_SeamsStitched_EveryFloorTileReachableFromEntry() {
+        Position entry = new Position(0, 199);
+        GameMap map = new ChunkedLevelGenerator(parallel).generate(200, 200, 3, 99L, entry);
+
+        assertTrue(map.getCell(entry).getItem() instanceof dungeon.engine.items.Entry, "Entry should be placed.");
+        assertTrue(map.isReachable(entry, map.getLadderPosition()), "Ladder must be reachable from the entry.");
+        assertTrue(count(map, TileType.WALL) > 0, "Chunks should have walls between rooms.");
+        for (int y = 0; y < 200; y += 7) {
+            for (int x = 0; x < 200; x += 7) {
+                if (map.getCell(x, y).getItem().isPassable()) {
+                    assertTrue(map.isReachable(entry, new Position(x, y)), "(" + x + "," + y + ") should connect across seams.");
+                }
+            }
+        }
+    }
+
+    @Test
+    void generate_ItemCountsScaleWithAreaAndDifficulty() {
+        Position entry = new Position(0, 255);
+        GameMap easy = new ChunkedLevelGenerator(parallel).generate(256, 256, 1, 5L, entry);
+        GameMap hard = new ChunkedLevelGenerator(parallel).generate(256, 256, 8, 5L, entry);
+        double floor = 256 * 256 - count(easy, TileType.WALL);
+        double hardFloor = 256 * 256 - count(hard, TileType.WALL);
+
+        assertEquals(floor * GameMap.GOLD_COUNT / 100, count(easy, TileType.GOLD), floor * 0.01, "Gold should keep 5 per 100 floor tiles.");
+        assertEquals(floor * GameMap.TRAP_COUNT / 100, count(easy, TileType.TRAP), floor * 0.01);
+        assertEquals(hardFloor * 8 / 100, count(hard, TileType.RANGED_MUTANT), hardFloor * 0.01, "Ranged mutants should follow difficulty.");
+        assertTrue(count(hard, TileType.RANGED_MUTANT) > 4 * count(easy, TileType.RANGED_MUTANT));
+    }
+}
@@ -0,0 +1,78 @@
+package dungeon.engine;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EngineLoopTest {
+
+    private EngineLoop loop;
+
+    @BeforeEach
+    void setUp() {
+        loop = new EngineLoop(GameEngine::new);
+        loop.submit(engine -> engine.startGame(3));
+        loop.call(engine -> null).join(); // Waits for the commands above
+    }
+
+    @AfterEach
+    void tearDown() {
+        loop.close();
+    }
+
+    @Test
+    void call_RunsOnTheEngineThreadAndPublishesASnapshot() {
+        String threadName = loop.call(engine -> Thread.currentThread().getName()).join();
+        assertEquals("game-engine", threadName, "Commands should run on the engine thread");
+
+        RenderSnapshot snapshot = loop.getLatest();
+        assertNotNull(snapshot, "A snapshot should be published after each command");
+        assertTrue(snapshot.hasGame(), "The started game should be in the snapshot");
+        assertEquals(GameEngine.MAP_WIDTH, snapshot.getWidth());
+        assertEquals(Player.MAX_HP, snapshot.getHp());
+        assertEquals(1, snapshot.getLevel());
+        assertTrue(snapshot.isPlayerAt(snapshot.getPlayerX(), snapshot.getPlayerY()));
+        assertEquals(TileType.ENTRY, snapshot.getTile(snapshot.getPlayerX(), snapshot.getPlayerY()), "The player starts on the entry");
+    }
+
+    @Test
+    void move_BatchPublishesOneSnapshotAndPostsEachMessage() {
+        long before = loop.getLatest().getVersion();
+        loop.move(Arrays.asList(Direction.UP, Direction.RIGHT));
+        loop.call(engine -> null).join();
+
+        assertEquals(before + 2, loop.getLatest().getVersion(), "One snapshot for the batch and one for the call");
+        assertEquals(0, loop.getQueuedMoves(), "Finished moves should no longer count as queued");
+        assertNotNull(loop.pollMessage(), "First move's message");
+        assertNotNull(loop.pollMessage(), "Second move's message");
+        assertNull(loop.pollMessage(), "No other messages");
+    }
+
+    @Test
+    void snapshot_IsNotChangedByLaterEngineWork() {
+        RenderSnapshot snapshot = loop.getLatest();
+        int score = snapshot.getScore();
+        loop.submit(engine -> engine.getPlayer().addScore(5));
+        loop.call(engine -> null).join();
+
+        assertEquals(score, snapshot.getScore(), "A published snapshot must never change");
+        assertEquals(score + 5, loop.getLatest().getScore(), "The newer snapshot should have the new score");
+    }
+
+    @Test
+    void replace_SwapsTheEngineUnlessTheLoaderReturnsNull() {
+        GameEngine original = loop.call(engine -> engine).join();
+        assertNull(loop.replace(engine -> null).join());
+        assertSame(original, loop.call(engine -> engine).join(), "A null result should keep the current engine");
+
+        GameEngine other = new GameEngine();
+        other.startGame(7);
+        assertSame(other, loop.replace(engine -> other).join());
+        assertSame(other, loop.call(engine -> engine).join(), "Later commands should get the new engine");
+        assertEquals(7, loop.getLatest().getDifficulty());
+    }
+}
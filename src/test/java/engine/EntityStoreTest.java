@@ -0,0 +1,128 @@
+package dungeon.engine;
+
+import dungeon.engine.items.Empty;
+import dungeon.engine.items.Gold;
+import dungeon.engine.items.MeleeMutant;
+import dungeon.engine.items.RangedMutant;
+import dungeon.engine.items.Wall;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntityStoreTest {
+
+    @Test
+    void destroy_ThenCreate_ReusesTheFreedId() {
+        EntityStore store = new EntityStore(2);
+        int a = store.create(TileType.GOLD, 0);
+        int b = store.create(TileType.MELEE_MUTANT, 1);
+        int c = store.create(TileType.TRAP, 2); // Forces the arrays to grow
+
+        store.destroy(b);
+        assertFalse(store.isAlive(b));
+        assertEquals(2, store.size());
+
+        int d = store.create(TileType.RANGED_MUTANT, 5);
+        assertEquals(b, d, "A destroyed row should be reused before the store grows.");
+        assertEquals(TileType.RANGED_MUTANT, store.getType(d));
+        assertEquals(5, store.getTile(d));
+        assertTrue(store.isAlive(a) && store.isAlive(c));
+    }
+
+    @Test
+    void create_SetsDefaultStateForTheType() {
+        EntityStore store = new EntityStore();
+        int mutant = store.create(TileType.MELEE_MUTANT, 0);
+        int gold = store.create(TileType.GOLD, 1);
+
+        assertEquals(1, store.getHp(mutant));
+        assertTrue(store.hasFlag(mutant, EntityStore.FLAG_MONSTER));
+        assertTrue(store.hasFlag(gold, EntityStore.FLAG_PICKUP));
+        assertFalse(store.hasFlag(gold, EntityStore.FLAG_MONSTER));
+
+        assertEquals(0, store.getCooldown(mutant));
+    }
+
+    @Test
+    void gameMap_CellsReferenceEntitiesThatFollowTheItems() {
+        GameMap map = new GameMap(10, 10);
+        assertEquals(EntityStore.NONE, map.getEntityId(3, 3), "Empty tiles have no entity.");
+
+        map.setItemAt(new Position(3, 3), new MeleeMutant());
+        int id = map.getEntityId(3, 3);
+        assertTrue(map.getEntities().isAlive(id));
+        assertEquals(TileType.MELEE_MUTANT, map.getEntities().getType(id));
+
+        map.moveItem(3 * 10 + 3, 3 * 10 + 4);
+        assertEquals(EntityStore.NONE, map.getEntityId(3, 3));
+        assertEquals(id, map.getEntityId(4, 3), "A moving mutant keeps its entity and state.");
+        assertEquals(3 * 10 + 4, map.getEntities().getTile(id));
+
+        map.setItemAt(new Position(4, 3), new Empty()); // Defeated
+        assertFalse(map.getEntities().isAlive(id));
+        assertEquals(EntityStore.NONE, map.getEntityId(4, 3));
+
+        map.setItemAt(new Position(0, 0), new Wall());
+        map.setItemAt(new Position(1, 0), new Gold());
+        assertEquals(EntityStore.NONE, map.getEntityId(0, 0), "Walls are terrain, not entities.");
+        assertEquals(1, map.getEntities().size());
+    }
+
+    // Level 1 at difficulty 0 with everything cleared, the player on the entry at (0, 9)
+    private static GameEngine emptyLevel() {
+        GameEngine engine = new GameEngine();
+        engine.startGame(0);
+        GameMap map = engine.getMap();
+        for (int y = 0; y < map.getHeight(); y++) {
+            for (int x = 0; x < map.getWidth(); x++) map.setItemAt(new Position(x, y), new Empty());
+        }
+        return engine;
+    }
+
+    @Test
+    void meleeMutant_WithMoreHp_TakesMoreRoundsToDefeat() {
+        GameEngine engine = emptyLevel();
+        GameMap map = engine.getMap();
+        map.setItemAt(new Position(1, 9), new MeleeMutant());
+        map.getEntities().setHp(map.getEntityId(1, 9), 3);
+
+        engine.processMove(Direction.RIGHT);
+
+        assertEquals(Player.MAX_HP - 3 * MeleeMutant.DAMAGE, engine.getPlayer().getHp(), "Each round of the fight should cost the player.");
+        assertEquals(EntityStore.NONE, map.getEntityId(1, 9), "The defeated mutant's entity should be destroyed.");
+    }
+
+    @Test
+    void rangedMutant_ShootsOncePerTurnThroughItsCooldown() {
+        GameMap map = new GameMap(10, 10);
+        map.setItemAt(new Position(2, 2), new RangedMutant());
+        int id = map.getEntityId(2, 2);
+
+        assertTrue(RangedMutant.readyToFire(map, 2, 2, 5));
+        assertEquals(5 + RangedMutant.SHOT_INTERVAL, map.getEntities().getCooldown(id), "The cooldown should hold the next turn it may shoot.");
+        assertFalse(RangedMutant.readyToFire(map, 2, 2, 5), "A second shot on the same turn should wait.");
+        assertTrue(RangedMutant.readyToFire(map, 2, 2, 6));
+    }
+
+    @Test
+    void entityState_SurvivesSavesAndCompactSessions() throws IOException {
+        GameEngine engine = emptyLevel();
+        GameMap map = engine.getMap();
+        map.setItemAt(new Position(5, 5), new MeleeMutant());
+        map.setItemAt(new Position(6, 6), new RangedMutant());
+        map.getEntities().setHp(map.getEntityId(5, 5), 4);
+        map.getEntities().setCooldown(map.getEntityId(6, 6), 9);
+
+        GameMap saved = GameEngine.fromStream(new ByteArrayInputStream(engine.toBytes())).getMap();
+        GameMap compact = GameEngine.fromCompactBytes(engine.toCompactBytes()).getMap();
+
+        for (GameMap copy : new GameMap[] {saved, compact}) {
+            assertEquals(4, copy.getEntities().getHp(copy.getEntityId(5, 5)), "Mutant HP should be kept.");
+            assertEquals(9, copy.getEntities().getCooldown(copy.getEntityId(6, 6)), "Cooldowns should be kept.");
+            assertEquals(map.getEntities().size(), copy.getEntities().size());
+            assertTrue(copy.getCell(5, 5).getItem() instanceof MeleeMutant);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package dungeon.engine;
+
+import dungeon.engine.items.Gold;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventRecorderTest {
+
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.createTempDirectory("event-recorder-test").resolve("events.dat");
+    }
+
+    @Test
+    void record_FromManyThreads_QueryCountsEveryEvent() throws IOException, InterruptedException {
+        EventRecorder recorder = new EventRecorder(file);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int g = 0; g < 50; g++) {
+                    int game = recorder.newGameId();
+                    recorder.record(EventRecorder.GAME_START, game, 1, 0, TileType.EMPTY, 10, 0, GameState.IN_PROGRESS);
+                    for (int i = 1; i <= 20; i++) {
+                        byte item = i % 5 == 0 ? TileType.GOLD : TileType.EMPTY;
+                        recorder.record(EventRecorder.MOVE, game, 1, i, item, 10, i, GameState.IN_PROGRESS);
+                    }
+                    recorder.record(EventRecorder.GAME_END, game, 1, 2 * 10 + 3, TileType.TRAP, 0, 20, GameState.LOSE_HP);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) thread.join();
+        recorder.close();
+
+        assertEquals(0, recorder.getDroppedCount(), "A ring this size should not drop anything here.");
+        EventQuery.Report report = EventQuery.scan(file, 10, 10);
+        assertEquals(200, report.getGames(), "Every game start should be counted.");
+        assertEquals(200 * 20, report.getMoves(), "Every move should be counted.");
+        assertEquals(200, report.getHpDeaths(3, 2), "Every death happened on tile (3, 2).");
+        assertEquals(0, report.getHpDeaths(0, 0));
+        assertEquals(4.0, report.getPickupRate(TileType.GOLD), 1e-9, "Each game stepped on gold four times.");
+    }
+
+    @Test
+    void processMove_WithAnalytics_RecordsStartAndMove() throws IOException {
+        EventRecorder recorder = new EventRecorder(file);
+        GameEngine engine = new GameEngine();
+        engine.setAnalytics(recorder);
+        engine.startGame(0);
+        engine.getMap().setItemAt(1, 0, new Gold());
+        engine.getPlayer().moveTo(0, 0);
+        engine.processMove(Direction.RIGHT);
+        recorder.close();
+
+        EventQuery.Report report = EventQuery.scan(file);
+        assertEquals(1, report.getGames());
+        assertEquals(1, report.getMoves());
+        assertEquals(1, report.getItemSteps(TileType.GOLD), "The move onto gold should be recorded with its item.");
+    }
+
+    @Test
+    void setAnalytics_AfterStartGame_RecordsStartLikeTheTextUi() throws IOException {
+        EventRecorder recorder = new EventRecorder(file);
+        GameEngine engine = new GameEngine();
+        engine.startGame(0); // GameEngine.main attaches the recorder after starting or loading the game
+        engine.setAnalytics(recorder);
+        engine.getMap().setItemAt(1, 0, new Gold());
+        engine.getPlayer().moveTo(0, 0);
+        engine.processMove(Direction.RIGHT);
+        recorder.close();
+
+        EventQuery.Report report = EventQuery.scan(file);
+        assertEquals(1, report.getGames(), "The game in progress should count as started.");
+        assertEquals(1, report.getMoves());
+        assertEquals(1.0, report.getPickupRate(TileType.GOLD), 1e-9, "Pickup rates need the game start to be counted.");
+    }
+
+    @Test
+    void scan_AppendedRuns_AddsBothFiles() throws IOException {
+        for (int run = 0; run < 2; run++) {
+            try (EventRecorder recorder = new EventRecorder(file)) {
+                recorder.record(EventRecorder.GAME_START, recorder.newGameId(), 1, 0, TileType.EMPTY, 10, 0, GameState.IN_PROGRESS);
+                recorder.record(EventRecorder.LEVEL_COMPLETE, 0, 1, 5, TileType.LADDER, 10, 30, GameState.IN_PROGRESS);
+                recorder.record(EventRecorder.GAME_END, 0, 2, 5, TileType.LADDER, 10, 50, GameState.WIN_GAME);
+            }
+        }
+        EventQuery.Report report = EventQuery.scan(file, 10, 10);
+        assertEquals(2, report.getGames(), "Both runs should be read back.");
+        assertEquals(2, report.getWins());
+        assertEquals(30.0, report.getAverageStepsPerLevel(), 1e-9);
+    }
+}
@@ -0,0 +1,89 @@
+package dungeon.engine;
+
+import dungeon.engine.items.Empty;
+import dungeon.engine.items.Wall;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class FieldOfViewTest {
+
+    private GameMap map;
+    private FieldOfView fov;
+
+    @BeforeEach
+    void setUp() {
+        map = new GameMap(20, 20); // All cells start Empty
+        fov = new FieldOfView(map, 5);
+    }
+
+    @Test
+    void update_OpenMap_SeesEverythingInsideRadiusOnly() {
+        fov.update(10, 10);
+
+        assertTrue(fov.isVisible(10, 10), "The origin is always visible.");
+        assertTrue(fov.isVisible(15, 10), "A tile exactly at the radius is visible.");
+        assertTrue(fov.isVisible(13, 13), "Diagonal tiles inside the radius are visible.");
+        assertFalse(fov.isVisible(16, 10), "Tiles past the radius are not visible.");
+        assertFalse(fov.isVisible(14, 14), "Corners outside the circle are not visible.");
+    }
+
+    @Test
+    void update_WallBlocksTilesBehindIt() {
+        map.setItemAt(new Position(12, 10), new Wall());
+        fov.update(10, 10);
+
+        assertTrue(fov.isVisible(12, 10), "The wall itself is visible.");
+        assertFalse(fov.isVisible(13, 10), "Directly behind the wall is hidden.");
+        assertFalse(fov.isVisible(14, 10), "Further behind the wall is hidden too.");
+        assertTrue(fov.isVisible(12, 12), "Tiles off the wall's shadow stay visible.");
+    }
+
+    @Test
+    void update_CachesUntilPlayerMovesOrWallsInRangeChange() {
+        FieldOfView cached = new FieldOfView(map, 5);
+
+        assertTrue(cached.update(10, 10), "First update computes.");
+        assertFalse(cached.update(10, 10), "Same origin reuses the cached result.");
+
+        cached.onOpacityChanged(19, 19);
+        assertFalse(cached.update(10, 10), "A wall change out of range keeps the cache.");
+
+        cached.onOpacityChanged(12, 10);
+        assertTrue(cached.update(10, 10), "A wall change in range forces a recompute.");
+        assertTrue(cached.update(11, 10), "Moving forces a recompute.");
+    }
+
+    @Test
+    void gameMap_WallChangesInvalidateItsFieldOfView() {
+        map.setFogOfWar(true);
+        map.updateVisibility(10, 10);
+        assertTrue(map.isVisible(14, 10));
+
+        map.setItemAt(new Position(12, 10), new Wall());
+        map.updateVisibility(10, 10);
+        assertFalse(map.isVisible(14, 10), "A new wall in range should hide the tiles behind it.");
+
+        map.setItemAt(new Position(12, 10), new Empty());
+        map.updateVisibility(10, 10);
+        assertTrue(map.isVisible(14, 10), "Removing the wall should reveal them again.");
+    }
+
+    @Test
+    void gameMap_RemembersRevealedTilesAfterMovingAway() {
+        map.setFogOfWar(true);
+        map.updateVisibility(2, 2);
+        map.updateVisibility(17, 17);
+
+        assertFalse(map.isVisible(2, 2), "The old position is out of sight now.");
+        assertTrue(map.isRevealed(2, 2), "But it is remembered.");
+        assertTrue(map.isShown(2, 2));
+        assertFalse(map.isShown(2, 17), "Tiles never in sight stay hidden.");
+    }
+
+    @Test
+    void gameMap_WithoutFog_ShowsEverything() {
+        assertTrue(map.isShown(0, 19));
+        assertTrue(map.isVisible(19, 0));
+    }
+}
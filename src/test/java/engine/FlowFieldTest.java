@@ -0,0 +1,59 @@
+package dungeon.engine;
+
+import dungeon.engine.items.Gold;
+import dungeon.engine.items.MeleeMutant;
+import dungeon.engine.items.Wall;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlowFieldTest {
+
+    private GameMap map;
+    private FlowField field;
+
+    @BeforeEach
+    void setUp() {
+        map = new GameMap(40, 40); // All cells start Empty
+        field = map.getFlowField();
+    }
+
+    @Test
+    void update_OpenMap_DistanceIsStepsToPlayer() {
+        field.update(10, 10);
+
+        assertEquals(0, field.getDistance(10, 10));
+        assertEquals(7, field.getDistance(13, 14));
+        assertEquals(FlowField.UNREACHED, field.getDistance(39, 39), "Tiles past MAX_DISTANCE are not searched.");
+    }
+
+    @Test
+    void update_WallAcrossTheWay_DistanceGoesAroundIt() {
+        for (int y = 0; y < 5; y++) map.setItemAt(new Position(5, y), new Wall());
+        field.update(2, 2);
+
+        assertEquals(FlowField.UNREACHED, field.getDistance(5, 2), "Walls are never reached.");
+        assertEquals(3 + 3 + 3 + 3, field.getDistance(8, 2), "The path has to go round the bottom of the wall.");
+    }
+
+    @Test
+    void nextStep_FollowsTheFieldAroundObstacles() {
+        for (int y = 0; y < 5; y++) map.setItemAt(new Position(5, y), new Wall());
+        map.setItemAt(new Position(6, 2), new MeleeMutant());
+        field.update(2, 2);
+
+        int step = field.nextStep(2 * 40 + 6);
+
+        assertEquals(3 * 40 + 6, step, "Moving down is the only way round the wall.");
+    }
+
+    @Test
+    void update_CachesUntilPlayerMovesOrWalkabilityChanges() {
+        assertTrue(field.update(10, 10), "First update computes.");
+        assertFalse(field.update(10, 10), "Same origin reuses the field.");
+
+        map.setItemAt(new Position(12, 10), new Gold());
+        assertTrue(field.update(10, 10), "A new obstacle for mutants forces a recompute.");
+        assertEquals(FlowField.UNREACHED, field.getDistance(12, 10));
+    }
+}
@@ -6,6 +6,7 @@ import dungeon.engine.items.Trap;
 import dungeon.engine.items.Entry;
 import dungeon.engine.items.RangedMutant;
 import dungeon.engine.items.Ladder;
+import dungeon.engine.items.Wall;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
@@ -492,4 +493,59 @@ class GameEngineTest {
         assertTrue(lastMessage.contains("You ran out of steps. Game Over."), "Final message should indicate step limit game over. Message: " + lastMessage);
     }
 
+    @Test
+    void endlessMode_LadderOnLevel2_AdvancesToLevel3WithPregeneratedMap() {
+        engine.startGame(1, true);
+        player = engine.getPlayer();
+        assertTrue(engine.isEndless(), "Pre-condition: endless mode should be on.");
+
+        for (int level = 1; level <= 3; level++) {
+            GameMap current = engine.getMap();
+            Position ladder = current.getLadderPosition();
+            // Jump the player next to the generated ladder so the pre-generated entry still matches
+            Position beside = current.isValidPosition(ladder.x() - 1, ladder.y())
+                    ? new Position(ladder.x() - 1, ladder.y()) : new Position(ladder.x() + 1, ladder.y());
+            current.setItemAt(beside, new Empty());
+            player.moveTo(beside);
+
+            engine.processMove(beside.x() < ladder.x() ? Direction.RIGHT : Direction.LEFT);
+
+            assertEquals(level + 1, engine.getCurrentLevel(), "Endless mode should keep going past the last normal level.");
+            assertEquals(level, engine.getPrefetchedLevelCount(), "The new level should come from the background generator.");
+            assertEquals(ladder, engine.getMap().getEntryPosition(), "The new level should start where the ladder was.");
+            assertTrue(engine.getMap().getCell(ladder).getItem() instanceof Entry, "The entry should be marked on the new map.");
+            assertEquals(1 + 2 * level, engine.getDifficultySetting(), "Difficulty should rise by 2 per level.");
+            if (engine.isGameOver()) break; // A ranged mutant on the new level can end the run on arrival
+        }
+    }
+
+    @Test
+    void levelPrefetcher_UnreachableLadder_IsNotHandedOver() {
+        GameMap level = LevelPrefetcher.generate(2, 3, new Position(0, 9));
+        assertSame(level, LevelPrefetcher.checkReachable(level), "A generated level has no walls, so it should pass.");
+
+        Position ladder = new Position(5, 5);
+        level.setItemAt(ladder, new Ladder()); // Away from the entry, so walls around it cut it off
+        for (Direction d : Direction.values()) {
+            Position next = new Position(ladder.x() + d.getDx(), ladder.y() + d.getDy());
+            if (level.isValidPosition(next)) level.setItemAt(next, new Wall());
+        }
+        assertThrows(IllegalStateException.class, () -> LevelPrefetcher.checkReachable(level), "A walled-in ladder should be refused.");
+    }
+
+    @Test
+    void endlessMode_LosingKeepsTheScore() {
+        engine.startGame(0, true);
+        player = engine.getPlayer();
+        map = engine.getMap();
+        map.setItemAt(new Position(1, 9), new Trap());
+        player.addScore(6);
+        player.takeDamage(8); // 2 HP left
+
+        engine.processMove(Direction.RIGHT);
+
+        assertEquals(GameState.LOSE_HP, engine.getGameState());
+        assertEquals(6, player.getScore(), "An endless run keeps the score it reached.");
+    }
+
 }
@@ -71,7 +71,7 @@ class GameMapTest {
         Cell cell = map.getCell(testPos);
 
         assertNotNull(cell, "Cell at test position should not be null.");
-        assertSame(wallItem, cell.getItem(), "Item retrieved from cell should be the same item that was set.");
+        assertTrue(cell.getItem() instanceof Wall, "Item retrieved from cell should be of the type that was set.");
     }
 
     @Test
@@ -84,6 +84,21 @@ class GameMapTest {
         assertEquals(ladderPos, map.getLadderPosition(), "Ladder position should be updated after setting a Ladder item.");
     }
 
+    @Test
+    void step_MovesByTileIndexAndStopsAtTheEdge() {
+        int tile = map.tileOf(3, 4);
+        assertEquals(map.tileOf(4, 4), map.step(tile, Direction.RIGHT), "Right should be the next tile in the row.");
+        assertEquals(map.tileOf(3, 3), map.step(tile, Direction.UP), "Up should be one row earlier.");
+        assertEquals(-1, map.step(map.tileOf(DEFAULT_WIDTH - 1, 4), Direction.RIGHT), "Stepping off the right edge must not wrap to the next row.");
+        assertEquals(-1, map.step(map.tileOf(0, 0), Direction.UP), "Stepping off the top should give -1.");
+
+        map.setItemAt(map.tileOf(3, 4), new Wall());
+        assertTrue(map.getCell(3, 4).getItem() instanceof Wall, "setItemAt by tile should update the same cell.");
+        assertSame(map.getCell(3, 4), map.getCellAt(tile), "getCellAt should return the cell at that tile.");
+        assertEquals(new Position(3, 4), Position.ofTile(tile, DEFAULT_WIDTH));
+        assertEquals(tile, new Position(3, 4).toTile(DEFAULT_WIDTH));
+    }
+
     @Test
     void placeItemsRandomly_Level1_SetsCorrectEntryPosition() {
         Player dummyPlayer = new Player(new Position(0,0)); // Dummy player for method signature
@@ -212,4 +227,15 @@ class GameMapTest {
         int expectedRangedMutants = Math.max(0, Math.min(10, testDifficulty));
         assertEquals(expectedRangedMutants, rangedMutantCount, "Number of ranged mutants should match difficulty (clamped 0-10).");
     }
+
+    @Test
+    void isReachable_FindsPathAroundWalls() {
+        GameMap small = new GameMap(3, 3);
+        small.setItemAt(new Position(1, 0), new Wall());
+        small.setItemAt(new Position(1, 1), new Wall());
+        assertTrue(small.isReachable(new Position(0, 0), new Position(2, 0)), "Path goes around the bottom.");
+
+        small.setItemAt(new Position(1, 2), new Wall());
+        assertFalse(small.isReachable(new Position(0, 0), new Position(2, 0)), "A full wall column blocks the way.");
+    }
 }
@@ -0,0 +1,96 @@
+package dungeon.engine;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeaderboardTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 10);
+    private Leaderboard leaderboard;
+
+    @BeforeEach
+    void setUp() {
+        leaderboard = new Leaderboard();
+        leaderboard.record(new ScoreEntry(-1, DAY, 3));
+        leaderboard.record(new ScoreEntry(10, DAY, 3));
+        leaderboard.record(new ScoreEntry(20, DAY.plusDays(1), 5));
+        leaderboard.record(new ScoreEntry(20, DAY.plusDays(2), 3));
+        leaderboard.record(new ScoreEntry(35, DAY.plusDays(5), 5));
+    }
+
+    @Test
+    void countAboveAndRank_MatchTheRecordedScores() {
+        assertEquals(5, leaderboard.size());
+        assertEquals(3, leaderboard.countAbove(10));
+        assertEquals(1, leaderboard.countAbove(20));
+        assertEquals(0, leaderboard.countAbove(35));
+        assertEquals(2, leaderboard.rankOf(20), "Equal scores share a rank.");
+        assertEquals(1, leaderboard.rankOf(100));
+    }
+
+    @Test
+    void percentileRank_IsShareOfGamesMatchedOrBeaten() {
+        assertEquals(40.0, leaderboard.percentileRank(10), 1e-9);
+        assertEquals(100.0, leaderboard.percentileRank(35), 1e-9);
+        assertEquals(0.0, new Leaderboard().percentileRank(10), 1e-9, "Nothing recorded yet.");
+    }
+
+    @Test
+    void perDifficulty_OnlyCountsGamesAtThatDifficulty() {
+        assertEquals(3, leaderboard.size(3));
+        assertEquals(1, leaderboard.countAbove(10, 3));
+        assertEquals(1, leaderboard.rankOf(35, 5));
+        assertEquals(0, leaderboard.size(9));
+    }
+
+    @Test
+    void topK_OnlyIncludesGamesInTheDateRange() {
+        List<ScoreEntry> top = leaderboard.topK(2, DAY, DAY.plusDays(2));
+
+        assertEquals(2, top.size());
+        assertEquals(DAY.plusDays(2), top.get(0).getDate(), "Ties are broken by the more recent date.");
+        assertEquals(20, top.get(1).getScore());
+    }
+
+    @Test
+    void record_HighScoresGrowTheTreeWithoutLosingCounts() {
+        leaderboard.record(new ScoreEntry(5000, DAY, 3));
+
+        assertEquals(6, leaderboard.size());
+        assertEquals(1, leaderboard.countAbove(35));
+        assertEquals(4, leaderboard.countAbove(10));
+        assertEquals(100.0 * 4 / 6, leaderboard.percentileRank(20), 1e-9, "Counts below the old size survive the rebuild.");
+    }
+
+    @Test
+    void topK_ManyDays_MatchesSortingEveryGameInTheRange() {
+        Random random = new Random(11);
+        List<ScoreEntry> all = new ArrayList<>();
+        Leaderboard board = new Leaderboard();
+        for (int i = 0; i < 3000; i++) {
+            ScoreEntry entry = new ScoreEntry(random.nextInt(60) - 1, DAY.plusDays(random.nextInt(90)), 3);
+            all.add(entry);
+            board.record(entry);
+        }
+        for (int query = 0; query < 50; query++) {
+            LocalDate from = DAY.plusDays(random.nextInt(90));
+            LocalDate to = from.plusDays(random.nextInt(30));
+            int k = 1 + random.nextInt(40);
+            List<ScoreEntry> expected = new ArrayList<>();
+            for (ScoreEntry entry : all) {
+                if (!entry.getDate().isBefore(from) && !entry.getDate().isAfter(to)) expected.add(entry);
+            }
+            Collections.sort(expected);
+
+            assertEquals(expected.subList(0, Math.min(k, expected.size())), board.topK(k, from, to), "Query " + query + " from " + from + " to " + to);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package dungeon.engine;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemoryFootprintTest {
+
+    private GameEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new GameEngine();
+        engine.startGame(3);
+    }
+
+    @Test
+    void of_StartedGame_ChargesTheGridPerCell() {
+        MemoryFootprint footprint = MemoryFootprint.of(engine);
+        int area = GameEngine.MAP_WIDTH * GameEngine.MAP_HEIGHT;
+
+        assertEquals(area * 24L, footprint.get(MemoryFootprint.Component.POSITIONS), "One 24-byte Position per cell.");
+        assertTrue(footprint.get(MemoryFootprint.Component.CELLS) >= area * 24L, "Cells cost at least a Cell object each.");
+        assertTrue(footprint.get(MemoryFootprint.Component.ENTITIES) > 0, "Entities live in the map's store.");
+        assertTrue(footprint.get(MemoryFootprint.Component.PLAYER) > 0);
+        long sum = 0;
+        for (MemoryFootprint.Component component : MemoryFootprint.Component.values()) sum += footprint.get(component);
+        assertTrue(footprint.getTotal() > sum, "The total should add the engine object to its components.");
+    }
+
+    @Test
+    void of_FogOfWar_CountsVisibilityOnceBuilt() {
+        MemoryFootprint before = MemoryFootprint.of(engine);
+        assertEquals(0, before.get(MemoryFootprint.Component.VISIBILITY), "No fog memory before fog of war is on.");
+
+        engine.setFogOfWar(true);
+        engine.processMove(Direction.UP);
+        MemoryFootprint after = MemoryFootprint.of(engine);
+        assertTrue(after.get(MemoryFootprint.Component.VISIBILITY) > 0, "Fog of war memory should be counted once built.");
+        assertTrue(after.getTotal() > before.getTotal());
+    }
+
+    @Test
+    void of_EndlessGame_ChargesThePrefetchedLevel() throws InterruptedException {
+        assertEquals(0, MemoryFootprint.of(engine).get(MemoryFootprint.Component.PREFETCHED), "A normal game prefetches nothing.");
+
+        GameEngine endless = new GameEngine();
+        endless.startGame(2, true);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (endless.getPrefetchedMap() == null && System.currentTimeMillis() < deadline) Thread.sleep(5);
+        GameMap next = endless.getPrefetchedMap();
+        assertNotNull(next, "Pre-condition: the next level should have been built.");
+
+        MemoryFootprint footprint = MemoryFootprint.of(endless);
+        long grid = footprint.get(MemoryFootprint.Component.CELLS) + footprint.get(MemoryFootprint.Component.POSITIONS);
+        assertEquals(grid + next.entityBytes() + next.cacheBytes(), footprint.get(MemoryFootprint.Component.PREFETCHED),
+                "The next level is as large as the current one, plus its own entities.");
+    }
+}
@@ -0,0 +1,153 @@
+package dungeon.engine;
+
+import dungeon.engine.items.Empty;
+import dungeon.engine.items.MeleeMutant;
+import dungeon.engine.items.RangedMutant;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveJournalTest {
+
+    private Path checkpoint;
+    private Path journalFile;
+    private GameEngine engine;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path dir = Files.createTempDirectory("journal-test");
+        checkpoint = dir.resolve("autosave.sav");
+        journalFile = dir.resolve("autosave.jnl");
+
+        engine = new GameEngine();
+        engine.startGame(0);
+        GameMap map = engine.getMap();
+        for (int y = 0; y < map.getHeight(); y++) {
+            for (int x = 0; x < map.getWidth(); x++) {
+                map.setItemAt(new Position(x, y), new Empty());
+            }
+        }
+        map.setItemAt(new Position(0, 7), new RangedMutant()); // Shoots whenever the player is back on (0, 9)
+        engine.getPlayer().moveTo(new Position(0, 9));
+        engine.enableAutosave(new MoveJournal(checkpoint, journalFile));
+    }
+
+    private void playMoves(int count) {
+        for (int i = 0; i < count && !engine.isGameOver(); i++) {
+            engine.processMove(i % 2 == 0 ? Direction.RIGHT : Direction.LEFT);
+        }
+    }
+
+    private GameEngine reload() {
+        engine.disableAutosave();
+        GameEngine restored = GameEngine.loadAutosave(new MoveJournal(checkpoint, journalFile));
+        assertNotNull(restored, "The autosave should load.");
+        return restored;
+    }
+
+    @Test
+    void moves_AreAppendedAsSmallRecords() throws IOException {
+        long before = Files.size(journalFile);
+        engine.processMove(Direction.RIGHT);
+        engine.processMove(Direction.LEFT);
+
+        assertEquals(before + 2 * MoveJournal.RECORD_SIZE, Files.size(journalFile), "Each move should add one record.");
+    }
+
+    @Test
+    void loadAutosave_ReplaysJournalWithTheSameRangedOutcomes() {
+        playMoves(7);
+        Player expected = engine.getPlayer();
+
+        GameEngine restored = reload();
+
+        assertEquals(expected.getPosition(), restored.getPlayer().getPosition());
+        assertEquals(expected.getHp(), restored.getPlayer().getHp(), "Ranged hits must replay exactly as they were rolled.");
+        assertEquals(expected.getStepsTaken(), restored.getPlayer().getStepsTaken());
+        assertEquals(engine.getGameState(), restored.getGameState());
+    }
+
+    @Test
+    void loadAutosave_TornTailRecordIsDropped() throws IOException {
+        playMoves(4);
+        Player expected = engine.getPlayer();
+        engine.disableAutosave();
+        Files.write(journalFile, new byte[]{1, 0}, StandardOpenOption.APPEND); // Half a record, as after a crash
+
+        GameEngine restored = GameEngine.loadAutosave(new MoveJournal(checkpoint, journalFile));
+
+        assertNotNull(restored);
+        assertEquals(expected.getPosition(), restored.getPlayer().getPosition());
+        assertEquals(expected.getStepsTaken(), restored.getPlayer().getStepsTaken());
+        assertEquals(0, (Files.size(journalFile) - 8) % MoveJournal.RECORD_SIZE, "The torn bytes should be cut off.");
+    }
+
+    @Test
+    void checkpoint_NewJournalOverOldFiles_NeverReusesTheOldNumber() throws IOException {
+        playMoves(3);
+        engine.disableAutosave();
+        byte[] oldJournal = Files.readAllBytes(journalFile);
+
+        GameEngine fresh = new GameEngine();
+        fresh.startGame(0);
+        Position start = fresh.getPlayer().getPosition();
+        fresh.enableAutosave(new MoveJournal(checkpoint, journalFile));
+        fresh.disableAutosave();
+        Files.write(journalFile, oldJournal); // As if the game died between the checkpoint and resetting the journal
+
+        GameEngine restored = GameEngine.loadAutosave(new MoveJournal(checkpoint, journalFile));
+        assertNotNull(restored);
+        assertEquals(start, restored.getPlayer().getPosition(), "The old game's moves must not be replayed on the new checkpoint.");
+        assertEquals(0, restored.getPlayer().getStepsTaken());
+    }
+
+    @Test
+    void checkpoint_IsWrittenEveryIntervalAndRestartsTheJournal() throws IOException {
+        GameMap map = engine.getMap();
+        map.setItemAt(new Position(0, 7), new Empty()); // No shooting, so the game lasts
+        playMoves(MoveJournal.CHECKPOINT_INTERVAL + 3);
+
+        assertTrue(Files.size(journalFile) <= 8 + 4L * MoveJournal.RECORD_SIZE, "The journal should restart after a checkpoint.");
+        GameEngine restored = reload();
+        assertEquals(engine.getPlayer().getStepsTaken(), restored.getPlayer().getStepsTaken());
+    }
+
+    @Test
+    void loadAutosave_MobileMutants_ReplayMovesThemAsInTheLiveGame() throws IOException {
+        GameMap map = engine.getMap();
+        map.setItemAt(new Position(0, 7), new Empty()); // No shooting, so the game lasts
+        map.setItemAt(new Position(3, 6), new MeleeMutant());
+        map.setItemAt(new Position(7, 6), new MeleeMutant());
+        map.setItemAt(new Position(0, 3), new MeleeMutant());
+        engine.setMobileMutants(true);
+        playMoves(5); // Wakes the mutants on different turns
+        engine.setMobileMutants(true); // Checkpoints while the scheduler's wake order is not row-major
+        for (int i = 5; i < 7; i++) engine.processMove(i % 2 == 0 ? Direction.RIGHT : Direction.LEFT);
+        assertFalse(engine.isGameOver());
+        assertTrue(Files.size(journalFile) > 8, "The moves should be in the journal, not a checkpoint.");
+
+        GameEngine restored = reload();
+
+        assertEquals(mutantLayout(engine.getMap()), mutantLayout(restored.getMap()), "Replayed mutants must end where they did live.");
+        assertEquals(engine.getPlayer().getPosition(), restored.getPlayer().getPosition());
+        assertEquals(engine.getPlayer().getHp(), restored.getPlayer().getHp());
+    }
+
+    private static String mutantLayout(GameMap map) {
+        StringBuilder layout = new StringBuilder();
+        for (int y = 0; y < map.getHeight(); y++) {
+            for (int x = 0; x < map.getWidth(); x++) {
+                Item item = map.getCell(x, y).getItem();
+                layout.append(item instanceof MeleeMutant ? 'M' : '.');
+            }
+            layout.append('\n');
+        }
+        return layout.toString();
+    }
+}
@@ -0,0 +1,101 @@
+package dungeon.engine;
+
+import dungeon.engine.items.Empty;
+import dungeon.engine.items.MeleeMutant;
+import dungeon.engine.items.RangedMutant;
+import dungeon.engine.items.Wall;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MutantSchedulerTest {
+
+    private GameMap map;
+
+    @BeforeEach
+    void setUp() {
+        map = new GameMap(30, 30); // All cells start Empty
+    }
+
+    @Test
+    void tick_MeleeMutantNearby_StepsTowardsPlayer() {
+        map.setItemAt(new Position(5, 2), new MeleeMutant());
+        MutantScheduler scheduler = map.getMutantScheduler();
+
+        scheduler.tick(2, 2);
+
+        assertTrue(map.getCell(5, 2).getItem() instanceof Empty, "The mutant should have left its tile.");
+        assertTrue(map.getCell(4, 2).getItem() instanceof MeleeMutant, "The mutant should be one step closer.");
+        assertEquals(1, scheduler.getActiveCount());
+    }
+
+    @Test
+    void tick_MeleeMutantNextToPlayer_DoesNotStepOntoPlayer() {
+        map.setItemAt(new Position(3, 2), new MeleeMutant());
+        map.getMutantScheduler().tick(2, 2);
+
+        assertTrue(map.getCell(3, 2).getItem() instanceof MeleeMutant, "Fights only happen when the player steps onto a mutant.");
+    }
+
+    @Test
+    void tick_BlockedByWall_GoesAroundOnTheOtherAxis() {
+        map.setItemAt(new Position(5, 3), new MeleeMutant());
+        map.setItemAt(new Position(4, 3), new Wall());
+        map.getMutantScheduler().tick(1, 2);
+
+        assertTrue(map.getCell(5, 2).getItem() instanceof MeleeMutant, "With the direct step blocked it should close the other gap.");
+    }
+
+    @Test
+    void tick_DistantMutant_StaysDormantAndDoesNotMove() {
+        map.setItemAt(new Position(28, 28), new MeleeMutant());
+        MutantScheduler scheduler = map.getMutantScheduler();
+
+        scheduler.tick(1, 1);
+
+        assertTrue(map.getCell(28, 28).getItem() instanceof MeleeMutant);
+        assertEquals(0, scheduler.getActiveCount(), "Mutants outside the active zone should not be ticked.");
+        assertEquals(1, scheduler.getTrackedCount());
+    }
+
+    @Test
+    void tick_RangedMutantTooClose_BacksOff() {
+        map.setItemAt(new Position(3, 2), new RangedMutant());
+        map.getMutantScheduler().tick(2, 2);
+
+        assertTrue(map.getCell(4, 2).getItem() instanceof RangedMutant, "A ranged mutant should keep its distance.");
+    }
+
+    @Test
+    void tick_DefeatedMutant_IsDropped() {
+        map.setItemAt(new Position(6, 2), new MeleeMutant());
+        MutantScheduler scheduler = map.getMutantScheduler();
+        scheduler.tick(2, 2);
+        assertEquals(1, scheduler.getActiveCount());
+
+        map.setItemAt(new Position(5, 2), new Empty()); // Defeated where it moved to
+        scheduler.tick(2, 2);
+
+        assertEquals(0, scheduler.getActiveCount());
+        assertEquals(0, scheduler.getTrackedCount());
+    }
+
+    @Test
+    void gameEngine_MobileMutants_MoveWithThePlayer() {
+        GameEngine engine = new GameEngine();
+        engine.setMobileMutants(true);
+        engine.startGame(0);
+        GameMap gameMap = engine.getMap();
+        for (int y = 0; y < gameMap.getHeight(); y++) {
+            for (int x = 0; x < gameMap.getWidth(); x++) {
+                gameMap.setItemAt(new Position(x, y), new Empty());
+            }
+        }
+        engine.getPlayer().moveTo(new Position(0, 9));
+        gameMap.setItemAt(new Position(4, 8), new MeleeMutant());
+
+        engine.processMove(Direction.UP); // Player to (0, 8)
+
+        assertTrue(gameMap.getCell(3, 8).getItem() instanceof MeleeMutant, "The mutant should chase after the player's move.");
+    }
+}
@@ -0,0 +1,130 @@
+package dungeon.engine;
+
+import dungeon.engine.items.Empty;
+import dungeon.engine.items.Gold;
+import dungeon.engine.items.HealthPotion;
+import dungeon.engine.items.Ladder;
+import dungeon.engine.items.MeleeMutant;
+import dungeon.engine.items.RangedMutant;
+import dungeon.engine.items.Trap;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutcomeCalculatorTest {
+
+    private static final double EPSILON = 1e-12;
+
+    // One row: player at 0, a ranged mutant at 3 that shoots from tiles 1 and 2, the ladder at 5
+    private static GameMap corridor() {
+        GameMap map = new GameMap(6, 1);
+        map.setItemAt(3, 0, new RangedMutant());
+        map.setItemAt(5, 0, new Ladder());
+        return map;
+    }
+
+    private static OutcomeCalculator.Policy straight(Direction direction, int moves) {
+        return (moveIndex, x, y, hp) -> moveIndex < moves ? direction : null;
+    }
+
+    @Test
+    void evaluate_TwoRangedRolls_GivesExactProbabilities() {
+        OutcomeCalculator.Result result = OutcomeCalculator.evaluate(corridor(), true, false, 0, 0, 2, 0, 0,
+                straight(Direction.RIGHT, 5), 5);
+
+        assertEquals(0.25, result.getWinProbability(), EPSILON, "Both shots must miss to survive at 2 HP.");
+        assertEquals(0.75, result.getLoseHpProbability(), EPSILON);
+        assertEquals(0.0, result.getUnfinishedProbability(), EPSILON);
+        assertEquals(0.25 * RangedMutant.SCORE_VALUE - 0.75, result.getExpectedScore(), EPSILON,
+                "Wins keep the mutant's score, losses score -1.");
+    }
+
+    @Test
+    void evaluate_HpDependentPolicy_BranchesAndStillSumsToOne() {
+        GameMap map = corridor();
+        map.setItemAt(0, 0, new HealthPotion()); // Back at the start tile once the player has stepped off it
+        // Retreats to the potion when hurt, otherwise walks on
+        OutcomeCalculator.Policy cautious = (moveIndex, x, y, hp) -> {
+            if (moveIndex >= 12) return null;
+            return hp < Player.MAX_HP && x > 0 ? Direction.LEFT : Direction.RIGHT;
+        };
+        OutcomeCalculator.Result result = OutcomeCalculator.evaluate(map, true, false, 1, 0, Player.MAX_HP, 0, 0, cautious, 12);
+
+        double total = result.getWinProbability() + result.getLoseHpProbability() + result.getLoseStepsProbability()
+                + result.getNextLevelProbability() + result.getUnfinishedProbability();
+        assertEquals(1.0, total, EPSILON, "Every branch should end up in exactly one outcome.");
+        assertTrue(result.getPeakBranches() > 1, "A hit should send the policy a different way than a miss.");
+        assertTrue(result.getWinProbability() > 0.0 && result.getWinProbability() < 1.0);
+    }
+
+    // The last level, hand-built so the path below crosses seven ranged rolls, a trap, a melee
+    // mutant, a potion and gold before the ladder, and both winning and dying are likely
+    private static GameEngine lastLevel() {
+        GameEngine engine = new GameEngine();
+        engine.startGame(0);
+        clear(engine.getMap());
+        engine.getMap().setItemAt(new Position(1, 9), new Ladder());
+        engine.processMove(Direction.RIGHT);
+        assertEquals(GameEngine.MAX_LEVELS, engine.getCurrentLevel());
+
+        GameMap map = engine.getMap();
+        clear(map);
+        map.setItemAt(new Position(1, 9), new Gold());
+        map.setItemAt(new Position(2, 7), new RangedMutant());
+        map.setItemAt(new Position(4, 9), new RangedMutant());
+        map.setItemAt(new Position(5, 8), new RangedMutant());
+        map.setItemAt(new Position(7, 9), new RangedMutant());
+        map.setItemAt(new Position(9, 7), new Trap());
+        map.setItemAt(new Position(9, 5), new HealthPotion());
+        map.setItemAt(new Position(7, 4), new RangedMutant());
+        map.setItemAt(new Position(9, 3), new MeleeMutant());
+        map.setItemAt(new Position(9, 0), new Ladder());
+        engine.getPlayer().moveTo(new Position(0, 9));
+        engine.getPlayer().heal(Player.MAX_HP); // Undo whatever the random level's mutants did on arrival
+        return engine;
+    }
+
+    private static void clear(GameMap map) {
+        for (int y = 0; y < map.getHeight(); y++) {
+            for (int x = 0; x < map.getWidth(); x++) map.setItemAt(new Position(x, y), new Empty());
+        }
+    }
+
+    @Test
+    void evaluate_HandBuiltLevel_MatchesBatchSampling() {
+        GameEngine engine = lastLevel();
+        List<Direction> moves = new ArrayList<>();
+        moves.add(Direction.DOWN); // Into the boundary: no step
+        for (int i = 0; i < 9; i++) moves.add(Direction.RIGHT);
+        for (int i = 0; i < 9; i++) moves.add(Direction.UP);
+        OutcomeCalculator.Result exact = OutcomeCalculator.evaluate(engine, moves);
+        assertTrue(exact.getWinProbability() > 0.1 && exact.getLoseHpProbability() > 0.1,
+                "The level should be able to go either way, or the comparison proves little.");
+
+        int games = 20000;
+        BatchEngine batch = new BatchEngine(games, 7L);
+        for (int g = 0; g < games; g++) batch.loadFrom(g, engine);
+        Direction[] step = new Direction[games];
+        for (Direction move : moves) {
+            Arrays.fill(step, move);
+            batch.step(step);
+        }
+        int won = 0, lostHp = 0;
+        double scoreSum = 0;
+        for (int g = 0; g < games; g++) {
+            if (batch.getGameState(g) == GameState.WIN_GAME) won++;
+            if (batch.getGameState(g) == GameState.LOSE_HP) lostHp++;
+            scoreSum += batch.getScore(g);
+        }
+
+        assertEquals(exact.getWinProbability(), (double) won / games, 0.02, "Sampling should agree with the exact win chance.");
+        assertEquals(exact.getLoseHpProbability(), (double) lostHp / games, 0.02, "Sampling should agree with the exact HP loss chance.");
+        assertEquals(1.0, exact.getWinProbability() + exact.getLoseHpProbability(), EPSILON, "The path ends on the ladder.");
+        assertEquals(exact.getExpectedScore(), scoreSum / games, 0.3);
+        assertEquals(GameState.IN_PROGRESS, engine.getGameState(), "Evaluating should not change the engine.");
+    }
+}
@@ -2,6 +2,13 @@ package dungeon.engine;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class PlayerTest {
@@ -109,4 +116,27 @@ class PlayerTest {
         assertEquals(7, player.getHp(), "HP should be retained from previous level.");
         assertEquals(20, player.getScore(), "Score should be retained from previous level.");
     }
+
+    @Test
+    void serialization_KeepsPositionAndStats() throws IOException, ClassNotFoundException {
+        player.moveTo(3, 7);
+        player.takeDamage(4);
+        player.addScore(6);
+        player.incrementSteps();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(player);
+        }
+        Player copy;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = (Player) in.readObject();
+        }
+
+        assertEquals(new Position(3, 7), copy.getPosition(), "Position should survive saving and loading.");
+        assertTrue(copy.isAt(3, 7), "x and y should be restored from the saved position.");
+        assertEquals(6, copy.getHp(), "HP should survive saving and loading.");
+        assertEquals(6, copy.getScore(), "Score should survive saving and loading.");
+        assertEquals(1, copy.getStepsTaken(), "Steps should survive saving and loading.");
+    }
 }
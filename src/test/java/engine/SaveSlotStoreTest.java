@@ -0,0 +1,133 @@
+package dungeon.engine;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SaveSlotStoreTest {
+
+    private Path file;
+    private GameEngine engine;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.createTempDirectory("slots-test").resolve("slots.dat");
+        engine = new GameEngine();
+        engine.startGame(4);
+    }
+
+    @Test
+    void listSlots_ReturnsMetadataFromTheIndex() throws IOException {
+        try (SaveSlotStore store = new SaveSlotStore(file)) {
+            assertTrue(store.listSlots().isEmpty());
+            engine.getPlayer().addScore(7);
+            store.save(0, engine);
+            store.save(5, engine);
+
+            List<SaveSlotStore.SlotInfo> slots = store.listSlots();
+            assertEquals(2, slots.size());
+            SaveSlotStore.SlotInfo info = slots.get(1);
+            assertEquals(5, info.slot());
+            assertEquals(1, info.level());
+            assertEquals(engine.getPlayer().getHp(), info.hp());
+            assertEquals(7, info.score());
+            assertEquals(4, info.difficulty());
+            assertTrue(info.savedAtMillis() > 0);
+            assertEquals(1, store.firstFreeSlot());
+        }
+    }
+
+    @Test
+    void load_RestoresTheSavedGameAfterReopening() throws IOException {
+        Position start = engine.getPlayer().getPosition();
+        try (SaveSlotStore store = new SaveSlotStore(file)) {
+            store.save(3, engine);
+        }
+        try (SaveSlotStore store = new SaveSlotStore(file)) {
+            GameEngine loaded = store.load(3);
+
+            assertNotNull(loaded);
+            assertEquals(start, loaded.getPlayer().getPosition());
+            assertEquals(engine.getMap().getLadderPosition(), loaded.getMap().getLadderPosition());
+            assertNull(store.load(4), "Empty slots load nothing.");
+        }
+    }
+
+    @Test
+    void load_FogOfWarGame_ShowsTheTilesAroundThePlayer() throws IOException {
+        engine.setFogOfWar(true);
+        Position start = engine.getPlayer().getPosition();
+        try (SaveSlotStore store = new SaveSlotStore(file)) {
+            store.save(2, engine);
+            GameMap map = store.load(2).getMap();
+
+            assertTrue(map.isVisible(start.x(), start.y()), "The player's own tile should be visible after loading.");
+            assertTrue(map.isVisible(start.x() + 1, start.y()), "Tiles next to the player should be visible after loading.");
+        }
+    }
+
+    @Test
+    void save_OverwritingASlotKeepsOtherSlotsIntact() throws IOException {
+        GameEngine other = new GameEngine();
+        other.startGame(9);
+        try (SaveSlotStore store = new SaveSlotStore(file)) {
+            store.save(0, engine);
+            store.save(1, other);
+            engine.setFogOfWar(true); // Makes the serialized game larger, so slot 0 has to move
+            engine.getMap().updateVisibility(0, 9);
+            store.save(0, engine);
+
+            assertTrue(store.load(0).isFogOfWar());
+            assertEquals(9, store.load(1).getDifficultySetting());
+
+            store.delete(0);
+            assertFalse(store.isUsed(0));
+            assertEquals(1, store.listSlots().size());
+        }
+    }
+
+    @Test
+    void save_OverwritingAUsedSlot_WritesTheOtherRegionFirst() throws IOException {
+        try (SaveSlotStore store = new SaveSlotStore(file)) {
+            store.save(0, engine);
+            long first = store.getDataOffset(0);
+            engine.getPlayer().addScore(3);
+            store.save(0, engine);
+            long second = store.getDataOffset(0);
+            assertNotEquals(first, second, "An overwrite must not write over the save the index still points to.");
+            long size = Files.size(file);
+
+            engine.getPlayer().addScore(4);
+            store.save(0, engine);
+            assertEquals(first, store.getDataOffset(0), "The slot should alternate between its two regions.");
+            assertEquals(size, Files.size(file), "Alternating should not grow the file.");
+            assertEquals(7, store.load(0).getPlayer().getScore());
+        }
+    }
+
+    @Test
+    void save_InterruptedBeforeTheFlip_LeavesThePreviousSave() throws IOException {
+        try (SaveSlotStore store = new SaveSlotStore(file)) {
+            store.save(0, engine);
+            engine.getPlayer().addScore(5);
+            engine.setFogOfWar(true); // A larger game, so the interrupted copy also gets a new region
+            store.prepare(0, engine); // Crashes before commit
+            store.prepare(1, engine);
+        }
+        try (SaveSlotStore store = new SaveSlotStore(file)) {
+            assertEquals(0, store.getSlotInfo(0).score(), "The index should still describe the previous save.");
+            assertEquals(0, store.load(0).getPlayer().getScore(), "The previous save's data should be intact.");
+            assertFalse(store.load(0).isFogOfWar());
+            assertFalse(store.isUsed(1), "A first save that never committed should leave the slot unused.");
+
+            store.save(0, engine);
+            assertEquals(5, store.load(0).getPlayer().getScore(), "The next save should complete normally.");
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package dungeon.engine;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScoreHistoryTest {
+
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.createTempDirectory("score-history-test").resolve("history.dat");
+    }
+
+    @Test
+    void record_TwoWritersOnOneFile_AppendInsteadOfOverwriting() throws IOException {
+        ScoreHistory first = new ScoreHistory(file); // Stands in for another process
+        ScoreHistory second = new ScoreHistory(file);
+        first.getLeaderboard();
+        second.getLeaderboard();
+        assertFalse(Files.exists(file), "Reading an empty history should not create the file.");
+
+        first.record(new ScoreEntry(30, LocalDate.of(2024, 1, 1), 3));
+        second.record(new ScoreEntry(40, LocalDate.of(2024, 1, 2), 5)); // Did not see the 30 in memory
+        first.record(new ScoreEntry(10, LocalDate.of(2024, 1, 3), 3));
+
+        assertEquals(3, second.getLeaderboard().size(), "Each writer should pick up the other's games.");
+        Leaderboard reread = new ScoreHistory(file).getLeaderboard();
+        assertEquals(3, reread.size(), "Every game should be in the file.");
+        assertEquals(2, reread.rankOf(30));
+        assertEquals(1, reread.size(5));
+        assertEquals(4 + 3 * ScoreHistory.RECORD, Files.size(file), "Each game should add one record.");
+    }
+
+    @Test
+    void getLeaderboard_OldSerializedFile_ConvertedAndKept() throws IOException {
+        try (ObjectOutputStream oos = new ObjectOutputStream(Files.newOutputStream(file))) {
+            oos.writeObject(new ArrayList<>(Arrays.asList(new ScoreEntry(12, LocalDate.of(2023, 5, 1), 2),
+                    new ScoreEntry(-1, LocalDate.of(2023, 5, 2), 2))));
+        }
+        ScoreHistory history = new ScoreHistory(file);
+        assertEquals(2, history.getLeaderboard().size(), "Games from the old format should be kept.");
+
+        history.record(new ScoreEntry(20, LocalDate.of(2024, 1, 1), 2));
+        Leaderboard reread = new ScoreHistory(file).getLeaderboard();
+        assertEquals(3, reread.size());
+        assertEquals(1, reread.rankOf(20));
+        assertEquals(3, reread.rankOf(-1));
+    }
+
+    @Test
+    void record_AfterTornRecord_OverwritesItAndStaysAligned() throws IOException {
+        ScoreHistory history = new ScoreHistory(file);
+        history.record(new ScoreEntry(5, LocalDate.of(2024, 1, 1), 1));
+        Files.write(file, new byte[] { 1, 2, 3 }, StandardOpenOption.APPEND); // A crash mid-append
+
+        ScoreHistory other = new ScoreHistory(file);
+        other.record(new ScoreEntry(7, LocalDate.of(2024, 1, 2), 1));
+        Leaderboard reread = new ScoreHistory(file).getLeaderboard();
+        assertEquals(2, reread.size(), "The torn record should be dropped, not read as a game.");
+        assertEquals(1, reread.rankOf(7));
+        assertEquals(2, reread.rankOf(5));
+    }
+}
@@ -0,0 +1,247 @@
+package dungeon.engine;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionManagerTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private static long sessionBytes() {
+        GameEngine engine = new GameEngine();
+        engine.startGame(3);
+        return MemoryFootprint.of(engine).getTotal();
+    }
+
+    private void advanceMillis(long millis) { now.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis)); }
+
+    @Test
+    void open_BudgetFull_RejectPolicyThrows() {
+        long perSession = sessionBytes();
+        SessionManager manager = new SessionManager(perSession * 2 + perSession / 2, 1000, SessionManager.FullPolicy.REJECT, now::get);
+        manager.open(3);
+        manager.open(3);
+        advanceMillis(5000);
+
+        assertThrows(IllegalStateException.class, () -> manager.open(3), "A third session should not fit.");
+        assertEquals(2, manager.getSessionCount());
+        assertEquals(0, manager.getEvictedCount(), "REJECT never evicts.");
+        assertTrue(manager.getUsedBytes() <= manager.getBudgetBytes());
+    }
+
+    @Test
+    void open_BudgetFull_EvictsLeastRecentlyUsedIdleSession() {
+        long perSession = sessionBytes();
+        SessionManager manager = new SessionManager(perSession * 2 + perSession / 2, 5000, SessionManager.FullPolicy.EVICT_IDLE, now::get);
+        long first = manager.open(3);
+        long second = manager.open(3);
+        advanceMillis(2000);
+        manager.processMove(first, Direction.UP); // First is now the most recently used
+
+        assertThrows(IllegalStateException.class, () -> manager.open(3), "Nothing has been idle long enough yet.");
+
+        advanceMillis(4000); // Second idle for 6s, first for 4s
+        long third = manager.open(3);
+        assertFalse(manager.isOpen(second), "The least recently used idle session should go.");
+        assertTrue(manager.isOpen(first));
+        assertTrue(manager.isOpen(third));
+        assertEquals(1, manager.getEvictedCount());
+        assertThrows(IllegalArgumentException.class, () -> manager.processMove(second, Direction.UP));
+    }
+
+    @Test
+    void close_ReleasesTheSessionsBytes() {
+        SessionManager manager = new SessionManager(Long.MAX_VALUE, 1000, SessionManager.FullPolicy.REJECT, now::get);
+        long id = manager.open(3);
+        assertEquals(manager.footprint(id).getTotal(), manager.getUsedBytes(), 64, "Used bytes should be the session's estimate.");
+        manager.close(id);
+        assertEquals(0, manager.getUsedBytes());
+        assertEquals(0, manager.getSessionCount());
+    }
+
+    private static String describe(GameEngine engine) {
+        StringBuilder sb = new StringBuilder();
+        Player player = engine.getPlayer();
+        sb.append(engine.getCurrentLevel()).append(' ').append(engine.getGameState()).append(' ')
+                .append(player.getX()).append(',').append(player.getY()).append(' ')
+                .append(player.getHp()).append(' ').append(player.getScore()).append(' ').append(player.getStepsTaken()).append(' ');
+        GameMap map = engine.getMap();
+        for (int y = 0; y < map.getHeight(); y++) {
+            for (int x = 0; x < map.getWidth(); x++) sb.append(TileType.symbol(TileType.of(map.getCell(x, y).getItem())));
+        }
+        return sb.append(' ').append(map.getLadderPosition()).toString();
+    }
+
+    @Test
+    void toCompactBytes_RoundTrip_KeepsTheGame() throws IOException {
+        GameEngine engine = new GameEngine();
+        engine.startGame(5);
+        engine.setFogOfWar(true);
+        engine.processMove(Direction.UP);
+        engine.processMove(Direction.RIGHT);
+
+        byte[] compact = engine.toCompactBytes();
+        GameEngine copy = GameEngine.fromCompactBytes(compact);
+        assertEquals(describe(engine), describe(copy), "The rebuilt engine should be the same game.");
+        assertEquals(engine.getMap().isRevealed(5, 5), copy.getMap().isRevealed(5, 5), "Fog memory should be kept.");
+        assertTrue(compact.length < 300, "A 10x10 game should take a few hundred bytes, took " + compact.length);
+    }
+
+    @Test
+    void processMove_HibernatedSession_WakesTransparently() throws IOException {
+        Path spillFile = Files.createTempDirectory("session-spill-test").resolve("sessions.spill");
+        try (SessionManager manager = new SessionManager(Long.MAX_VALUE, 1000, SessionManager.FullPolicy.REJECT, now::get)) {
+            manager.enableHibernation(500, 100, spillFile);
+            long id = manager.open(2);
+            manager.processMove(id, Direction.UP);
+            String before = manager.inspect(id, SessionManagerTest::describe);
+            long residentBytes = manager.getUsedBytes();
+
+            advanceMillis(600);
+            manager.hibernateIdle();
+            assertTrue(manager.isHibernated(id), "An idle session should be hibernated.");
+            assertTrue(manager.getUsedBytes() < residentBytes / 10, "Hibernated on disk, the session should cost little heap.");
+
+            assertEquals(before, manager.inspect(id, SessionManagerTest::describe), "Waking should restore the same game.");
+            assertFalse(manager.isHibernated(id));
+            manager.processMove(id, Direction.RIGHT);
+            assertEquals(2, (int) manager.inspect(id, engine -> engine.getPlayer().getStepsTaken()), "Moves should carry on from the saved state.");
+        }
+        assertFalse(Files.exists(spillFile), "The spill file should be removed on close.");
+    }
+
+    @Test
+    void open_MoreThanMaxResident_HibernatesLeastRecentlyUsed() throws IOException {
+        SessionManager manager = new SessionManager(Long.MAX_VALUE, 1000, SessionManager.FullPolicy.REJECT, now::get);
+        manager.enableHibernation(60_000, 2, null);
+        long first = manager.open(3);
+        long second = manager.open(3);
+        advanceMillis(1);
+        manager.processMove(first, Direction.UP);
+        long third = manager.open(3);
+
+        assertEquals(2, manager.getResidentCount());
+        assertTrue(manager.isHibernated(second), "The least recently used session should be hibernated.");
+        manager.processMove(second, Direction.UP);
+        assertFalse(manager.isHibernated(second));
+        assertTrue(manager.isHibernated(first), "Waking one should hibernate the next least recently used.");
+        assertFalse(manager.isHibernated(third));
+        assertEquals(3, manager.getSessionCount(), "Hibernation never closes a session.");
+    }
+
+    @Test
+    void open_BudgetFull_EvictsHibernatedSessionsLeastRecentlyUsedFirst() throws IOException {
+        GameEngine template = new GameEngine();
+        template.startGame(3);
+        byte[] game = template.toCompactBytes(); // Identical copies, so every session costs the same
+        long resident = MemoryFootprint.of(GameEngine.fromCompactBytes(game)).getTotal();
+        SessionManager probe = new SessionManager(Long.MAX_VALUE, 1000, SessionManager.FullPolicy.REJECT, now::get);
+        probe.enableHibernation(0, 1, null);
+        probe.open(GameEngine.fromCompactBytes(game));
+        probe.hibernateIdle();
+        long hibernated = probe.getUsedBytes();
+
+        SessionManager manager = new SessionManager(resident + 2 * hibernated + hibernated / 2, 1000,
+                SessionManager.FullPolicy.EVICT_IDLE, now::get);
+        manager.enableHibernation(60_000, 1, null);
+        long first = manager.open(GameEngine.fromCompactBytes(game));
+        advanceMillis(10);
+        long second = manager.open(GameEngine.fromCompactBytes(game)); // Hibernates the first
+        advanceMillis(10);
+        long third = manager.open(GameEngine.fromCompactBytes(game)); // Hibernates the second
+        advanceMillis(10);
+        manager.inspect(first, engine -> null); // Wakes the first, hibernates the third; the second is now the oldest
+
+        advanceMillis(5000);
+        long fourth = manager.open(GameEngine.fromCompactBytes(game));
+        assertFalse(manager.isOpen(second), "The least recently used hibernated session should be evicted.");
+        assertTrue(manager.isOpen(first), "A more recently used session should stay, whatever its id.");
+        assertTrue(manager.isOpen(third));
+        assertTrue(manager.isOpen(fourth));
+        assertEquals(1, manager.getEvictedCount());
+    }
+
+    @Test
+    void close_SpilledSessions_RegionsReusedSoTheFileStopsGrowing() throws IOException {
+        Path spillFile = Files.createTempDirectory("session-spill-test").resolve("sessions.spill");
+        try (SessionManager manager = new SessionManager(Long.MAX_VALUE, 1000, SessionManager.FullPolicy.EVICT_IDLE, now::get)) {
+            manager.enableHibernation(0, 1, spillFile);
+            long sizeAfterFirstRound = 0;
+            for (int round = 0; round < 20; round++) {
+                long[] ids = new long[10];
+                for (int i = 0; i < ids.length; i++) ids[i] = manager.open(3);
+                manager.hibernateIdle();
+                for (long id : ids) manager.close(id);
+                if (round == 0) sizeAfterFirstRound = manager.getSpillBytes();
+            }
+            assertTrue(sizeAfterFirstRound > 0, "Pre-condition: sessions should have been spilled.");
+            assertEquals(sizeAfterFirstRound, manager.getSpillBytes(), "Closed sessions' regions should be reused, not left behind.");
+        }
+    }
+
+    @Test
+    void inspect_WakingASession_MakesRoomForIt() throws IOException {
+        GameEngine template = new GameEngine();
+        template.startGame(3);
+        byte[] game = template.toCompactBytes();
+        long resident = MemoryFootprint.of(GameEngine.fromCompactBytes(game)).getTotal();
+        SessionManager manager = new SessionManager(resident + resident / 2, 1000, SessionManager.FullPolicy.REJECT, now::get);
+        manager.enableHibernation(60_000, 100, null);
+        long first = manager.open(GameEngine.fromCompactBytes(game));
+        advanceMillis(60_000);
+        long second = manager.open(GameEngine.fromCompactBytes(game)); // Hibernates the idle first
+
+        manager.inspect(first, engine -> null);
+        assertFalse(manager.isHibernated(first));
+        assertTrue(manager.isHibernated(second), "The other session should be hibernated to make room.");
+        assertTrue(manager.getUsedBytes() <= manager.getBudgetBytes(), "Waking should not leave the budget overdrawn.");
+    }
+
+    @Test
+    void hibernateIdle_SessionWithListenersOrAnalytics_StaysBuilt() throws IOException {
+        SessionManager manager = new SessionManager(Long.MAX_VALUE, 1000, SessionManager.FullPolicy.REJECT, now::get);
+        manager.enableHibernation(500, 100, null);
+        GameEngine watched = new GameEngine();
+        watched.startGame(3);
+        watched.addMoveListener((engine, direction) -> { });
+        try (EventRecorder recorder = new EventRecorder(Files.createTempDirectory("session-analytics-test").resolve("events.bin"))) {
+            GameEngine recorded = new GameEngine();
+            recorded.startGame(3);
+            recorded.setAnalytics(recorder);
+            long first = manager.open(watched);
+            long second = manager.open(recorded);
+            long plain = manager.open(3);
+
+            advanceMillis(600);
+            manager.hibernateIdle();
+            assertFalse(manager.isHibernated(first), "Hibernating would drop the move listener.");
+            assertFalse(manager.isHibernated(second), "Hibernating would drop the analytics recorder.");
+            assertTrue(manager.isHibernated(plain));
+        }
+    }
+
+    @Test
+    void inspect_WakingAnEndlessSession_DefersThePrefetchToTheNextMove() throws IOException {
+        SessionManager manager = new SessionManager(Long.MAX_VALUE, 1000, SessionManager.FullPolicy.REJECT, now::get);
+        manager.enableHibernation(500, 100, null);
+        GameEngine endless = new GameEngine();
+        endless.startGame(3, true);
+        long id = manager.open(endless);
+        advanceMillis(600);
+        manager.hibernateIdle();
+        assertTrue(manager.isHibernated(id));
+
+        assertFalse(manager.inspect(id, GameEngine::isPrefetching), "Only looking at a session should not generate a level.");
+        assertTrue(manager.inspect(id, engine -> {
+            engine.processMove(Direction.UP);
+            return engine.isPrefetching();
+        }), "The first move should start the prefetch.");
+    }
+}
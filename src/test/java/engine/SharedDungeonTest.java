@@ -0,0 +1,104 @@
+package dungeon.engine;
+
+import dungeon.engine.items.Gold;
+import dungeon.engine.items.Ladder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SharedDungeonTest {
+
+    private ExecutorService executor;
+    private GameMap map;
+    private SharedDungeon dungeon;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        map = new GameMap(10, 10); // All empty, so only the test's items matter
+        dungeon = new SharedDungeon(map, executor, 42L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void move_TwoPlayersReachingTheSameGold_OnlyTheFirstGetsIt() {
+        map.setItemAt(new Position(1, 0), new Gold());
+        int first = dungeon.join(0, 0).join();
+        int second = dungeon.join(2, 0).join();
+
+        SharedDungeon.MoveResult taken = dungeon.move(first, Direction.RIGHT).join();
+        SharedDungeon.MoveResult blocked = dungeon.move(second, Direction.LEFT).join();
+        assertTrue(taken.moved(), "The first player should reach the gold.");
+        assertEquals(Gold.VALUE, taken.score(), "The first player should get the gold.");
+        assertFalse(blocked.moved(), "A tile with another player on it should block the move.");
+
+        dungeon.move(first, Direction.DOWN).join();
+        SharedDungeon.MoveResult late = dungeon.move(second, Direction.LEFT).join();
+        assertTrue(late.moved(), "The tile should be free once the first player left it.");
+        assertEquals(0, late.score(), "The gold should already be gone.");
+    }
+
+    @Test
+    void move_ConcurrentPlayers_EveryMoveIsAppliedOnce() {
+        int playerCount = 24;
+        int movesEach = 30;
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < playerCount; i++) ids.add(dungeon.join().join());
+        assertFalse(ids.contains(-1), "All players should find a free tile.");
+        assertEquals(playerCount, (int) dungeon.getPlayerCount().join());
+
+        List<CompletableFuture<SharedDungeon.MoveResult>> results = new ArrayList<>();
+        List<Thread> clients = new ArrayList<>();
+        for (int id : ids) {
+            Thread client = new Thread(() -> {
+                Direction[] directions = Direction.values();
+                for (int m = 0; m < movesEach; m++) {
+                    synchronized (results) { results.add(dungeon.move(id, directions[(id + m) % directions.length])); }
+                }
+            });
+            clients.add(client);
+            client.start();
+        }
+        for (Thread client : clients) {
+            try { client.join(); } catch (InterruptedException e) { fail("Interrupted"); }
+        }
+
+        int moved = 0;
+        for (CompletableFuture<SharedDungeon.MoveResult> result : results) if (result.join().moved()) moved++;
+        int steps = 0;
+        boolean[] occupied = new boolean[100];
+        for (int id : ids) {
+            SharedDungeon.MoveResult status = dungeon.status(id).join();
+            steps += status.steps();
+            int tile = status.y() * 10 + status.x();
+            assertFalse(occupied[tile], "Two players should never share a tile.");
+            occupied[tile] = true;
+        }
+        assertEquals(playerCount * movesEach, results.size());
+        assertEquals(moved, steps, "Every accepted move should count exactly one step.");
+    }
+
+    @Test
+    void move_OntoTheLadder_PlayerEscapesAndLeavesTheTile() {
+        map.setItemAt(new Position(1, 0), new Ladder());
+        int escaping = dungeon.join(0, 0).join();
+        int other = dungeon.join(2, 0).join();
+
+        SharedDungeon.MoveResult escaped = dungeon.move(escaping, Direction.RIGHT).join();
+        assertEquals(GameState.WIN_GAME, escaped.state(), "Reaching the ladder should win.");
+        assertFalse(dungeon.move(escaping, Direction.RIGHT).join().moved(), "A finished player cannot move.");
+        assertTrue(dungeon.move(other, Direction.LEFT).join().moved(), "The ladder tile should be free for the next player.");
+    }
+}
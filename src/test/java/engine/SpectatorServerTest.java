@@ -0,0 +1,125 @@
+package dungeon.engine;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpectatorServerTest {
+
+    private SpectatorServer server;
+    private GameEngine engine;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new SpectatorServer(0);
+        engine = new GameEngine();
+        engine.startGame(0); // No ranged mutants
+        engine.addMoveListener(server);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void deltas_AppliedToTheFirstSnapshot_MatchTheEngine() throws IOException {
+        server.publish(engine);
+        try (Socket socket = connect()) {
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            byte[] tiles = null;
+            int[] stats = new int[7];
+            for (Direction direction : new Direction[] {Direction.UP, Direction.RIGHT, Direction.UP, Direction.RIGHT}) {
+                if (tiles == null) {
+                    assertEquals(SpectatorServer.FULL, in.readByte(), "A new spectator should start with a full snapshot.");
+                    in.readInt();
+                    tiles = new byte[in.readShort() * in.readShort()];
+                    readStats(in, stats);
+                    in.readFully(tiles);
+                }
+                if (!engine.processMoveQuietly(direction)) continue;
+                assertEquals(SpectatorServer.DELTA, in.readByte(), "Moves should arrive as deltas.");
+                in.readInt();
+                readStats(in, stats);
+                int changed = in.readShort();
+                for (int i = 0; i < changed; i++) tiles[in.readShort()] = in.readByte();
+            }
+            GameMap map = engine.getMap();
+            for (int tile = 0; tile < tiles.length; tile++) {
+                assertEquals(TileType.of(map.getCellAt(tile).getItem()), tiles[tile], "Tile " + tile + " should match the engine.");
+            }
+            assertEquals(engine.getPlayer().getHp(), stats[1]);
+            assertEquals(engine.getPlayer().getScore(), stats[2]);
+            assertEquals(engine.getPlayer().getStepsTaken(), stats[3]);
+            assertEquals(engine.getPlayer().getX(), stats[4]);
+            assertEquals(engine.getPlayer().getY(), stats[5]);
+        }
+    }
+
+    @Test
+    void lateJoiner_GetsTheLatestFullSnapshotFirst() throws IOException {
+        server.publish(engine);
+        for (Direction direction : Direction.values()) engine.processMoveQuietly(direction);
+        try (Socket late = connect()) {
+            DataInputStream in = new DataInputStream(late.getInputStream());
+            assertEquals(SpectatorServer.FULL, in.readByte(), "A late joiner should get a full snapshot, not a delta.");
+            in.readInt();
+            in.readShort();
+            in.readShort();
+            int[] stats = new int[7];
+            readStats(in, stats);
+            assertEquals(engine.getPlayer().getStepsTaken(), stats[3], "The snapshot should be the latest one.");
+        }
+    }
+
+    @Test
+    void slowSpectator_FallingTooFarBehind_IsDisconnected() throws IOException {
+        GameEngine other = new GameEngine();
+        other.startGame(0); // Publishing the two in turn makes every delta rewrite most tiles
+        try (Socket slow = new Socket()) {
+            slow.setReceiveBufferSize(1024);
+            slow.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), server.getPort()));
+            awaitSpectators(1);
+            // Never read, so once the socket buffers fill up the server's backlog grows
+            for (int i = 0; i < 200_000 && server.getDroppedCount() == 0; i++) server.publish(i % 2 == 0 ? engine : other);
+
+            awaitSpectators(0);
+            assertEquals(1, server.getDroppedCount(), "The spectator that stopped reading should be dropped.");
+        }
+        try (Socket next = connect()) {
+            assertEquals(SpectatorServer.FULL, new DataInputStream(next.getInputStream()).readByte(), "New spectators should still be served.");
+        }
+    }
+
+    private Socket connect() throws IOException {
+        int before = server.getSpectatorCount();
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+        socket.setSoTimeout(5000);
+        awaitSpectators(before + 1); // The server only learns about the spectator on its own thread
+        return socket;
+    }
+
+    private void awaitSpectators(int count) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (server.getSpectatorCount() != count) {
+            assertTrue(System.nanoTime() < deadline, "Expected " + count + " spectators, the server has " + server.getSpectatorCount() + ".");
+            Thread.yield();
+        }
+    }
+
+    private static void readStats(DataInputStream in, int[] stats) throws IOException {
+        for (int i = 0; i < 4; i++) stats[i] = in.readInt();
+        stats[4] = in.readShort();
+        stats[5] = in.readShort();
+        stats[6] = in.readByte();
+    }
+}
@@ -0,0 +1,94 @@
+package dungeon.engine;
+
+import dungeon.engine.items.Empty;
+import dungeon.engine.items.Ladder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TerminalRendererTest {
+
+    private static final String ESC = "\u001b[";
+    private static final Pattern CURSOR_MOVE = Pattern.compile("\u001b\\[(\\d+);(\\d+)H");
+
+    private GameEngine engine;
+    private ByteArrayOutputStream output;
+    private TerminalRenderer renderer;
+
+    @BeforeEach
+    void setUp() {
+        engine = new GameEngine();
+        engine.startGame(0);
+        GameMap map = engine.getMap();
+        for (int y = 0; y < map.getHeight(); y++) {
+            for (int x = 0; x < map.getWidth(); x++) map.setItemAt(x, y, new Empty());
+        }
+        output = new ByteArrayOutputStream();
+        renderer = new TerminalRenderer(output);
+    }
+
+    private String renderFrame() {
+        output.reset();
+        renderer.render(engine, "");
+        return output.toString();
+    }
+
+    // Cursor moves into the map area (rows 2-11 for a 10x10 map), as "row;col"
+    private static List<String> mapCursorMoves(String frame) {
+        List<String> moves = new ArrayList<>();
+        Matcher matcher = CURSOR_MOVE.matcher(frame);
+        while (matcher.find()) {
+            int row = Integer.parseInt(matcher.group(1));
+            if (row >= 2 && row <= 11) moves.add(row + ";" + matcher.group(2));
+        }
+        return moves;
+    }
+
+    @Test
+    void render_AfterOneMove_SendsOnlyTheChangedTiles() {
+        String first = renderFrame();
+        assertTrue(first.startsWith(ESC + "2J"), "The first frame should clear the screen.");
+        assertEquals(10, mapCursorMoves(first).size(), "The first frame should draw every map row.");
+
+        engine.processMove(Direction.RIGHT); // (0,9) -> (1,9)
+        String second = renderFrame();
+
+        assertFalse(second.contains(ESC + "2J"), "A move should not clear the screen.");
+        assertFalse(second.contains("LEVEL"), "The unchanged header should not be resent.");
+        assertEquals(List.of("11;1"), mapCursorMoves(second), "Only the old player tile needs a cursor move.");
+        assertTrue(second.contains(ESC + "11;1H. P"), "The old tile and its neighbour should be written in one run.");
+        assertTrue(second.contains("Steps=1"), "The status line changed and should be resent.");
+    }
+
+    @Test
+    void render_AfterLevelChange_RedrawsEverything() {
+        renderFrame();
+        engine.getMap().setItemAt(1, 9, new Ladder());
+
+        engine.processMove(Direction.RIGHT);
+        assertEquals(2, engine.getCurrentLevel(), "Pre-condition: the ladder should lead to level 2.");
+        String frame = renderFrame();
+
+        assertTrue(frame.startsWith(ESC + "2J"), "A new level should clear the screen.");
+        assertTrue(frame.contains("---- LEVEL 2 MAP ----"));
+        assertEquals(10, mapCursorMoves(frame).size(), "Every map row should be drawn again.");
+    }
+
+    @Test
+    void render_AfterInvalidate_RedrawsEverything() {
+        renderFrame();
+        renderer.invalidate();
+        String frame = renderFrame();
+
+        assertTrue(frame.startsWith(ESC + "2J"));
+        assertTrue(frame.contains("---- LEVEL 1 MAP ----"), "The header should be resent after a clear.");
+        assertEquals(10, mapCursorMoves(frame).size());
+    }
+}
@@ -0,0 +1,127 @@
+package dungeon.engine;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopScoresTest {
+
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        file = Files.createTempDirectory("top-scores-test").resolve("scores.dat");
+    }
+
+    @Test
+    void submit_FromManyThreads_KeepsTheBestEntries() throws InterruptedException {
+        TopScores board = new TopScores(null, TopScores.SIZE);
+        List<ScoreEntry> all = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int seed = t;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 500; i++) {
+                    ScoreEntry entry = new ScoreEntry((i * 7919 + seed * 31) % 1000 + 1, LocalDate.of(2024, 1, 1));
+                    all.add(entry);
+                    board.submit(entry);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) thread.join();
+
+        List<Integer> expected = new ArrayList<>();
+        for (ScoreEntry entry : all) expected.add(entry.getScore());
+        expected.sort(Collections.reverseOrder());
+        List<Integer> actual = new ArrayList<>();
+        for (ScoreEntry entry : board.get()) actual.add(entry.getScore());
+        assertEquals(expected.subList(0, TopScores.SIZE), actual, "No submission should be lost under contention.");
+    }
+
+    @Test
+    void submit_ReturnsTheRankOrZero() {
+        TopScores board = new TopScores(file, 2);
+        assertEquals(1, board.submit(new ScoreEntry(10, LocalDate.now())));
+        assertEquals(1, board.submit(new ScoreEntry(20, LocalDate.now())));
+        assertEquals(0, board.submit(new ScoreEntry(5, LocalDate.now())), "A score below a full list should not place.");
+        assertEquals(2, board.submit(new ScoreEntry(15, LocalDate.now())));
+        assertEquals(20, board.get().get(0).getScore());
+        assertEquals(15, board.get().get(1).getScore());
+    }
+
+    @Test
+    void submit_TwoWritersOnOneFile_MergeInsteadOfOverwriting() {
+        TopScores first = new TopScores(file, TopScores.SIZE); // Stands in for another process
+        TopScores second = new TopScores(file, TopScores.SIZE);
+        first.submit(new ScoreEntry(30, LocalDate.now()));
+        second.submit(new ScoreEntry(40, LocalDate.now())); // Did not see the 30 in memory
+        first.submit(new ScoreEntry(10, LocalDate.now()));
+
+        List<ScoreEntry> onDisk = new TopScores(file, TopScores.SIZE).get();
+        assertEquals(3, onDisk.size(), "Both writers' scores should be in the file.");
+        assertEquals(40, onDisk.get(0).getScore());
+        assertEquals(30, onDisk.get(1).getScore());
+        assertEquals(10, onDisk.get(2).getScore());
+    }
+
+    @Test
+    void submit_AfterAWriteCutShort_KeepsTheListAndCarriesOn() throws IOException {
+        TopScores before = new TopScores(file, TopScores.SIZE);
+        before.submit(new ScoreEntry(30, LocalDate.now()));
+        before.submit(new ScoreEntry(20, LocalDate.now()));
+        byte[] written = Files.readAllBytes(file);
+        Files.write(file.resolveSibling("scores.dat.tmp"), Arrays.copyOf(written, written.length / 2)); // Died mid-write
+
+        TopScores after = new TopScores(file, TopScores.SIZE);
+        assertEquals(2, after.get().size(), "The list should survive a write that never finished.");
+        after.submit(new ScoreEntry(25, LocalDate.now()));
+
+        List<ScoreEntry> onDisk = new TopScores(file, TopScores.SIZE).get();
+        assertEquals(3, onDisk.size());
+        assertEquals(25, onDisk.get(1).getScore());
+    }
+
+    @Test
+    void submitAndRefresh_ConcurrentOnOneFile_NoExceptionAndNothingLost() throws InterruptedException {
+        TopScores writer = new TopScores(file, TopScores.SIZE);
+        TopScores reader = new TopScores(file, TopScores.SIZE); // Another engine's view of the same file
+        List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 6; t++) {
+            int seed = t;
+            Thread thread = new Thread(() -> {
+                try {
+                    for (int i = 0; i < 200; i++) {
+                        if (seed % 2 == 0) {
+                            writer.submit(new ScoreEntry(seed * 1000 + i, LocalDate.of(2024, 1, 1)));
+                        } else {
+                            reader.refresh();
+                        }
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) thread.join();
+
+        assertTrue(failures.isEmpty(), "Overlapping submits and refreshes should not throw: " + failures);
+        List<ScoreEntry> onDisk = new TopScores(file, TopScores.SIZE).get();
+        assertEquals(4199, onDisk.get(0).getScore(), "The best score should have reached the file.");
+        assertEquals(4195, onDisk.get(TopScores.SIZE - 1).getScore());
+    }
+}